@@ -0,0 +1,39 @@
+package benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * File: BenchmarkMain.java
+ * Assignment: Minesweeper
+ * Course: CSC 335; Spring 2021
+ * 
+ * This class runs the engine benchmarks with the GC profiler, so the bytes allocated and the 
+ * collections caused by each operation are reported next to its time. With no arguments every 
+ * benchmark is run; otherwise only those whose names match the given regular expressions.
+ * 
+ * @author Caroline Hyland
+ * @author James O'Connell
+ * @author Nicholas Leluan
+ * @author Christian Trejo
+ */
+public class BenchmarkMain {
+	
+	/**
+	 * Purpose: Runs the selected benchmarks.
+	 * 
+	 * @param args String[] regular expressions selecting benchmarks, or none for all of them
+	 * @throws RunnerException if JMH cannot run a benchmark
+	 */
+	public static void main(String[] args) throws RunnerException {
+		OptionsBuilder options = new OptionsBuilder();
+		for (String pattern : args) {
+			options.include(pattern);
+		}
+		Options built = options.addProfiler(GCProfiler.class).build();
+		new Runner(built).run();
+	}
+}
@@ -0,0 +1,90 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import highscore.HighScoreBoard;
+import highscore.PlayerProfile;
+import model.SeededRandom;
+
+/**
+ * File: HighScoreBenchmark.java
+ * Assignment: Minesweeper
+ * Course: CSC 335; Spring 2021
+ * 
+ * This class benchmarks the HighScoreBoard: adding a score to a mode that already holds a 
+ * number of scores, and reading the top ten of that mode. The board is refilled before every
+ * iteration so that adding scores does not keep growing it.
+ * 
+ * @author Caroline Hyland
+ * @author James O'Connell
+ * @author Nicholas Leluan
+ * @author Christian Trejo
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HighScoreBenchmark {
+	
+	@Param({"10", "1000", "100000"})
+	int scores;
+	
+	/**
+	 * Board holding the given number of Expert square scores.
+	 */
+	private HighScoreBoard board;
+	
+	/**
+	 * Stream of the scores added by addNewScore.
+	 */
+	private SeededRandom random;
+	
+	/**
+	 * Fills a new board with scores from 1 to 999 seconds.
+	 */
+	@Setup(Level.Iteration)
+	public void setUp() {
+		board = new HighScoreBoard();
+		random = new SeededRandom(335L);
+		for (int idx = 0; idx < scores; idx++) {
+			board.addNewScore("player" + idx, 1 + random.nextInt(999), "Expertsquare");
+		}
+	}
+	
+	/**
+	 * Adds one score to the board.
+	 * 
+	 * @return HighScoreBoard the board
+	 */
+	@Benchmark
+	public HighScoreBoard addNewScore() {
+		board.addNewScore("player", 1 + random.nextInt(999), "Expertsquare");
+		return board;
+	}
+	
+	/**
+	 * Reads the top ten scores of the board.
+	 * 
+	 * @return ArrayList of the top ten PlayerProfiles
+	 */
+	@Benchmark
+	public ArrayList<PlayerProfile> getTopTen() {
+		return board.getTopTen("Expertsquare");
+	}
+}
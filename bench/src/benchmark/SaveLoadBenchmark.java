@@ -0,0 +1,108 @@
+package benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import controller.MinesweeperController;
+import model.BoardSpec;
+import model.MinesweeperBoard;
+
+/**
+ * File: SaveLoadBenchmark.java
+ * Assignment: Minesweeper
+ * Course: CSC 335; Spring 2021
+ * 
+ * This class benchmarks saving a game in progress and loading it again, the same Java 
+ * serialization the game uses for "save_game.dat", but to and from memory so the disk is not 
+ * measured. Generated boards save only their seed and which squares are revealed or flagged, 
+ * so loading includes generating the board again.
+ * 
+ * @author Caroline Hyland
+ * @author James O'Connell
+ * @author Nicholas Leluan
+ * @author Christian Trejo
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SaveLoadBenchmark {
+	
+	@Param({"16", "256", "2048"})
+	int size;
+	
+	@Param({"PACKED", "BITBOARD"})
+	MinesweeperBoard.Storage storage;
+	
+	/**
+	 * Board of a game with its first reveal made.
+	 */
+	private MinesweeperBoard board;
+	
+	/**
+	 * The board saved by setUp, read back by load.
+	 */
+	private byte[] saved;
+	
+	/**
+	 * Sets up a game in progress and saves it once for load.
+	 * 
+	 * @throws Exception if the first reveal or the save fails, which they never do
+	 */
+	@Setup
+	public void setUp() throws Exception {
+		BoardSpec spec = new BoardSpec(size, size, "Custom", "square", size * size / 5, 335L, size / 2, size / 2);
+		MinesweeperController game = new MinesweeperController(spec.build(storage));
+		game.putTurn(size / 2, size / 2);
+		board = game.getBoard();
+		saved = save();
+	}
+	
+	/**
+	 * Serializes the board.
+	 * 
+	 * @return byte[] the saved board
+	 * @throws IOException never, as the bytes are kept in memory
+	 */
+	@Benchmark
+	public byte[] save() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(board);
+		out.close();
+		return bytes.toByteArray();
+	}
+	
+	/**
+	 * Deserializes the saved board.
+	 * 
+	 * @return MinesweeperBoard the loaded board
+	 * @throws IOException never, as the bytes are a saved board
+	 * @throws ClassNotFoundException never, as the board class is present
+	 */
+	@Benchmark
+	public MinesweeperBoard load() throws IOException, ClassNotFoundException {
+		ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(saved));
+		MinesweeperBoard loaded = (MinesweeperBoard) in.readObject();
+		in.close();
+		return loaded;
+	}
+}
@@ -0,0 +1,139 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import controller.MinesweeperController;
+import exceptions.HitMineException;
+import exceptions.IllegalMoveException;
+import model.BoardSpec;
+import model.MinesweeperBoard;
+
+/**
+ * File: TurnBenchmark.java
+ * Assignment: Minesweeper
+ * Course: CSC 335; Spring 2021
+ * 
+ * This class benchmarks the moves of a game through MinesweeperController: a first reveal on a
+ * freshly generated board, which opens a cascade whose size is set by the mine density, placing 
+ * and removing a flag, and checking whether the game is won.
+ * 
+ * A reveal can only be made once per board, so the reveal benchmark gets a new board before 
+ * every invocation, rebuilt from the same BoardSpec outside the timed region. The sizes are 
+ * large enough that a reveal takes far longer than JMH's per-invocation bookkeeping.
+ * 
+ * @author Caroline Hyland
+ * @author James O'Connell
+ * @author Nicholas Leluan
+ * @author Christian Trejo
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TurnBenchmark {
+	
+	@Param({"256", "2048"})
+	int size;
+	
+	@Param({"0.01", "0.1", "0.2"})
+	double density;
+	
+	/**
+	 * Spec every revealed board is rebuilt from.
+	 */
+	private BoardSpec spec;
+	
+	/**
+	 * Game whose first reveal is timed, rebuilt before every invocation.
+	 */
+	private MinesweeperController fresh;
+	
+	/**
+	 * Game in progress that flags are toggled on and that is checked for a win.
+	 */
+	private MinesweeperController played;
+	
+	/**
+	 * Hidden square of the game in progress that is flagged and unflagged.
+	 */
+	private int flagRow;
+	private int flagCol;
+	
+	/**
+	 * Sets up the spec and a game with its first reveal made.
+	 * 
+	 * @throws Exception if the first reveal fails, which the first click never does
+	 */
+	@Setup(Level.Trial)
+	public void setUpTrial() throws Exception {
+		int mines = (int) (density * size * size);
+		spec = new BoardSpec(size, size, "Custom", "square", mines, 335L, size / 2, size / 2);
+		played = new MinesweeperController(spec.build(MinesweeperBoard.Storage.PACKED));
+		played.putTurn(size / 2, size / 2);
+		int cell = 0;
+		while (played.getVisible(cell / size, cell % size) != MinesweeperBoard.INVISIBLE) {
+			cell++;
+		}
+		flagRow = cell / size;
+		flagCol = cell % size;
+	}
+	
+	/**
+	 * Rebuilds the board whose first reveal is timed.
+	 */
+	@Setup(Level.Invocation)
+	public void setUpInvocation() {
+		fresh = new MinesweeperController(spec.build(MinesweeperBoard.Storage.PACKED));
+	}
+	
+	/**
+	 * Reveals the first click of a generated board and the cascade it opens.
+	 * 
+	 * @return int number of squares revealed
+	 * @throws HitMineException never, as the first click is always safe
+	 * @throws IllegalMoveException never, as the square is hidden
+	 */
+	@Benchmark
+	public int revealCascade() throws HitMineException, IllegalMoveException {
+		fresh.putTurn(size / 2, size / 2);
+		return fresh.getLastRevealed().size();
+	}
+	
+	/**
+	 * Places a flag on a hidden square and removes it again.
+	 * 
+	 * @return int number of flags left
+	 * @throws IllegalMoveException never, as the square is hidden
+	 */
+	@Benchmark
+	public int flag() throws IllegalMoveException {
+		played.flag(flagRow, flagCol);
+		played.flag(flagRow, flagCol);
+		return played.getNumFlags();
+	}
+	
+	/**
+	 * Checks whether the game in progress is won.
+	 * 
+	 * @return boolean expressing whether the game is won
+	 */
+	@Benchmark
+	public boolean isGameWon() {
+		return played.isGameWon();
+	}
+}
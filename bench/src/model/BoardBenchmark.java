@@ -0,0 +1,116 @@
+package model;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * File: BoardBenchmark.java
+ * Assignment: Minesweeper
+ * Course: CSC 335; Spring 2021
+ * 
+ * This class benchmarks building and generating boards of every shape: the constructor (which 
+ * lays out the shape's DNE squares and the neighbor offsets), full generation from a BoardSpec 
+ * (hiding the board, placing the mines, counting the proximity values and indexing the 
+ * openings), and counting the proximity values and indexing the openings alone. It sits in the 
+ * model package so it can call countMines and indexOpenings directly; the cost of placing the 
+ * mines is what build takes beyond construct, countMines and indexOpenings.
+ * 
+ * Boards are square, size by size, with a fifth of the possible mines.
+ * 
+ * @author Caroline Hyland
+ * @author James O'Connell
+ * @author Nicholas Leluan
+ * @author Christian Trejo
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+	
+	@Param({"16", "256", "2048"})
+	int size;
+	
+	@Param({"square", "triangle", "diamond", "cross"})
+	String shape;
+	
+	@Param({"PACKED", "BITBOARD"})
+	MinesweeperBoard.Storage storage;
+	
+	/**
+	 * Spec of the board generated by build.
+	 */
+	private BoardSpec spec;
+	
+	/**
+	 * Generated board whose values are recounted by countMines and openings indexed again by
+	 * indexOpenings.
+	 */
+	private MinesweeperBoard generated;
+	
+	/**
+	 * Sets up the spec and a generated board for the current parameters.
+	 */
+	@Setup
+	public void setUp() {
+		MinesweeperBoard empty = new MinesweeperBoard(size, size, "Custom", shape, storage);
+		int mines = empty.maxMines() / 5;
+		spec = new BoardSpec(size, size, "Custom", shape, mines, 335L, size / 2, size / 2);
+		generated = spec.build(storage);
+	}
+	
+	/**
+	 * Builds an empty board of the current shape.
+	 * 
+	 * @return MinesweeperBoard new board
+	 */
+	@Benchmark
+	public MinesweeperBoard construct() {
+		return new MinesweeperBoard(size, size, "Custom", shape, storage);
+	}
+	
+	/**
+	 * Builds a board and generates its mines, proximity values and opening index.
+	 * 
+	 * @return MinesweeperBoard new generated board
+	 */
+	@Benchmark
+	public MinesweeperBoard build() {
+		return spec.build(storage);
+	}
+	
+	/**
+	 * Recounts the proximity values of every square of a generated board.
+	 * 
+	 * @return MinesweeperBoard the recounted board
+	 */
+	@Benchmark
+	public MinesweeperBoard countMines() {
+		generated.countMines(0, size);
+		return generated;
+	}
+	
+	/**
+	 * Indexes the openings of a generated board again.
+	 * 
+	 * @return MinesweeperBoard the indexed board
+	 */
+	@Benchmark
+	public MinesweeperBoard indexOpenings() {
+		generated.indexOpenings();
+		return generated;
+	}
+}
@@ -1,3 +1,4 @@
+import metrics.EngineMetrics;
 import view.MinesweeperView;
 import javafx.application.Application;
 
@@ -7,6 +8,7 @@ import javafx.application.Application;
  * Course: CSC 335; Spring 2021
  * This class is the main driver for the implementation of the Minesweeper
  * game. This class wil launch the GUI version of the Minesweeper game 
+ * and export the engine metrics over JMX
  *
  * @author Caroline Hyland
  * @author James O'Connell
@@ -15,6 +17,7 @@ import javafx.application.Application;
  */
 public class Minesweeper {
     public static void main(String[] args) {
+        EngineMetrics.registerMBean();
         Application.launch(MinesweeperView.class, args);
     }
 
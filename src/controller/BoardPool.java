@@ -0,0 +1,365 @@
+package controller;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import model.MinesweeperBoard;
+
+/**
+ * File: BoardPool.java
+ * Assignment: Minesweeper
+ * Course: CSC 335; Spring 2021
+ *
+ * This class keeps new, unplayed boards ready for each game preset (size, mines, difficulty and
+ * shape), so starting a game does not wait for the MinesweeperBoard constructor to allocate the
+ * cells and mark the squares outside the shape, and the first click does not wait for the mines
+ * to be placed: each board's mines are laid out from its seed with layOutMines(), leaving only
+ * the few touching the first click to be moved. A single daemon thread builds boards in the
+ * background; take() hands one over at once, or builds one on the calling thread if none is
+ * ready, whose mines are then placed by the first click as usual.
+ *
+ * The pool is bounded three ways:
+ * - depth: the most boards kept ready for one preset
+ * - bytes: the most memory of boards kept ready across every preset, counting their cells and
+ *   opening index; a preset whose board alone is larger is built on demand only
+ * - idle time: a preset not taken from or warmed for that long is dropped with its boards
+ *
+ * Each board gets its own random seed when it is built, and a laid out board becomes the same
+ * board at the first click as one built on demand with that seed, so boards from the pool are as
+ * random as boards built on demand.
+ *
+ * @author Caroline Hyland
+ * @author James O'Connell
+ * @author Nicholas Leluan
+ * @author Christian Trejo
+ */
+public class BoardPool implements AutoCloseable {
+
+	/**
+	 * Default bounds of a pool.
+	 */
+	public static final int DEFAULT_DEPTH = 2;
+	public static final long DEFAULT_MAX_BYTES = 64L << 20;
+	public static final long DEFAULT_IDLE_MILLIS = 10 * 60 * 1000;
+
+	/**
+	 * Bytes counted for a board besides its cells and opening index.
+	 */
+	private static final long BOARD_OVERHEAD = 256;
+
+	/**
+	 * Most boards kept ready for one preset.
+	 */
+	private final int depth;
+
+	/**
+	 * Most bytes of boards kept ready across every preset.
+	 */
+	private final long maxBytes;
+
+	/**
+	 * Time in milliseconds after which an unused preset is dropped.
+	 */
+	private final long idleMillis;
+
+	/**
+	 * Presets in use, by key; guarded by this pool's monitor, like every field below.
+	 */
+	private final LinkedHashMap<String, Preset> presets = new LinkedHashMap<String, Preset>();
+
+	/**
+	 * Bytes of the boards kept ready.
+	 */
+	private long bytes;
+
+	/**
+	 * Background thread building boards, started by the first call that needs it.
+	 */
+	private Thread producer;
+
+	/**
+	 * Set once close() has been called.
+	 */
+	private boolean closed;
+
+	/**
+	 * Constructs a new pool with the default bounds.
+	 */
+	public BoardPool() {
+		this(DEFAULT_DEPTH, DEFAULT_MAX_BYTES, DEFAULT_IDLE_MILLIS);
+	}
+
+	/**
+	 * Constructs a new pool with the given bounds.
+	 *
+	 * @param depth int most boards kept ready for one preset, at least 1
+	 * @param maxBytes long most bytes of boards kept ready across every preset
+	 * @param idleMillis long milliseconds after which an unused preset is dropped
+	 * @throws IllegalArgumentException if depth is less than 1 or a bound is negative
+	 */
+	public BoardPool(int depth, long maxBytes, long idleMillis) {
+		if (depth < 1 || maxBytes < 0 || idleMillis < 0) {
+			throw new IllegalArgumentException("Invalid pool bounds: depth " + depth + ", bytes "
+					+ maxBytes + ", idle " + idleMillis + " ms");
+		}
+		this.depth = depth;
+		this.maxBytes = maxBytes;
+		this.idleMillis = idleMillis;
+	}
+
+	/**
+	 * Purpose: Marks a preset as in use, so boards are built for it in the background before
+	 * anyone asks for one.
+	 *
+	 * @param rows int number of rows of the board
+	 * @param cols int number of columns of the board
+	 * @param mines int number of mines of the game
+	 * @param difficulty String difficulty of the board
+	 * @param shape String shape of the board
+	 */
+	public synchronized void warm(int rows, int cols, int mines, String difficulty, String shape) {
+		if (closed) {
+			return;
+		}
+		preset(rows, cols, mines, difficulty, shape).lastUsed = System.nanoTime();
+		startProducer();
+		notifyAll();
+	}
+
+	/**
+	 * Purpose: Returns a new board of the given preset, taking a ready one if there is one and
+	 * otherwise building it on the calling thread. Either way the preset is marked as in use and
+	 * refilled in the background.
+	 *
+	 * @param rows int number of rows of the board
+	 * @param cols int number of columns of the board
+	 * @param mines int number of mines of the game
+	 * @param difficulty String difficulty of the board
+	 * @param shape String shape of the board
+	 * @return MinesweeperBoard new board with its mines laid out, or none placed if it was built
+	 * on the calling thread
+	 */
+	public MinesweeperBoard take(int rows, int cols, int mines, String difficulty, String shape) {
+		synchronized (this) {
+			if (!closed) {
+				Preset preset = preset(rows, cols, mines, difficulty, shape);
+				preset.lastUsed = System.nanoTime();
+				MinesweeperBoard board = preset.ready.poll();
+				startProducer();
+				notifyAll();
+				if (board != null) {
+					bytes -= bytesOf(board);
+					return board;
+				}
+			}
+		}
+		return new MinesweeperBoard(rows, cols, difficulty, shape);
+	}
+
+	/**
+	 * Purpose: Returns the number of boards ready for the given preset.
+	 *
+	 * @param rows int number of rows of the board
+	 * @param cols int number of columns of the board
+	 * @param mines int number of mines of the game
+	 * @param difficulty String difficulty of the board
+	 * @param shape String shape of the board
+	 * @return int number of boards ready
+	 */
+	public synchronized int numReady(int rows, int cols, int mines, String difficulty, String shape) {
+		Preset preset = presets.get(key(rows, cols, mines, difficulty, shape));
+		return preset == null ? 0 : preset.ready.size();
+	}
+
+	/**
+	 * Purpose: Returns the number of presets in use.
+	 *
+	 * @return int number of presets
+	 */
+	public synchronized int numPresets() {
+		return presets.size();
+	}
+
+	/**
+	 * Purpose: Returns the bytes of the boards kept ready.
+	 *
+	 * @return long bytes of ready boards
+	 */
+	public synchronized long getBytes() {
+		return bytes;
+	}
+
+	/**
+	 * Purpose: Stops the background thread and drops every ready board. Later calls to take()
+	 * build their board on the calling thread.
+	 */
+	@Override
+	public synchronized void close() {
+		closed = true;
+		presets.clear();
+		bytes = 0;
+		notifyAll();
+	}
+
+	/**
+	 * Builds and lays out boards until the pool is closed, one at a time and outside the monitor
+	 * so take() is never held up, sleeping while every preset is full or over the byte bound.
+	 */
+	private void produce() {
+		while (true) {
+			Preset preset;
+			synchronized (this) {
+				while (true) {
+					if (closed) {
+						return;
+					}
+					evictIdle();
+					preset = nextToFill();
+					if (preset != null) {
+						break;
+					}
+					try {
+						wait(presets.isEmpty() ? 0 : Math.max(1, Math.min(idleMillis, 60_000)));
+					} catch (InterruptedException e) {
+						return;
+					}
+				}
+			}
+			MinesweeperBoard board = new MinesweeperBoard(preset.rows, preset.cols, preset.difficulty, preset.shape);
+			if (preset.mines >= 0 && preset.mines <= board.maxMines()) {
+				board.layOutMines(preset.mines);
+			}
+			long boardBytes = bytesOf(board);
+			synchronized (this) {
+				preset.boardBytes = boardBytes;
+				if (!closed && presets.get(preset.key) == preset && preset.ready.size() < depth
+						&& bytes + boardBytes <= maxBytes) {
+					preset.ready.add(board);
+					bytes += boardBytes;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the preset with the fewest ready boards that is below the depth and whose next
+	 * board fits in the byte bound, or null if there is none.
+	 *
+	 * @return Preset to build a board for, or null
+	 */
+	private Preset nextToFill() {
+		Preset best = null;
+		for (Preset preset : presets.values()) {
+			if (preset.ready.size() < depth && bytes + preset.boardBytes <= maxBytes
+					&& (best == null || preset.ready.size() < best.ready.size())) {
+				best = preset;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Drops every preset that has not been used for idleMillis, with its ready boards.
+	 */
+	private void evictIdle() {
+		long now = System.nanoTime();
+		Iterator<Preset> presetIter = presets.values().iterator();
+		while (presetIter.hasNext()) {
+			Preset preset = presetIter.next();
+			if (now - preset.lastUsed >= idleMillis * 1_000_000L) {
+				for (MinesweeperBoard board : preset.ready) {
+					bytes -= bytesOf(board);
+				}
+				presetIter.remove();
+			}
+		}
+	}
+
+	/**
+	 * Returns the preset of the given board settings, adding it if it is not in use.
+	 *
+	 * @param rows int number of rows of the board
+	 * @param cols int number of columns of the board
+	 * @param mines int number of mines of the game
+	 * @param difficulty String difficulty of the board
+	 * @param shape String shape of the board
+	 * @return Preset of the settings
+	 */
+	private Preset preset(int rows, int cols, int mines, String difficulty, String shape) {
+		String key = key(rows, cols, mines, difficulty, shape);
+		Preset preset = presets.get(key);
+		if (preset == null) {
+			preset = new Preset(key, rows, cols, mines, difficulty, shape);
+			presets.put(key, preset);
+		}
+		return preset;
+	}
+
+	/**
+	 * Starts the background thread if it is not running.
+	 */
+	private void startProducer() {
+		if (producer == null) {
+			producer = new Thread(this::produce, "board-pool");
+			producer.setDaemon(true);
+			producer.setPriority(Thread.MIN_PRIORITY);
+			producer.start();
+		}
+	}
+
+	/**
+	 * Returns the bytes counted for a board. A ready board is never changed, so it is counted
+	 * the same when it is added and when it is taken.
+	 *
+	 * @param board MinesweeperBoard to count
+	 * @return long bytes of the board
+	 */
+	private static long bytesOf(MinesweeperBoard board) {
+		return board.numBytes() + BOARD_OVERHEAD;
+	}
+
+	/**
+	 * Returns the key of the given board settings.
+	 *
+	 * @param rows int number of rows of the board
+	 * @param cols int number of columns of the board
+	 * @param mines int number of mines of the game
+	 * @param difficulty String difficulty of the board
+	 * @param shape String shape of the board
+	 * @return String key of the settings
+	 */
+	private static String key(int rows, int cols, int mines, String difficulty, String shape) {
+		return rows + "x" + cols + " " + mines + " " + difficulty + " " + shape.toLowerCase();
+	}
+
+	/**
+	 * One set of board settings and the boards ready for it.
+	 */
+	private static final class Preset {
+
+		private final String key;
+		private final int rows;
+		private final int cols;
+		private final int mines;
+		private final String difficulty;
+		private final String shape;
+		/**
+		 * Bytes of the last board built, used to decide whether the next one fits; one per
+		 * cell until a board has been built.
+		 */
+		private long boardBytes;
+		private final ArrayDeque<MinesweeperBoard> ready = new ArrayDeque<MinesweeperBoard>();
+		private long lastUsed;
+
+		private Preset(String key, int rows, int cols, int mines, String difficulty, String shape) {
+			this.key = key;
+			this.rows = rows;
+			this.cols = cols;
+			this.mines = mines;
+			this.difficulty = difficulty;
+			this.shape = shape;
+			this.boardBytes = (long) rows * cols + BOARD_OVERHEAD;
+		}
+	}
+}
@@ -0,0 +1,246 @@
+package controller;
+
+import java.util.Arrays;
+
+import exceptions.HitMineException;
+import exceptions.IllegalMoveException;
+import model.ChunkedBoard;
+import model.MinesweeperBoard;
+
+/**
+ * File: EndlessController.java
+ * Assignment: Minesweeper
+ * Course: CSC 335; Spring 2021
+ *
+ * This class holds the game logic of the endless mode, played on a ChunkedBoard with no edges.
+ * It mirrors MinesweeperController: a click reveals a square and, if the square is empty,
+ * ripples out through the connected empty squares, and flags can be placed and removed. There
+ * is no fixed number of mines, so the game is never won; the score is the number of squares
+ * uncovered before a mine is hit.
+ *
+ * On a board with few mines an opening can be arbitrarily large, so a single turn reveals at
+ * most maxRevealPerTurn squares. Empty squares that were revealed but not yet expanded are kept
+ * on the frontier and expanded by continueReveal, for example on the next frame of the view.
+ *
+ * @author Caroline Hyland
+ * @author James O'Connell
+ * @author Nicholas Leluan
+ * @author Christian Trejo
+ */
+public class EndlessController {
+
+	/**
+	 * Default largest number of squares revealed by one turn.
+	 */
+	public static final int DEFAULT_MAX_REVEAL = 1 << 16;
+
+	private ChunkedBoard board;
+
+	/**
+	 * Largest number of squares revealed by one call to putTurn or continueReveal.
+	 */
+	private int maxRevealPerTurn;
+
+	/**
+	 * Frontier of revealed empty squares still to be expanded, each packed as row << 32 | col.
+	 */
+	private long[] frontier = new long[64];
+	private int frontierSize;
+
+	/**
+	 * True once a mine has been revealed.
+	 */
+	private boolean lost;
+
+	/**
+	 * Constructor used to start an endless game on a new board with the given seed and
+	 * mine density.
+	 *
+	 * @param seed long seed the board's mines are derived from
+	 * @param density double fraction of the squares that hold a mine
+	 */
+	public EndlessController(long seed, double density) {
+		this(new ChunkedBoard(seed, density), DEFAULT_MAX_REVEAL);
+	}
+
+	/**
+	 * Constructor used to continue an endless game on the given board, revealing at most
+	 * the given number of squares per turn.
+	 *
+	 * @param board ChunkedBoard to play on
+	 * @param maxRevealPerTurn int largest number of squares one turn may reveal, at least 1
+	 */
+	public EndlessController(ChunkedBoard board, int maxRevealPerTurn) {
+		if (maxRevealPerTurn < 1) {
+			throw new IllegalArgumentException("A turn must be able to reveal a square: " + maxRevealPerTurn);
+		}
+		this.board = board;
+		this.maxRevealPerTurn = maxRevealPerTurn;
+		this.lost = board.numVisibleMines() > 0;
+	}
+
+	/**
+	 * Purpose: This method processes a player click. Clicking a square that is already
+	 * revealed or flagged throws an IllegalMoveException and clicking a mine throws a
+	 * HitMineException. Otherwise the square is revealed and, if it is empty, the connected
+	 * empty squares are revealed up to the per-turn limit.
+	 *
+	 * @param row int value of the row to put move on
+	 * @param col int value of the column to put move on
+	 * @return int number of squares revealed by this turn
+	 * @throws HitMineException indicates mine has been clicked on
+	 * @throws IllegalMoveException indicates the move is not legal (the game is over or the
+	 * square is already revealed or flagged)
+	 */
+	public int putTurn(int row, int col) throws HitMineException, IllegalMoveException {
+		if (lost || board.getVisible(row, col) != MinesweeperBoard.INVISIBLE) {
+			throw new IllegalMoveException(row, col);
+		}
+		board.putVisible(row, col, MinesweeperBoard.VISIBLE);
+		int val = board.getVal(row, col);
+		if (val == MinesweeperBoard.MINE) {
+			lost = true;
+			frontierSize = 0;
+			throw new HitMineException(row, col);
+		}
+		if (val == 0) {
+			push(row, col);
+		}
+		return 1 + expand(maxRevealPerTurn - 1);
+	}
+
+	/**
+	 * Purpose: This method continues an opening that was cut short by the per-turn limit,
+	 * revealing at most maxRevealPerTurn more squares.
+	 *
+	 * @return int number of squares revealed
+	 */
+	public int continueReveal() {
+		return expand(maxRevealPerTurn);
+	}
+
+	/**
+	 * Purpose: Returns true if an opening was cut short and continueReveal has work left.
+	 *
+	 * @return boolean true if empty squares are still waiting to be expanded
+	 */
+	public boolean hasPendingReveal() {
+		return frontierSize > 0;
+	}
+
+	/**
+	 * Expands empty squares from the frontier, revealing their hidden neighbors and pushing
+	 * those that are empty in turn, until the frontier is empty or the limit is reached. A
+	 * square's own visibility serves as its visited mark. A square whose neighbors are only
+	 * partly revealed when the limit is hit is pushed back so nothing is lost.
+	 *
+	 * @param limit int largest number of squares to reveal
+	 * @return int number of squares revealed
+	 */
+	private int expand(int limit) {
+		int count = 0;
+		while (frontierSize > 0 && count < limit) {
+			long packed = frontier[--frontierSize];
+			int row = (int) (packed >> 32);
+			int col = (int) packed;
+			for (int dRow = -1; dRow <= 1; dRow++) {
+				for (int dCol = -1; dCol <= 1; dCol++) {
+					int nRow = row + dRow;
+					int nCol = col + dCol;
+					if (board.getVisible(nRow, nCol) != MinesweeperBoard.INVISIBLE) {
+						continue;
+					}
+					if (count == limit) {
+						push(row, col);
+						return count;
+					}
+					board.putVisible(nRow, nCol, MinesweeperBoard.VISIBLE);
+					count++;
+					if (board.getVal(nRow, nCol) == 0) {
+						push(nRow, nCol);
+					}
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Pushes a revealed empty square onto the frontier, growing it if needed.
+	 *
+	 * @param row int row coordinate of the square
+	 * @param col int column coordinate of the square
+	 */
+	private void push(int row, int col) {
+		if (frontierSize == frontier.length) {
+			frontier = Arrays.copyOf(frontier, frontierSize * 2);
+		}
+		frontier[frontierSize++] = ((long) row << 32) | (col & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Purpose: This method places a flag on a hidden square or removes the flag from a
+	 * flagged one. There is no limit on the number of flags in endless mode.
+	 *
+	 * @param row int value of the row in which to add the flag on board
+	 * @param col int value of the column in the row in which to add the flag on board
+	 * @throws IllegalMoveException indicates the square is already revealed or the game is over
+	 */
+	public void flag(int row, int col) throws IllegalMoveException {
+		int visibility = board.getVisible(row, col);
+		if (lost || visibility == MinesweeperBoard.VISIBLE) {
+			throw new IllegalMoveException(row, col);
+		}
+		board.putVisible(row, col, visibility == MinesweeperBoard.FLAG
+				? MinesweeperBoard.INVISIBLE : MinesweeperBoard.FLAG);
+	}
+
+	/**
+	 * Purpose: Returns true once a mine has been revealed.
+	 *
+	 * @return boolean true if the game is lost
+	 */
+	public boolean isGameLost() {
+		return lost;
+	}
+
+	/**
+	 * Purpose: Returns the score of the game, the number of safe squares revealed.
+	 *
+	 * @return long number of safe squares revealed
+	 */
+	public long getScore() {
+		return board.numVisible() - board.numVisibleMines();
+	}
+
+	/**
+	 * Purpose: Returns the value at the given square, or MINE if it holds a mine.
+	 *
+	 * @param row int row coordinate of the square
+	 * @param col int column coordinate of the square
+	 * @return int value of the square
+	 */
+	public int getVal(int row, int col) {
+		return board.getVal(row, col);
+	}
+
+	/**
+	 * Purpose: Returns the visibility of the given square.
+	 *
+	 * @param row int row coordinate of the square
+	 * @param col int column coordinate of the square
+	 * @return int visibility of the square
+	 */
+	public int getVisible(int row, int col) {
+		return board.getVisible(row, col);
+	}
+
+	/**
+	 * Purpose: Returns the board this game is played on.
+	 *
+	 * @return ChunkedBoard of the game
+	 */
+	public ChunkedBoard getBoard() {
+		return board;
+	}
+}
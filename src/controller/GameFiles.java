@@ -0,0 +1,219 @@
+package controller;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import highscore.HighScoreBoard;
+import metrics.FileEvent;
+import model.MinesweeperBoard;
+
+/**
+ * File: GameFiles.java
+ * Assignment: Minesweeper
+ * Course: CSC 335; Spring 2021
+ * 
+ * This class saves and loads the serialized game files: an unfinished MinesweeperBoard in 
+ * "save_game.dat" and the HighScoreBoard in "highscores.dat". It used to live in the view; 
+ * keeping it next to the controller lets headless clients save and resume games the same way
+ * the JavaFX view does. Each method also takes an explicit File so batch jobs and tests can 
+ * keep their files apart.
+ * 
+ * Loading a file consumes it: the file is deleted once it has been read, as a saved game is 
+ * only ever resumed once.
+ * 
+ * Every save and load is recorded as a FileEvent, with the size of the file, when Flight 
+ * Recorder is on.
+ * 
+ * @author Caroline Hyland
+ * @author James O'Connell
+ * @author Nicholas Leluan
+ * @author Christian Trejo
+ */
+public class GameFiles {
+	
+	/**
+	 * File an unfinished game is saved to.
+	 */
+	public static final File SAVE_GAME_FILE = new File("save_game.dat");
+	
+	/**
+	 * File the high scores are saved to.
+	 */
+	public static final File HIGH_SCORE_FILE = new File("highscores.dat");
+	
+	/**
+	 * Purpose: Returns whether there is a saved game to resume.
+	 * 
+	 * @return boolean expressing whether the saved game file exists
+	 */
+	public static boolean hasSavedGame() {
+		return SAVE_GAME_FILE.exists();
+	}
+	
+	/**
+	 * Purpose: Deletes the saved game, if there is one.
+	 */
+	public static void deleteSavedGame() {
+		SAVE_GAME_FILE.delete();
+	}
+	
+	/**
+	 * Purpose: Saves the board of an unfinished game to the saved game file.
+	 * 
+	 * @param board MinesweeperBoard to save
+	 * @throws IOException if the file cannot be written
+	 */
+	public static void saveBoard(MinesweeperBoard board) throws IOException {
+		saveBoard(board, SAVE_GAME_FILE);
+	}
+	
+	/**
+	 * Purpose: Saves the board of an unfinished game to the given file.
+	 * 
+	 * @param board MinesweeperBoard to save
+	 * @param file File to write
+	 * @throws IOException if the file cannot be written
+	 */
+	public static void saveBoard(MinesweeperBoard board, File file) throws IOException {
+		write(board, file);
+	}
+	
+	/**
+	 * Purpose: Loads and deletes the saved game, or returns null if there is no readable 
+	 * saved game.
+	 * 
+	 * @return MinesweeperBoard the saved board, or null
+	 */
+	public static MinesweeperBoard loadBoard() {
+		return loadBoard(SAVE_GAME_FILE);
+	}
+	
+	/**
+	 * Purpose: Loads and deletes the board saved in the given file, or returns null if the 
+	 * file does not hold a readable board.
+	 * 
+	 * @param file File to read
+	 * @return MinesweeperBoard the saved board, or null
+	 */
+	public static MinesweeperBoard loadBoard(File file) {
+		Object loaded = read(file);
+		return loaded instanceof MinesweeperBoard ? (MinesweeperBoard) loaded : null;
+	}
+	
+	/**
+	 * Purpose: Saves the high scores to the high score file.
+	 * 
+	 * @param highScoreBoard HighScoreBoard to save
+	 * @throws IOException if the file cannot be written
+	 */
+	public static void saveHighScores(HighScoreBoard highScoreBoard) throws IOException {
+		saveHighScores(highScoreBoard, HIGH_SCORE_FILE);
+	}
+	
+	/**
+	 * Purpose: Saves the high scores to the given file.
+	 * 
+	 * @param highScoreBoard HighScoreBoard to save
+	 * @param file File to write
+	 * @throws IOException if the file cannot be written
+	 */
+	public static void saveHighScores(HighScoreBoard highScoreBoard, File file) throws IOException {
+		write(highScoreBoard, file);
+	}
+	
+	/**
+	 * Purpose: Loads and deletes the saved high scores, or returns null if there are no 
+	 * readable saved high scores.
+	 * 
+	 * @return HighScoreBoard the saved high scores, or null
+	 */
+	public static HighScoreBoard loadHighScores() {
+		return loadHighScores(HIGH_SCORE_FILE);
+	}
+	
+	/**
+	 * Purpose: Loads and deletes the high scores saved in the given file, or returns null if 
+	 * the file does not hold readable high scores.
+	 * 
+	 * @param file File to read
+	 * @return HighScoreBoard the saved high scores, or null
+	 */
+	public static HighScoreBoard loadHighScores(File file) {
+		Object loaded = read(file);
+		return loaded instanceof HighScoreBoard ? (HighScoreBoard) loaded : null;
+	}
+	
+	/**
+	 * Serializes one object to the given file, replacing its contents.
+	 * 
+	 * @param object Object to serialize
+	 * @param file File to write
+	 * @throws IOException if the file cannot be written
+	 */
+	private static void write(Object object, File file) throws IOException {
+		FileEvent event = new FileEvent();
+		event.begin();
+		boolean succeeded = false;
+		try {
+			ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(file));
+			try {
+				oos.writeObject(object);
+			} finally {
+				oos.close();
+			}
+			succeeded = true;
+		} finally {
+			commitFile(event, FileEvent.SAVE, file, succeeded);
+		}
+	}
+	
+	/**
+	 * Reads one serialized object from the given file and deletes the file once it has been 
+	 * read. Returns null, leaving the file alone, if it is missing or cannot be read.
+	 * 
+	 * @param file File to read
+	 * @return Object read from the file, or null
+	 */
+	private static Object read(File file) {
+		FileEvent event = new FileEvent();
+		event.begin();
+		Object loaded;
+		try {
+			ObjectInputStream ois = new ObjectInputStream(new FileInputStream(file));
+			try {
+				loaded = ois.readObject();
+			} finally {
+				ois.close();
+			}
+		} catch (IOException | ClassNotFoundException e) {
+			commitFile(event, FileEvent.LOAD, file, false);
+			return null;
+		}
+		commitFile(event, FileEvent.LOAD, file, true);
+		file.delete();
+		return loaded;
+	}
+	
+	/**
+	 * Ends a FileEvent and commits it, if Flight Recorder is recording it. The size is read 
+	 * from the file, so it must be called before a loaded file is deleted.
+	 * 
+	 * @param event FileEvent begun when the operation started
+	 * @param operation String FileEvent.SAVE or FileEvent.LOAD
+	 * @param file File written or read
+	 * @param succeeded boolean whether the object was written or read
+	 */
+	private static void commitFile(FileEvent event, String operation, File file, boolean succeeded) {
+		if (event.shouldCommit()) {
+			event.operation = operation;
+			event.path = file.getPath();
+			event.bytes = file.length();
+			event.succeeded = succeeded;
+			event.commit();
+		}
+	}
+}
@@ -1,15 +1,21 @@
 package controller;
 
-import java.util.ArrayList;
-import java.util.HashSet;
+
+import java.util.Arrays;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
 
 import exceptions.HitMineException;
 import exceptions.IllegalMoveException;
 import highscore.HighScoreBoard;
+import metrics.EngineMetrics;
+import metrics.MoveEvent;
+import model.BoardListener;
+import model.ChangeSet;
 import model.MinesweeperBoard;
 import model.MinesweeperModel;
-import orderedpair.OrderedPair;
-import view.MinesweeperView;
+import solver.NoGuessGenerator;
 
 /**
  * File: MinsweeperController.java
@@ -22,23 +28,59 @@ import view.MinesweeperView;
  * game logic to signal to the View the current state and status of the active game and to process changes. A key feature 
  * of this class is communicating with MinesweeperModel which hold data including the MinesweeperBoard.  It holds a 
  * reference to the model in use, along with having a variety of constructors for different circumstances and a public 
- * method to update the model.  There are public methods to handle changes regarding the observable-observer relationship 
- * between the view and the model, and a getter for the MinesweeperBoard, the difficulty of the board, the shape fo the board, 
+ * method to update the model.  There are public methods to add and remove the BoardListeners notified of every move, 
+ * and a getter for the MinesweeperBoard, the difficulty of the board, the shape fo the board, 
  * the status of the board (initialized or not), the number of mines on the board, the number of flags on the board, the
  * score associated with the board, the shape of the board, the value at a specifici position on the board, the visibility 
  * at a specific location on the board, the number of rows on the board, and the number of columns on the board.  There is a 
  * setter for the score, a method to add a new score, and then the rest of the game logic.  These methods include methods to 
  * add and remove flags, check if the game is won, and handle a user turn (where they click on a square).
  * 
+ * The controller does not depend on JavaFX or on any view class, so games can be played headless, for example
+ * by batch jobs and servers; the JavaFX view is one BoardListener among any others.
+ * 
  * @author Caroline Hyland
  * @author James O'Connell
  * @author Nicholas Leluan
  * @author Christian Trejo
  */
-@SuppressWarnings("deprecation")
 public class MinesweeperController {
 
+	/**
+	 * Default number of cells a cascade reveals before the rest of it is searched in parallel.
+	 */
+	public static final int PARALLEL_REVEAL_CELLS = 1 << 18;
+	
+	/**
+	 * Number of frontier cells each parallel task expands.
+	 */
+	private static final int REVEAL_CHUNK = 4096;
+
 	private MinesweeperModel model;
+	
+	/**
+	 * Circular queue of zero cells still to be expanded by automaticReveal. It is kept 
+	 * between turns so a cascade only allocates when its frontier is larger than any before it.
+	 */
+	private int[] revealQueue = new int[64];
+	
+	/**
+	 * Buffer receiving the neighbors of the cell being expanded by automaticReveal.
+	 */
+	private int[] neighbors = new int[8];
+	
+	/**
+	 * Number of cells a cascade reveals before the rest of it is searched in parallel.
+	 */
+	private int parallelRevealCells = PARALLEL_REVEAL_CELLS;
+	
+	/**
+	 * Whether new games are started in no-guess mode, carried over by updateModel(), and 
+	 * whether the current board was made as one that needs no guess. The second is not saved 
+	 * with the board.
+	 */
+	private boolean noGuess;
+	private boolean guessFree;
 
 	/**
 	 * Constructor used when a saved serialized HighScoreBoard is present in directory
@@ -57,6 +99,22 @@ public class MinesweeperController {
 
 	}
 	
+	/**
+	 * Constructor used to start a new game on a board kept on the given storage backend.
+	 * 
+	 * @param row int value for the number of rows in the MinesweeperBoard
+	 * @param col int value for the number of cols in the MinesweeperBoard
+	 * @param count int value for the number of mines to place in the MinesweeperBoard
+	 * @param highScoreBoard HighScoreBoard object representing a previously saved HighScoreBoard
+	 * @param difficulty String value representing the difficulty level the user is attempting
+	 * @param shape String value representing the shape the user is attempting
+	 * @param storage MinesweeperBoard.Storage backend the board keeps its cells in
+	 */
+	public MinesweeperController(int row, int col, int count, HighScoreBoard highScoreBoard, String difficulty, String shape,
+			MinesweeperBoard.Storage storage) {
+		model = new MinesweeperModel(row, col, count, highScoreBoard, difficulty, shape, storage);
+	}
+	
 	
 	/**
 	 * Constructor to be used when a saved and serialized MinesweeperBoard and HighScoreBoard
@@ -71,6 +129,19 @@ public class MinesweeperController {
 	}
 	
 	
+	/**
+	 * Constructor used to start a new game on a board built in advance, such as one taken 
+	 * from a BoardPool.
+	 * 
+	 * @param board MinesweeperBoard new board with no mines placed yet
+	 * @param count int value for the number of mines to place in the MinesweeperBoard
+	 * @param highScoreBoard HighScoreBoard object representing a previously saved HighScoreBoard
+	 */
+	public MinesweeperController(MinesweeperBoard board, int count, HighScoreBoard highScoreBoard) {
+		model = new MinesweeperModel(board, count, highScoreBoard);
+	}
+	
+	
 	/**
 	 * Constructor used in the event that a saved and serialized MinesweeperBoard is present
 	 * but a saved and serialized HighScoreBoard is NOT present.  It is likely to needed when 
@@ -97,7 +168,20 @@ public class MinesweeperController {
 	 */
 	public void updateModel(int row, int col, int count, HighScoreBoard highBoard, String difficulty, String shape) {
 		model = new MinesweeperModel(row, col, count, highBoard, difficulty, shape);
-
+		guessFree = false;
+	}
+	
+	/**
+	 * Purpose: This method is used to update the model stored within the controller to be a 
+	 * new MinesweeperModel object playing the given board built in advance.
+	 * 
+	 * @param board MinesweeperBoard new board with no mines placed yet
+	 * @param count int number of mines for the MinesweeperBoard
+	 * @param highBoard HighScoreBoard containing all information about saved scores and usernames
+	 */
+	public void updateModel(MinesweeperBoard board, int count, HighScoreBoard highBoard) {
+		model = new MinesweeperModel(board, count, highBoard);
+		guessFree = false;
 	}
 
     /**
@@ -147,6 +231,10 @@ public class MinesweeperController {
 	 * if it is empty, then automatically all other neighboring squares are revealed (rippling out
 	 * for neighboring empty squares).
 	 * 
+	 * Every turn is timed in EngineMetrics.TURN_NANOS, along with the squares it revealed or
+	 * the mine or illegal move that ended it, and recorded as a MoveEvent when Flight Recorder
+	 * is on. Turns on a scratch board are not recorded.
+	 * 
 	 * @param row int value of the row to put move on
 	 * @param col int value of the column to put move on
 	 * @throws HitMineException indicates mine has been clicked on
@@ -154,62 +242,309 @@ public class MinesweeperController {
 	 * the square is flaged, or the square does not exist *DNE* for the specified board shape)
 	 */
 	public void putTurn(int row, int col) throws HitMineException, IllegalMoveException {
-		
-		if(model.getVisibility(row, col) != MinesweeperBoard.INVISIBLE) {
-			//exception is thrown if visibility is set to visible or flag or dne
-			throw new IllegalMoveException(row, col);
+		long start = System.nanoTime();
+		MoveEvent event = new MoveEvent();
+		event.begin();
+		String outcome = MoveEvent.SAFE;
+		try {
+			if(model.getVisibility(row, col) != MinesweeperBoard.INVISIBLE) {
+				//exception is thrown if visibility is set to visible or flag or dne
+				if (isRecorded()) {
+					EngineMetrics.ILLEGAL_MOVES.increment();
+				}
+				outcome = MoveEvent.ILLEGAL;
+				throw new IllegalMoveException(row, col);
+			}
+			
+			if(!model.getInit()) {
+				startGame(row, col);
+			} 
+			
+			model.beginMove();
+			try {
+				if(model.getVal(row, col) == MinesweeperBoard.MINE) {
+					//reveal every mine, scanning flat indices so no OrderedPair is created per mine
+					int numCells = model.numRows() * model.numCols();
+					for(int cell = 0; cell < numCells; cell++) {
+						if(model.getVal(cell) == MinesweeperBoard.MINE) {
+							model.putVisibility(cell, MinesweeperBoard.VISIBLE);
+						}
+					}
+					if (isRecorded()) {
+						EngineMetrics.MINE_HITS.increment();
+					}
+					outcome = MoveEvent.MINE;
+					throw new HitMineException(row, col);
+				}
+				
+				int cell = model.cellIndex(row, col);
+				model.putVisibility(cell, MinesweeperBoard.VISIBLE);
+				automaticReveal(cell);
+				if (isRecorded()) {
+					EngineMetrics.CASCADE_CELLS.record(model.getLastChanges().size());
+				}
+			} finally {
+				//listeners are notified once with every cell changed by this turn
+				model.endMove();
+			}
+		} finally {
+			if (isRecorded()) {
+				EngineMetrics.TURN_NANOS.recordSince(start);
+				commitMove(event, row, col, MoveEvent.REVEAL, outcome);
+			}
 		}
-		
-		if(!model.getInit()) {
-			model.newGame(row, col);
-		} 
-		
-		if(model.getVal(row, col) == MinesweeperBoard.MINE) {
-			HashSet<OrderedPair> mineLocs = model.getMineLocs();
-			for(OrderedPair op : mineLocs) {
-				model.putVisibility(op.getRow(), op.getCol(), MinesweeperBoard.VISIBLE);
+	}
+	
+	/**
+	 * Places the mines of a new game around the first click. In no-guess mode the board's seed 
+	 * is first swapped for one whose board can be cleared from this click by deduction alone, 
+	 * found by NoGuessGenerator within NoGuessGenerator.BUDGET_MILLIS. If none is found in time 
+	 * the board of the original seed is used and isGuessFree() is false.
+	 * 
+	 * @param row int row coordinate of the first click
+	 * @param col int column coordinate of the first click
+	 */
+	private void startGame(int row, int col) {
+		long seed = getBoard().getSeed();
+		guessFree = false;
+		if (noGuess) {
+			OptionalLong found = NoGuessGenerator.findSeed(getBoard(), model.getMineCount(), row, col, seed, 
+					NoGuessGenerator.BUDGET_MILLIS);
+			if (found.isPresent()) {
+				seed = found.getAsLong();
+				guessFree = true;
 			}
-			throw new HitMineException(row, col);
 		}
-		
-		model.putVisibility(row, col, MinesweeperBoard.VISIBLE);
-		HashSet<OrderedPair> visited = new HashSet<OrderedPair>();
-		automaticReveal(row, col, visited);	
-		
+		model.newGame(row, col, seed);
 	}
 	
 	/**
-	 * This is a private recursive helper method which handles the automatic
-	 * reveal of all spaces touching with the initial space and all connected
-	 * empty spaces.
+	 * Returns true if the work done on this game is recorded in EngineMetrics and reported to
+	 * Flight Recorder, which it is unless the board is a scratch board.
 	 * 
-	 * @param row int containing the row coordinate of the initial space
-	 * @param col int containing the column coordinate of the initial space
-	 * @param visited HashSet of OrderedPairs containing all the orderedPairs that 
-	 * have been previously examined to see if they need to be revealed
+	 * @return boolean true if the game is recorded
 	 */
-	private void automaticReveal(int row, int col, HashSet<OrderedPair> visited) {
-		visited.add(new OrderedPair(row, col));
-		if (model.getVal(row, col) != 0) {
+	private boolean isRecorded() {
+		return !model.getBoard().isScratch();
+	}
+	
+	/**
+	 * Ends a MoveEvent and commits it, if Flight Recorder is recording it. The cells changed
+	 * are those of the model's last move, so none are counted for an illegal move.
+	 * 
+	 * @param event MoveEvent begun when the move started
+	 * @param row int row of the move
+	 * @param col int column of the move
+	 * @param kind String MoveEvent.REVEAL or MoveEvent.FLAG
+	 * @param outcome String MoveEvent.SAFE, MINE or ILLEGAL
+	 */
+	private void commitMove(MoveEvent event, int row, int col, String kind, String outcome) {
+		if (event.shouldCommit()) {
+			event.row = row;
+			event.col = col;
+			event.kind = kind;
+			event.outcome = outcome;
+			event.cellsChanged = outcome == MoveEvent.ILLEGAL ? 0 : model.getLastChanges().size();
+			event.commit();
+		}
+	}
+	
+	/**
+	 * This is a private helper method which handles the automatic reveal of all
+	 * spaces touching with the initial space and all connected empty spaces.
+	 * 
+	 * The cascade is an iterative breadth-first flood fill over flat cell indices using a
+	 * circular queue, so large openings cannot overflow the call stack. A cell's own visibility 
+	 * serves as its visited mark: each cell is revealed at most once and only newly 
+	 * revealed empty cells are queued, so the work is linear in the size of the opening. 
+	 * Breadth-first order keeps only the edge of the opening in the queue, which grows with 
+	 * the width of the board rather than its area.
+	 * 
+	 * Most openings are revealed without the search, straight from the opening index built 
+	 * when the board was generated; the search is the fallback for openings the index cannot 
+	 * answer for, such as the one around the first click or one holding a flag.
+	 * 
+	 * Once a search has revealed parallelRevealCells cells the opening is taken to be a giant 
+	 * one, and the cells still queued are handed to parallelReveal.
+	 * 
+	 * @param start int flat index of the initial (already revealed) space
+	 */
+	private void automaticReveal(int start) {
+		if (model.getVal(start) != 0) {
 			return; //automatic reveal only applied on empty squares
 		}
-		ArrayList<OrderedPair> adjacencies = model.getAdjacencies(row, col);
-		for (OrderedPair neighbor: adjacencies) {
-			if (model.getVisibility(neighbor.getRow(), neighbor.getCol()) == MinesweeperBoard.INVISIBLE) {
-				model.putVisibility(neighbor.getRow(), neighbor.getCol(), MinesweeperBoard.VISIBLE);
-				if (!visited.contains(new OrderedPair(neighbor.getRow(), neighbor.getCol()))) {
-					automaticReveal(neighbor.getRow(), neighbor.getCol(), visited);
+		if (model.revealOpening(start)) {
+			if (isRecorded()) {
+				EngineMetrics.OPENING_REVEALS.increment();
+			}
+			return;
+		}
+		int head = 0;
+		int size = 0;
+		int revealed = 1;
+		revealQueue[size++] = start;
+		while (size > 0) {
+			if (revealed >= parallelRevealCells) {
+				int[] frontier = new int[size];
+				for (int idx = 0; idx < size; idx++) {
+					frontier[idx] = revealQueue[(head + idx) & (revealQueue.length - 1)];
+				}
+				parallelReveal(frontier);
+				return;
+			}
+			int cell = revealQueue[head];
+			head = (head + 1) & (revealQueue.length - 1);
+			size--;
+			int numNeighbors = model.getNeighbors(cell, neighbors);
+			for (int idx = 0; idx < numNeighbors; idx++) {
+				int neighbor = neighbors[idx];
+				if (model.getVisibility(neighbor) == MinesweeperBoard.INVISIBLE) {
+					model.putVisibility(neighbor, MinesweeperBoard.VISIBLE);
+					revealed++;
+					if (model.getVal(neighbor) == 0) {
+						if (size == revealQueue.length) {
+							growRevealQueue(head);
+							head = 0;
+						}
+						revealQueue[(head + size) & (revealQueue.length - 1)] = neighbor;
+						size++;
+					}
 				}
 			}
 		}
 	}
 	
+	/**
+	 * Finishes a cascade from the given revealed empty cells with a level-synchronous 
+	 * breadth-first search on the common ForkJoinPool. Each level is split into chunks of 
+	 * REVEAL_CHUNK cells whose neighbors are searched in parallel; a hidden neighbor is 
+	 * claimed by setting its bit in a shared AtomicLongArray, so it is found by exactly one 
+	 * task. The board is only read while a level is searched. The cells found are then 
+	 * revealed on this thread, through the model as in the sequential search, and the empty 
+	 * ones among them make up the next level.
+	 * 
+	 * A cell is revealed when it was hidden and touches a revealed empty cell of the cascade, 
+	 * whatever order the cells are found in, so the cells revealed are the same as those of 
+	 * the sequential search. The time taken is recorded in EngineMetrics.PARALLEL_REVEAL_NANOS.
+	 * 
+	 * @param frontier int[] revealed empty cells whose neighbors are still to be searched
+	 */
+	private void parallelReveal(int[] frontier) {
+		long start = System.nanoTime();
+		int numCells = model.numRows() * model.numCols();
+		AtomicLongArray claimed = new AtomicLongArray((numCells + 63) >>> 6);
+		int count = frontier.length;
+		while (count > 0) {
+			int[] found = searchLevel(frontier, count, claimed);
+			count = 0;
+			for (int cell : found) {
+				model.putVisibility(cell, MinesweeperBoard.VISIBLE);
+				if (model.getVal(cell) == 0) {
+					found[count++] = cell; //the empty cells are the next level, in place
+				}
+			}
+			frontier = found;
+		}
+		if (isRecorded()) {
+			EngineMetrics.PARALLEL_REVEAL_NANOS.recordSince(start);
+		}
+	}
+	
+	/**
+	 * Searches the neighbors of one level of the cascade in parallel and returns the hidden 
+	 * ones not claimed before, each exactly once.
+	 * 
+	 * @param frontier int[] cells of the level
+	 * @param count int number of cells of the level at the front of frontier
+	 * @param claimed AtomicLongArray bit set of the cells already found
+	 * @return int[] cells found
+	 */
+	private int[] searchLevel(int[] frontier, int count, AtomicLongArray claimed) {
+		int chunks = (count + REVEAL_CHUNK - 1) / REVEAL_CHUNK;
+		int[][] found = new int[chunks][];
+		IntStream.range(0, chunks).parallel().forEach(chunk -> {
+			int from = chunk * REVEAL_CHUNK;
+			int to = Math.min(count, from + REVEAL_CHUNK);
+			int[] around = new int[8];
+			int[] out = new int[(to - from) * 8];
+			int numOut = 0;
+			for (int idx = from; idx < to; idx++) {
+				int numNeighbors = model.getNeighbors(frontier[idx], around);
+				for (int nbr = 0; nbr < numNeighbors; nbr++) {
+					int cell = around[nbr];
+					if (model.getVisibility(cell) == MinesweeperBoard.INVISIBLE && claim(claimed, cell)) {
+						out[numOut++] = cell;
+					}
+				}
+			}
+			found[chunk] = Arrays.copyOf(out, numOut);
+		});
+		int total = 0;
+		for (int[] cells : found) {
+			total += cells.length;
+		}
+		int[] level = new int[total];
+		int pos = 0;
+		for (int[] cells : found) {
+			System.arraycopy(cells, 0, level, pos, cells.length);
+			pos += cells.length;
+		}
+		return level;
+	}
+	
+	/**
+	 * Sets the bit of the given cell in the bit set, returning true if this call set it.
+	 * 
+	 * @param claimed AtomicLongArray bit set of the cells already found
+	 * @param cell int flat index of the cell
+	 * @return boolean true if the cell had not been claimed
+	 */
+	private static boolean claim(AtomicLongArray claimed, int cell) {
+		int word = cell >>> 6;
+		long bit = 1L << cell;
+		while (true) {
+			long old = claimed.get(word);
+			if ((old & bit) != 0) {
+				return false;
+			}
+			if (claimed.compareAndSet(word, old, old | bit)) {
+				return true;
+			}
+		}
+	}
+	
+	/**
+	 * Doubles the reveal queue, which must be full, moving its contents to the front.
+	 * 
+	 * @param head int position of the first queued cell
+	 */
+	private void growRevealQueue(int head) {
+		int length = revealQueue.length;
+		int[] grown = new int[length * 2];
+		System.arraycopy(revealQueue, head, grown, 0, length - head);
+		System.arraycopy(revealQueue, 0, grown, length - head, head);
+		revealQueue = grown;
+	}
+	
+	/**
+	 * Purpose: This is a getter for the flat cell indices (row*cols+col) revealed by the 
+	 * most recent turn, including the clicked cell itself, or every mine if the turn hit a
+	 * mine. The returned ChangeSet is the model's record of the last move, so a flag placed
+	 * since the turn replaces it, and it is reused by the next move.
+	 * 
+	 * @return ChangeSet of the cells revealed by the last turn
+	 */
+	public ChangeSet getLastRevealed() {
+		return model.getLastChanges();
+	}
+	
 	/**
 	 * Purpose: This method handles the placement and removal of flags on the board.  It 
 	 * throws an IllegalMoveException if the square that is clicked is already visible to 
 	 * the user or is DNE (does not exist for the specified shape).  If there is already a 
 	 * flag in the specified position, then the flag is removed.  Otherwise, the flag is 
-	 * placed.
+	 * placed. Every flag is timed in EngineMetrics.FLAG_NANOS and recorded as a MoveEvent when
+	 * Flight Recorder is on, unless the board is a scratch board.
 	 * 
 	 * @param row int value of the row in which to add the flag on board
 	 * @param col int value of the column in the row in which to add the flag on board
@@ -217,17 +552,32 @@ public class MinesweeperController {
 	 * either an already revealed square or a square set to DNE for that particular shape
 	 */
 	public void flag(int row, int col) throws IllegalMoveException {
-        if (model.getVisibility(row, col) == MinesweeperBoard.FLAG) {
-			// if there is already a flag there, remove it.
-			model.putVisibility(row, col, MinesweeperBoard.INVISIBLE);
-            this.getBoard().addFlag();
-		} else if (model.getVisibility(row, col) == MinesweeperBoard.VISIBLE || model.getVisibility(row, col) == MinesweeperBoard.DNE || (this.getNumFlags() <= 0)) {
-			//exception is thrown if the square is already visible to the user
-			throw new IllegalMoveException(row, col);
-		} else {
-			//if there is no flag there, place a flag there
-			model.putVisibility(row, col, MinesweeperBoard.FLAG);
-            this.getBoard().subFlag();
+		long start = System.nanoTime();
+		MoveEvent event = new MoveEvent();
+		event.begin();
+		String outcome = MoveEvent.SAFE;
+		try {
+	        if (model.getVisibility(row, col) == MinesweeperBoard.FLAG) {
+				// if there is already a flag there, remove it.
+				model.putVisibility(row, col, MinesweeperBoard.INVISIBLE);
+	            this.getBoard().addFlag();
+			} else if (model.getVisibility(row, col) == MinesweeperBoard.VISIBLE || model.getVisibility(row, col) == MinesweeperBoard.DNE || (this.getNumFlags() <= 0)) {
+				//exception is thrown if the square is already visible to the user
+				if (isRecorded()) {
+					EngineMetrics.ILLEGAL_MOVES.increment();
+				}
+				outcome = MoveEvent.ILLEGAL;
+				throw new IllegalMoveException(row, col);
+			} else {
+				//if there is no flag there, place a flag there
+				model.putVisibility(row, col, MinesweeperBoard.FLAG);
+	            this.getBoard().subFlag();
+			}
+		} finally {
+			if (isRecorded()) {
+				EngineMetrics.FLAG_NANOS.recordSince(start);
+				commitMove(event, row, col, MoveEvent.FLAG, outcome);
+			}
 		}
 	}
 	
@@ -238,13 +588,28 @@ public class MinesweeperController {
      * @return boolean expressing whether or not the game has been won
      */
 	public boolean isGameWon() {
-		//nonmine squares are all squares that are not a mine and not nonexistent in shape
-		int nonMineSquares = (model.numRows()*model.numCols()) - model.getMineLocs().size() - model.getDNEs().size();
-		if (model.numVisible() == nonMineSquares) { //if all non-mines are visible
-			return true;
-		} else {
-			return false;
-		}
+		//won once every square that is not a mine and not nonexistent in shape is visible
+		return model.numHiddenSafe() == 0 && model.numVisibleMines() == 0;
+	}
+	
+	/**
+     * Purpose: This method is used to check whether the game has been lost, returning true if 
+     * a mine has been revealed and false if not.
+     * 
+     * @return boolean expressing whether or not the game has been lost
+     */
+	public boolean isGameLost() {
+		return model.numVisibleMines() > 0;
+	}
+	
+	/**
+     * Purpose: This is a getter for the number of safe squares the player still has to reveal
+     * to win the game.
+     * 
+     * @return int number of hidden squares that are not mines
+     */
+	public int getHiddenSafeCount() {
+		return model.numHiddenSafe();
 	}
 	
 	/**
@@ -261,31 +626,24 @@ public class MinesweeperController {
 	
 	
 	/**
-     * Purpose: This method adds the given view as an observer of the model.
+     * Purpose: This method adds a listener to be notified with the changed cells at the end of 
+     * every move on the current model. Listeners do not carry over to a model created by 
+     * updateModel().
      * 
-     * @param view MinesweeperView being added as the observer of the model
+     * @param listener BoardListener being added to the model
      */
-	public void addObserver(MinesweeperView view) {
-		model.addObserver(view);
+	public void addListener(BoardListener listener) {
+		model.addListener(listener);
 	}
 	
 	/**
-     * Purpose: This method deletes the given view as an observer of the model.
+     * Purpose: This method removes a listener from the current model.
      * 
-     * @param view MinesweeperView being deleted as the observer of the model
+     * @param listener BoardListener being removed from the model
      */
-	public void deleteObserver(MinesweeperView view) {
-		model.deleteObserver(view);
+	public void removeListener(BoardListener listener) {
+		model.removeListener(listener);
 	}
-
-	/**
-     * Purpose: This triggers the view to update based on the model.
-     * 
-     * @param view MinesweeperView being triggered to update
-     */
-    public void update(MinesweeperView view) {
-        view.update(model, model.getBoard());
-    }
     
     /**
      * Purpose: This method records a new score into the HighScoreBoard class that is
@@ -347,6 +705,15 @@ public class MinesweeperController {
     	return model.getHighScoreBoard();
     }
     
+    /**
+     * Purpose: This is a getter for the MinesweeperModel the controller is acting on.
+     * 
+     * @return MinesweeperModel holding the current game
+     */
+    public MinesweeperModel getModel() {
+    	return model;
+    }
+    
     /**
      * Purpose: This is a getter for the current MinesweeperBoard.
      * 
@@ -357,12 +724,13 @@ public class MinesweeperController {
     }
     
     /**
-     * Purpose: This is a getter for the number of mines on the current MinesweeperBoard.
+     * Purpose: This is a getter for the number of mines on the current MinesweeperBoard, 
+     * including before the first click has placed them.
      * 
      * @return int representing the number of mines on the current MinesweeperBoard
      */
     public int getNumMines() {
-    	return model.getMineLocs().size();
+    	return model.getMineCount();
     }
     
     /**
@@ -376,5 +744,50 @@ public class MinesweeperController {
     	return model.getInit();
     }
     
+    /**
+     * Purpose: Sets whether the first click of the current game, and of every game started by 
+     * updateModel(), looks for a board that can be won without guessing.
+     * 
+     * @param noGuess boolean whether to play in no-guess mode
+     */
+    public void setNoGuess(boolean noGuess) {
+    	this.noGuess = noGuess;
+    }
+    
+    /**
+     * Purpose: Sets the number of cells a cascade reveals one by one before the rest of the 
+     * opening is searched in parallel on the common ForkJoinPool. The cells revealed are the 
+     * same either way; only very large openings are worth the cost of starting the tasks.
+     * 
+     * @param cells int cells revealed before the search goes parallel, at least 1
+     * @throws IllegalArgumentException if cells is less than 1
+     */
+    public void setParallelRevealThreshold(int cells) {
+    	if (cells < 1) {
+    		throw new IllegalArgumentException("The threshold must be at least one cell: " + cells);
+    	}
+    	parallelRevealCells = cells;
+    }
+    
+    /**
+     * Purpose: Returns the number of cells a cascade reveals one by one before the rest of 
+     * the opening is searched in parallel.
+     * 
+     * @return int cells revealed before the search goes parallel
+     */
+    public int getParallelRevealThreshold() {
+    	return parallelRevealCells;
+    }
+    
+    /**
+     * Purpose: Returns whether the current board can be cleared from its first click without 
+     * guessing, which is only known for boards made in no-guess mode.
+     * 
+     * @return boolean expressing whether the board needs no guess
+     */
+    public boolean isGuessFree() {
+    	return guessFree;
+    }
+    
     
 }
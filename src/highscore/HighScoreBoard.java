@@ -5,6 +5,8 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.TreeMap;
 
+import metrics.HighScoreEvent;
+
 /**
  * File: HighScoreBoard.java
  * 
@@ -50,12 +52,15 @@ public class HighScoreBoard implements Serializable {
 	 * If the game mode/difficulty is not in the allBoard HashMap, it is added.
 	 * A new PlayerProfile class is created which contains methods within it that give information about
 	 * the particular player who completed the game.
+	 * When Flight Recorder is on, each score added is recorded as a HighScoreEvent.
 	 * 
 	 * @param name String name of the player to be associated with
 	 * @param score int value of the score the player achieved
 	 * @param mode String value of the difficulty mode that the player completed
 	 */
 	public void addNewScore(String name, int score, String mode) {
+		HighScoreEvent event = new HighScoreEvent();
+		event.begin();
 		mode = mode.toLowerCase();
 		
 		if (!allBoards.containsKey(mode)) {
@@ -69,6 +74,12 @@ public class HighScoreBoard implements Serializable {
 		}
 		
 		addTo.get(score).add(newPlayer);
+		if (event.shouldCommit()) {
+			event.mode = mode;
+			event.score = score;
+			event.scoresInMode = addTo.size();
+			event.commit();
+		}
 	}
 	
 	/**
@@ -0,0 +1,86 @@
+package metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * File: Counter.java
+ * Assignment: Minesweeper
+ * Course: CSC 335; Spring 2021
+ * 
+ * This class is a named count of events, such as turns played or mines hit. It may be 
+ * incremented from any thread without locking or allocating. Each stripe (see Stripes) counts
+ * on its own cache line and the count is their sum.
+ * 
+ * @author Caroline Hyland
+ * @author James O'Connell
+ * @author Nicholas Leluan
+ * @author Christian Trejo
+ */
+public final class Counter {
+	
+	/**
+	 * Name the counter is exported under.
+	 */
+	private final String name;
+	
+	/**
+	 * Count of every stripe, Stripes.PADDING longs apart.
+	 */
+	private final AtomicLongArray counts = new AtomicLongArray(Stripes.COUNT * Stripes.PADDING);
+	
+	/**
+	 * Constructs a new counter starting at zero. Counters are made by MetricsRegistry.
+	 * 
+	 * @param name String name the counter is exported under
+	 */
+	Counter(String name) {
+		this.name = name;
+	}
+	
+	/**
+	 * Purpose: Adds one to the count.
+	 */
+	public void increment() {
+		counts.incrementAndGet(Stripes.current() * Stripes.PADDING);
+	}
+	
+	/**
+	 * Purpose: Adds the given amount to the count.
+	 * 
+	 * @param amount long amount to add
+	 */
+	public void add(long amount) {
+		counts.addAndGet(Stripes.current() * Stripes.PADDING, amount);
+	}
+	
+	/**
+	 * Purpose: Returns the current count.
+	 * 
+	 * @return long count
+	 */
+	public long get() {
+		long count = 0;
+		for (int stripe = 0; stripe < Stripes.COUNT; stripe++) {
+			count += counts.get(stripe * Stripes.PADDING);
+		}
+		return count;
+	}
+	
+	/**
+	 * Purpose: Returns the name the counter is exported under.
+	 * 
+	 * @return String name
+	 */
+	public String getName() {
+		return name;
+	}
+	
+	/**
+	 * Sets the count back to zero.
+	 */
+	void reset() {
+		for (int stripe = 0; stripe < Stripes.COUNT; stripe++) {
+			counts.set(stripe * Stripes.PADDING, 0);
+		}
+	}
+}
@@ -0,0 +1,34 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * File: DispatchEvent.java
+ * Assignment: Minesweeper
+ * Course: CSC 335; Spring 2021
+ * 
+ * This class is the Java Flight Recorder event of one notification of the BoardListeners of a 
+ * MinesweeperModel at the end of a move. Its duration is the time every listener together took,
+ * which for the JavaFX view is the repainting of the board.
+ * 
+ * @author Caroline Hyland
+ * @author James O'Connell
+ * @author Nicholas Leluan
+ * @author Christian Trejo
+ */
+@Name("minesweeper.Dispatch")
+@Label("Listener Dispatch")
+@Category("Minesweeper")
+@Description("The listeners of a board being told about a move")
+public class DispatchEvent extends Event {
+	
+	@Label("Listeners")
+	public int listeners;
+	
+	@Label("Cells Changed")
+	public int cellsChanged;
+}
@@ -0,0 +1,108 @@
+package metrics;
+
+/**
+ * File: EngineMetrics.java
+ * Assignment: Minesweeper
+ * Course: CSC 335; Spring 2021
+ * 
+ * This class holds the metrics recorded by the game engine, all in one registry. The engine 
+ * classes record into the fields below directly, so recording costs a few atomic increments 
+ * and, for timings, two calls to System.nanoTime().
+ * 
+ * Timings are in nanoseconds. Board saves and loads are timed in the board's own serialization,
+ * so every save and load is counted, whether to a file through GameFiles or to any other stream.
+ * Generation is timed wherever a board's mines are placed, including when a saved board is 
+ * loaded and rebuilt from its seed.
+ * 
+ * The metrics are read with REGISTRY.toText(), or over JMX once registerMBean() has been called.
+ * 
+ * @author Caroline Hyland
+ * @author James O'Connell
+ * @author Nicholas Leluan
+ * @author Christian Trejo
+ */
+public final class EngineMetrics {
+	
+	/**
+	 * JMX object name the engine metrics are exported under.
+	 */
+	public static final String OBJECT_NAME = "minesweeper:type=EngineMetrics";
+	
+	/**
+	 * Registry holding every engine metric.
+	 */
+	public static final MetricsRegistry REGISTRY = new MetricsRegistry("minesweeper_");
+	
+	/**
+	 * Turns played through MinesweeperController.putTurn, and how long each took.
+	 */
+	public static final Histogram TURN_NANOS = REGISTRY.histogram("turn_nanos");
+	
+	/**
+	 * Turns that hit a mine.
+	 */
+	public static final Counter MINE_HITS = REGISTRY.counter("mine_hits_total");
+	
+	/**
+	 * Turns and flags refused as illegal moves.
+	 */
+	public static final Counter ILLEGAL_MOVES = REGISTRY.counter("illegal_moves_total");
+	
+	/**
+	 * Number of squares revealed by each turn that did not hit a mine.
+	 */
+	public static final Histogram CASCADE_CELLS = REGISTRY.histogram("cascade_cells");
+	
+	/**
+	 * Cascades revealed in one step from the board's opening index instead of a search.
+	 */
+	public static final Counter OPENING_REVEALS = REGISTRY.counter("opening_reveals_total");
+	
+	/**
+	 * Cascades finished by the parallel search, and how long that part of each took.
+	 */
+	public static final Histogram PARALLEL_REVEAL_NANOS = REGISTRY.histogram("parallel_reveal_nanos");
+	
+	/**
+	 * Flags placed or removed, and how long each took.
+	 */
+	public static final Histogram FLAG_NANOS = REGISTRY.histogram("flag_nanos");
+	
+	/**
+	 * Boards generated, and how long placing the mines and counting the values took.
+	 */
+	public static final Histogram GENERATE_NANOS = REGISTRY.histogram("generate_nanos");
+	
+	/**
+	 * Boards laid out before their first click, and how long the layout took.
+	 */
+	public static final Histogram LAYOUT_NANOS = REGISTRY.histogram("layout_nanos");
+	
+	/**
+	 * Number of listeners notified at the end of each move, and how long notifying them took.
+	 */
+	public static final Histogram NOTIFY_LISTENERS = REGISTRY.histogram("notify_listeners");
+	public static final Histogram NOTIFY_NANOS = REGISTRY.histogram("notify_nanos");
+	
+	/**
+	 * Boards saved and loaded through serialization, and how long each took.
+	 */
+	public static final Histogram SAVE_NANOS = REGISTRY.histogram("save_nanos");
+	public static final Histogram LOAD_NANOS = REGISTRY.histogram("load_nanos");
+	
+	/**
+	 * This class only holds constants.
+	 */
+	private EngineMetrics() {
+	}
+	
+	/**
+	 * Purpose: Exports the engine metrics over JMX under OBJECT_NAME. Calling it more than 
+	 * once has no further effect.
+	 * 
+	 * @throws IllegalStateException if the MBean cannot be registered
+	 */
+	public static void registerMBean() {
+		REGISTRY.registerMBean(OBJECT_NAME);
+	}
+}
@@ -0,0 +1,49 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * File: FileEvent.java
+ * Assignment: Minesweeper
+ * Course: CSC 335; Spring 2021
+ * 
+ * This class is the Java Flight Recorder event of a game file being saved or loaded through 
+ * GameFiles. Its duration is the whole operation, serialization and disk together; loading a 
+ * generated board also includes its regeneration.
+ * 
+ * @author Caroline Hyland
+ * @author James O'Connell
+ * @author Nicholas Leluan
+ * @author Christian Trejo
+ */
+@Name("minesweeper.File")
+@Label("Game File")
+@Category("Minesweeper")
+@Description("A saved game or the high scores being written or read")
+public class FileEvent extends Event {
+	
+	/**
+	 * Operations on a file.
+	 */
+	public static final String SAVE = "save";
+	public static final String LOAD = "load";
+	
+	@Label("Operation")
+	@Description("save or load")
+	public String operation;
+	
+	@Label("Path")
+	public String path;
+	
+	@Label("Size")
+	@DataAmount
+	public long bytes;
+	
+	@Label("Succeeded")
+	public boolean succeeded;
+}
@@ -0,0 +1,55 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * File: GenerationEvent.java
+ * Assignment: Minesweeper
+ * Course: CSC 335; Spring 2021
+ * 
+ * This class is the Java Flight Recorder event of one board generation: placing the mines and 
+ * counting the proximity values, whether for a first click, a BoardSpec or a saved board being 
+ * loaded. Its duration is the time BoardGenerator took, which for a board laid out before the 
+ * first click is only the time to move the mines off it.
+ * 
+ * Like every engine event it is in the "Minesweeper" category, so in JDK Mission Control it
+ * can be laid over the GC, allocation and CPU samples of the same moment.
+ * 
+ * @author Caroline Hyland
+ * @author James O'Connell
+ * @author Nicholas Leluan
+ * @author Christian Trejo
+ */
+@Name("minesweeper.Generation")
+@Label("Board Generation")
+@Category("Minesweeper")
+@Description("Placing the mines and counting the proximity values of a board")
+public class GenerationEvent extends Event {
+	
+	@Label("Rows")
+	public int rows;
+	
+	@Label("Columns")
+	public int cols;
+	
+	@Label("Shape")
+	public String shape;
+	
+	@Label("Mines")
+	public int mines;
+	
+	@Label("Parallel")
+	@Description("Whether the board was generated in parallel stripes")
+	public boolean parallel;
+	
+	@Label("Laid Out")
+	@Description("Whether the mines were laid out before the first click, so only those touching it were moved")
+	public boolean laidOut;
+	
+	@Label("Seed")
+	public long seed;
+}
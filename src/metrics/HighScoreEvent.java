@@ -0,0 +1,38 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * File: HighScoreEvent.java
+ * Assignment: Minesweeper
+ * Course: CSC 335; Spring 2021
+ * 
+ * This class is the Java Flight Recorder event of a score being added to the HighScoreBoard.
+ * 
+ * @author Caroline Hyland
+ * @author James O'Connell
+ * @author Nicholas Leluan
+ * @author Christian Trejo
+ */
+@Name("minesweeper.HighScore")
+@Label("High Score Update")
+@Category("Minesweeper")
+@Description("A finished game's score being added to the high scores")
+public class HighScoreEvent extends Event {
+	
+	@Label("Mode")
+	@Description("Difficulty and shape of the game")
+	public String mode;
+	
+	@Label("Score")
+	@Description("Seconds the game took")
+	public int score;
+	
+	@Label("Scores In Mode")
+	@Description("Number of different scores saved for the mode after this one was added")
+	public int scoresInMode;
+}
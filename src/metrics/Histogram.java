@@ -0,0 +1,234 @@
+package metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * File: Histogram.java
+ * Assignment: Minesweeper
+ * Course: CSC 335; Spring 2021
+ * 
+ * This class records the distribution of a non-negative quantity, such as the nanoseconds a 
+ * turn took or the number of squares it revealed. Values are counted in log-linear buckets: 
+ * values below 8 have a bucket each, and every power of two above that is split into 8 equal 
+ * buckets, so a reported percentile is never more than 12.5% above the true value whatever 
+ * its size. All 496 buckets are allocated up front.
+ * 
+ * Recording is lock-free and allocation-free: it is one atomic increment of the bucket, one of
+ * the count, one of the sum and, only when a new largest value is seen, a compare-and-set of 
+ * the maximum. So that threads recording at once do not fight over the same cache lines, every
+ * stripe (see Stripes) has its own copy of all of these, and readers add the stripes up. Readers
+ * may see a recording half applied, which at worst makes one snapshot of the percentiles off by 
+ * one value.
+ * 
+ * @author Caroline Hyland
+ * @author James O'Connell
+ * @author Nicholas Leluan
+ * @author Christian Trejo
+ */
+public final class Histogram {
+	
+	/**
+	 * Number of bits of a value kept below its leading one, so each power of two is split 
+	 * into 2^SUB_BITS buckets.
+	 */
+	private static final int SUB_BITS = 3;
+	private static final int SUB_BUCKETS = 1 << SUB_BITS;
+	
+	/**
+	 * Number of buckets needed to cover every non-negative long.
+	 */
+	static final int NUM_BUCKETS = (64 - SUB_BITS) * SUB_BUCKETS + SUB_BUCKETS;
+	
+	/**
+	 * Positions of the count, sum and maximum within a stripe, after its buckets.
+	 */
+	private static final int COUNT = NUM_BUCKETS;
+	private static final int SUM = NUM_BUCKETS + 1;
+	private static final int MAX = NUM_BUCKETS + 2;
+	
+	/**
+	 * Number of longs between the starts of two stripes. The slots after MAX are padding, so
+	 * that the busiest slots of two stripes never share a cache line.
+	 */
+	private static final int STRIDE = NUM_BUCKETS + 3 + Stripes.PADDING;
+	
+	/**
+	 * Name the histogram is exported under.
+	 */
+	private final String name;
+	
+	/**
+	 * Buckets, count, sum and maximum of every stripe, STRIDE longs apart.
+	 */
+	private final AtomicLongArray cells = new AtomicLongArray(Stripes.COUNT * STRIDE);
+	
+	/**
+	 * Constructs a new empty histogram. Histograms are made by MetricsRegistry.
+	 * 
+	 * @param name String name the histogram is exported under
+	 */
+	Histogram(String name) {
+		this.name = name;
+	}
+	
+	/**
+	 * Returns the bucket a value is counted in.
+	 * 
+	 * @param value long non-negative value
+	 * @return int bucket index
+	 */
+	static int bucketOf(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+		return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+	}
+	
+	/**
+	 * Returns the largest value counted in a bucket.
+	 * 
+	 * @param bucket int bucket index
+	 * @return long largest value of the bucket
+	 */
+	static long bucketMax(int bucket) {
+		if (bucket < SUB_BUCKETS) {
+			return bucket;
+		}
+		int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+		long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - SUB_BITS);
+		return lowest + (1L << (exponent - SUB_BITS)) - 1;
+	}
+	
+	/**
+	 * Purpose: Records one value. Negative values are recorded as zero.
+	 * 
+	 * @param value long value to record
+	 */
+	public void record(long value) {
+		if (value < 0) {
+			value = 0;
+		}
+		int base = Stripes.current() * STRIDE;
+		cells.incrementAndGet(base + bucketOf(value));
+		cells.incrementAndGet(base + COUNT);
+		cells.addAndGet(base + SUM, value);
+		long largest = cells.get(base + MAX);
+		while (value > largest && !cells.compareAndSet(base + MAX, largest, value)) {
+			largest = cells.get(base + MAX);
+		}
+	}
+	
+	/**
+	 * Purpose: Records the time elapsed since the given System.nanoTime() reading.
+	 * 
+	 * @param startNanos long value of System.nanoTime() when the timed work began
+	 */
+	public void recordSince(long startNanos) {
+		record(System.nanoTime() - startNanos);
+	}
+	
+	/**
+	 * Returns the total of one slot over every stripe.
+	 * 
+	 * @param slot int position within a stripe
+	 * @return long total
+	 */
+	private long total(int slot) {
+		long total = 0;
+		for (int stripe = 0; stripe < Stripes.COUNT; stripe++) {
+			total += cells.get(stripe * STRIDE + slot);
+		}
+		return total;
+	}
+	
+	/**
+	 * Purpose: Returns the number of values recorded.
+	 * 
+	 * @return long count
+	 */
+	public long getCount() {
+		return total(COUNT);
+	}
+	
+	/**
+	 * Purpose: Returns the sum of the values recorded.
+	 * 
+	 * @return long sum
+	 */
+	public long getSum() {
+		return total(SUM);
+	}
+	
+	/**
+	 * Purpose: Returns the largest value recorded.
+	 * 
+	 * @return long largest value, or 0 if none was recorded
+	 */
+	public long getMax() {
+		long largest = 0;
+		for (int stripe = 0; stripe < Stripes.COUNT; stripe++) {
+			largest = Math.max(largest, cells.get(stripe * STRIDE + MAX));
+		}
+		return largest;
+	}
+	
+	/**
+	 * Purpose: Returns the mean of the values recorded.
+	 * 
+	 * @return double mean, or 0 if none was recorded
+	 */
+	public double getMean() {
+		long recorded = getCount();
+		return recorded == 0 ? 0 : (double) getSum() / recorded;
+	}
+	
+	/**
+	 * Purpose: Returns an upper bound of the given percentile of the values recorded: at 
+	 * least that fraction of the values are at most the returned value, which is within 
+	 * 12.5% of the true percentile and never above the maximum.
+	 * 
+	 * @param fraction double percentile as a fraction from 0 to 1, such as 0.99
+	 * @return long value at the percentile, or 0 if none was recorded
+	 */
+	public long getPercentile(double fraction) {
+		long[] counts = new long[NUM_BUCKETS];
+		long recorded = 0;
+		for (int bucket = 0; bucket < NUM_BUCKETS; bucket++) {
+			counts[bucket] = total(bucket);
+			recorded += counts[bucket];
+		}
+		if (recorded == 0) {
+			return 0;
+		}
+		long largest = getMax();
+		long rank = Math.max(1, (long) Math.ceil(fraction * recorded));
+		long seen = 0;
+		for (int bucket = 0; bucket < NUM_BUCKETS; bucket++) {
+			seen += counts[bucket];
+			if (seen >= rank) {
+				return Math.min(bucketMax(bucket), largest);
+			}
+		}
+		return largest;
+	}
+	
+	/**
+	 * Purpose: Returns the name the histogram is exported under.
+	 * 
+	 * @return String name
+	 */
+	public String getName() {
+		return name;
+	}
+	
+	/**
+	 * Empties the histogram.
+	 */
+	void reset() {
+		for (int slot = 0; slot < cells.length(); slot++) {
+			cells.set(slot, 0);
+		}
+	}
+}
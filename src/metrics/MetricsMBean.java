@@ -0,0 +1,186 @@
+package metrics;
+
+import java.util.ArrayList;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.MBeanParameterInfo;
+import javax.management.ReflectionException;
+
+/**
+ * File: MetricsMBean.java
+ * Assignment: Minesweeper
+ * Course: CSC 335; Spring 2021
+ * 
+ * This class exports a MetricsRegistry over JMX. Metrics can be added to the registry at any
+ * time, so it is a dynamic MBean: its read-only attributes are made from the registry each time
+ * they are asked for. Every counter is one long attribute, and every histogram gives attributes
+ * for its count, sum, maximum and percentiles (for example "turn_nanos_p99"). The operations
+ * "dump" and "reset" return the text dump and zero every metric.
+ * 
+ * @author Caroline Hyland
+ * @author James O'Connell
+ * @author Nicholas Leluan
+ * @author Christian Trejo
+ */
+class MetricsMBean implements DynamicMBean {
+	
+	/**
+	 * Registry being exported.
+	 */
+	private final MetricsRegistry registry;
+	
+	/**
+	 * Constructs a new MBean exporting the given registry.
+	 * 
+	 * @param registry MetricsRegistry to export
+	 */
+	MetricsMBean(MetricsRegistry registry) {
+		this.registry = registry;
+	}
+	
+	/**
+	 * Returns the current value of one attribute.
+	 * 
+	 * @param attribute String name of the attribute
+	 * @return Object Long value of the attribute
+	 * @throws AttributeNotFoundException if there is no such attribute
+	 */
+	@Override
+	public Object getAttribute(String attribute) throws AttributeNotFoundException {
+		for (Counter counter : registry.getCounters()) {
+			if (counter.getName().equals(attribute)) {
+				return counter.get();
+			}
+		}
+		for (Histogram histogram : registry.getHistograms()) {
+			if (!attribute.startsWith(histogram.getName() + "_")) {
+				continue;
+			}
+			String statistic = attribute.substring(histogram.getName().length() + 1);
+			if (statistic.equals("count")) {
+				return histogram.getCount();
+			} else if (statistic.equals("sum")) {
+				return histogram.getSum();
+			} else if (statistic.equals("max")) {
+				return histogram.getMax();
+			}
+			for (double percentile : MetricsRegistry.PERCENTILES) {
+				if (statistic.equals(MetricsRegistry.percentileName(percentile))) {
+					return histogram.getPercentile(percentile);
+				}
+			}
+		}
+		throw new AttributeNotFoundException(attribute);
+	}
+	
+	/**
+	 * Returns the current values of the given attributes, skipping any that do not exist.
+	 * 
+	 * @param attributes String[] names of the attributes
+	 * @return AttributeList of the values found
+	 */
+	@Override
+	public AttributeList getAttributes(String[] attributes) {
+		AttributeList values = new AttributeList();
+		for (String attribute : attributes) {
+			try {
+				values.add(new Attribute(attribute, getAttribute(attribute)));
+			} catch (AttributeNotFoundException e) {
+				//left out, as the JMX contract asks
+			}
+		}
+		return values;
+	}
+	
+	/**
+	 * Always fails, as every attribute is read-only.
+	 * 
+	 * @param attribute Attribute to set
+	 * @throws AttributeNotFoundException always
+	 */
+	@Override
+	public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+		throw new AttributeNotFoundException("Metrics are read-only: " + attribute.getName());
+	}
+	
+	/**
+	 * Sets nothing, as every attribute is read-only.
+	 * 
+	 * @param attributes AttributeList to set
+	 * @return AttributeList empty list
+	 */
+	@Override
+	public AttributeList setAttributes(AttributeList attributes) {
+		return new AttributeList();
+	}
+	
+	/**
+	 * Runs the "dump" or "reset" operation.
+	 * 
+	 * @param actionName String name of the operation
+	 * @param params Object[] arguments, none
+	 * @param signature String[] argument types, none
+	 * @return Object the text dump for "dump", null for "reset"
+	 * @throws ReflectionException if there is no such operation
+	 */
+	@Override
+	public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+		if (actionName.equals("dump")) {
+			return registry.toText();
+		} else if (actionName.equals("reset")) {
+			registry.reset();
+			return null;
+		}
+		throw new ReflectionException(new NoSuchMethodException(actionName));
+	}
+	
+	/**
+	 * Describes the current attributes and the two operations.
+	 * 
+	 * @return MBeanInfo of this MBean
+	 */
+	@Override
+	public MBeanInfo getMBeanInfo() {
+		ArrayList<MBeanAttributeInfo> attributes = new ArrayList<MBeanAttributeInfo>();
+		for (Counter counter : registry.getCounters()) {
+			attributes.add(longAttribute(counter.getName(), "Counter " + counter.getName()));
+		}
+		for (Histogram histogram : registry.getHistograms()) {
+			String[] statistics = new String[3 + MetricsRegistry.PERCENTILES.length];
+			statistics[0] = "count";
+			statistics[1] = "sum";
+			statistics[2] = "max";
+			for (int idx = 0; idx < MetricsRegistry.PERCENTILES.length; idx++) {
+				statistics[3 + idx] = MetricsRegistry.percentileName(MetricsRegistry.PERCENTILES[idx]);
+			}
+			for (String statistic : statistics) {
+				attributes.add(longAttribute(MetricsRegistry.attributeName(histogram, statistic),
+						statistic + " of histogram " + histogram.getName()));
+			}
+		}
+		MBeanOperationInfo[] operations = {
+				new MBeanOperationInfo("dump", "Returns every metric in the Prometheus text format",
+						new MBeanParameterInfo[0], String.class.getName(), MBeanOperationInfo.INFO),
+				new MBeanOperationInfo("reset", "Sets every metric back to zero",
+						new MBeanParameterInfo[0], "void", MBeanOperationInfo.ACTION)};
+		return new MBeanInfo(getClass().getName(), "Minesweeper engine metrics",
+				attributes.toArray(new MBeanAttributeInfo[0]), null, operations, null);
+	}
+	
+	/**
+	 * Describes one read-only long attribute.
+	 * 
+	 * @param name String attribute name
+	 * @param description String attribute description
+	 * @return MBeanAttributeInfo of the attribute
+	 */
+	private static MBeanAttributeInfo longAttribute(String name, String description) {
+		return new MBeanAttributeInfo(name, "long", description, true, false, false);
+	}
+}
@@ -0,0 +1,180 @@
+package metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * File: MetricsRegistry.java
+ * Assignment: Minesweeper
+ * Course: CSC 335; Spring 2021
+ * 
+ * This class holds a set of named Counters and Histograms and exports them two ways: as a plain
+ * text dump in the Prometheus text format, and as a JMX MBean whose attributes are the current
+ * values. Both read the metrics without stopping the threads recording into them.
+ * 
+ * Metrics are looked up by name once, when the code recording them is loaded, and the returned 
+ * object is kept; recording into it never touches the registry.
+ * 
+ * @author Caroline Hyland
+ * @author James O'Connell
+ * @author Nicholas Leluan
+ * @author Christian Trejo
+ */
+public final class MetricsRegistry {
+	
+	/**
+	 * Percentiles reported for every histogram.
+	 */
+	static final double[] PERCENTILES = {0.5, 0.9, 0.99, 0.999};
+	
+	/**
+	 * Prefix of every exported metric name.
+	 */
+	private final String prefix;
+	
+	/**
+	 * Metrics of this registry by name.
+	 */
+	private final ConcurrentHashMap<String, Counter> counters = new ConcurrentHashMap<String, Counter>();
+	private final ConcurrentHashMap<String, Histogram> histograms = new ConcurrentHashMap<String, Histogram>();
+	
+	/**
+	 * Constructs a new empty registry.
+	 * 
+	 * @param prefix String put in front of every exported metric name, such as "minesweeper_"
+	 */
+	public MetricsRegistry(String prefix) {
+		this.prefix = prefix;
+	}
+	
+	/**
+	 * Purpose: Returns the counter with the given name, making it if there is none.
+	 * 
+	 * @param name String name of the counter, made of lower case letters, digits and '_'
+	 * @return Counter with that name
+	 */
+	public Counter counter(String name) {
+		return counters.computeIfAbsent(name, Counter::new);
+	}
+	
+	/**
+	 * Purpose: Returns the histogram with the given name, making it if there is none.
+	 * 
+	 * @param name String name of the histogram, made of lower case letters, digits and '_'
+	 * @return Histogram with that name
+	 */
+	public Histogram histogram(String name) {
+		return histograms.computeIfAbsent(name, Histogram::new);
+	}
+	
+	/**
+	 * Purpose: Returns the counters of this registry sorted by name.
+	 * 
+	 * @return ArrayList of Counters
+	 */
+	public ArrayList<Counter> getCounters() {
+		ArrayList<Counter> sorted = new ArrayList<Counter>(counters.values());
+		sorted.sort((first, second) -> first.getName().compareTo(second.getName()));
+		return sorted;
+	}
+	
+	/**
+	 * Purpose: Returns the histograms of this registry sorted by name.
+	 * 
+	 * @return ArrayList of Histograms
+	 */
+	public ArrayList<Histogram> getHistograms() {
+		ArrayList<Histogram> sorted = new ArrayList<Histogram>(histograms.values());
+		sorted.sort((first, second) -> first.getName().compareTo(second.getName()));
+		return sorted;
+	}
+	
+	/**
+	 * Purpose: Sets every metric of this registry back to zero.
+	 */
+	public void reset() {
+		for (Counter counter : counters.values()) {
+			counter.reset();
+		}
+		for (Histogram histogram : histograms.values()) {
+			histogram.reset();
+		}
+	}
+	
+	/**
+	 * Purpose: Returns every metric in the Prometheus text format. A counter is one line; a 
+	 * histogram is reported as a summary, with a line per percentile and lines for its count,
+	 * sum and maximum.
+	 * 
+	 * @return String text dump of the metrics
+	 */
+	public String toText() {
+		StringBuilder text = new StringBuilder();
+		for (Counter counter : getCounters()) {
+			String name = prefix + counter.getName();
+			text.append("# TYPE ").append(name).append(" counter\n");
+			text.append(name).append(' ').append(counter.get()).append('\n');
+		}
+		for (Histogram histogram : getHistograms()) {
+			String name = prefix + histogram.getName();
+			text.append("# TYPE ").append(name).append(" summary\n");
+			for (double percentile : PERCENTILES) {
+				text.append(name).append("{quantile=\"").append(percentile).append("\"} ")
+						.append(histogram.getPercentile(percentile)).append('\n');
+			}
+			text.append(name).append("_count ").append(histogram.getCount()).append('\n');
+			text.append(name).append("_sum ").append(histogram.getSum()).append('\n');
+			text.append(name).append("_max ").append(histogram.getMax()).append('\n');
+		}
+		return text.toString();
+	}
+	
+	/**
+	 * Purpose: Registers an MBean exporting this registry with the platform MBean server under
+	 * the given name, unless one is already registered there.
+	 * 
+	 * @param objectName String JMX object name, such as "minesweeper:type=EngineMetrics"
+	 * @throws IllegalStateException if the MBean cannot be registered
+	 */
+	public void registerMBean(String objectName) {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(objectName);
+			if (!server.isRegistered(name)) {
+				server.registerMBean(new MetricsMBean(this), name);
+			}
+		} catch (InstanceAlreadyExistsException e) {
+			//registered by another thread in the meantime
+		} catch (JMException e) {
+			throw new IllegalStateException("Cannot register metrics MBean " + objectName, e);
+		}
+	}
+	
+	/**
+	 * Returns the JMX attribute name of one statistic of a histogram.
+	 * 
+	 * @param histogram Histogram the statistic is of
+	 * @param statistic String statistic, such as "count" or "p99"
+	 * @return String attribute name
+	 */
+	static String attributeName(Histogram histogram, String statistic) {
+		return histogram.getName() + "_" + statistic;
+	}
+	
+	/**
+	 * Returns the statistic name of a percentile, such as "p99" for 0.99 and "p999" for 0.999.
+	 * 
+	 * @param percentile double percentile as a fraction
+	 * @return String statistic name
+	 */
+	static String percentileName(double percentile) {
+		String digits = Double.toString(percentile).substring(2);
+		return "p" + (digits.length() == 1 ? digits + "0" : digits);
+	}
+}
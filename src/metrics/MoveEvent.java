@@ -0,0 +1,60 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * File: MoveEvent.java
+ * Assignment: Minesweeper
+ * Course: CSC 335; Spring 2021
+ * 
+ * This class is the Java Flight Recorder event of one move through MinesweeperController: a 
+ * reveal (putTurn) or a flag placed or removed. Its duration is the whole move, including the
+ * generation of the board on a first click and the listeners notified at its end, so a slow 
+ * turn can be matched to the GenerationEvent, DispatchEvent or garbage collection inside it.
+ * 
+ * @author Caroline Hyland
+ * @author James O'Connell
+ * @author Nicholas Leluan
+ * @author Christian Trejo
+ */
+@Name("minesweeper.Move")
+@Label("Move")
+@Category("Minesweeper")
+@Description("A square revealed or flagged by the player")
+public class MoveEvent extends Event {
+	
+	/**
+	 * Kinds of move.
+	 */
+	public static final String REVEAL = "reveal";
+	public static final String FLAG = "flag";
+	
+	/**
+	 * Outcomes of a move.
+	 */
+	public static final String SAFE = "safe";
+	public static final String MINE = "mine";
+	public static final String ILLEGAL = "illegal";
+	
+	@Label("Row")
+	public int row;
+	
+	@Label("Column")
+	public int col;
+	
+	@Label("Kind")
+	@Description("reveal or flag")
+	public String kind;
+	
+	@Label("Outcome")
+	@Description("safe, mine or illegal")
+	public String outcome;
+	
+	@Label("Cells Changed")
+	@Description("Number of squares revealed, or flagged or unflagged, by the move")
+	public int cellsChanged;
+}
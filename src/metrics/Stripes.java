@@ -0,0 +1,46 @@
+package metrics;
+
+/**
+ * File: Stripes.java
+ * Assignment: Minesweeper
+ * Course: CSC 335; Spring 2021
+ * 
+ * This class spreads the threads recording metrics over a fixed number of stripes. Every 
+ * Counter and Histogram keeps one copy of its atomic cells per stripe and each thread only 
+ * writes the copy of its own stripe, so threads playing games on different cores rarely 
+ * write the same cache line. There are as many stripes as cores, rounded up to a power of two.
+ * 
+ * @author Caroline Hyland
+ * @author James O'Connell
+ * @author Nicholas Leluan
+ * @author Christian Trejo
+ */
+final class Stripes {
+	
+	/**
+	 * Number of stripes, a power of two.
+	 */
+	static final int COUNT = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1));
+	
+	/**
+	 * Number of unused longs kept after the cells of each stripe, one 64-byte cache line.
+	 */
+	static final int PADDING = 8;
+	
+	/**
+	 * This class only holds constants.
+	 */
+	private Stripes() {
+	}
+	
+	/**
+	 * Returns the stripe of the calling thread, made by scrambling its id.
+	 * 
+	 * @return int stripe from 0 to COUNT-1
+	 */
+	@SuppressWarnings("deprecation")
+	static int current() {
+		long id = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+		return (int) (id >>> 32) & (COUNT - 1);
+	}
+}
@@ -0,0 +1,212 @@
+package model;
+
+/**
+ * File: BitboardCellStore.java
+ * Assignment: Minesweeper
+ * Course: CSC 335; Spring 2021
+ * 
+ * This class is a CellStore that keeps the board as long[] bitboards: one bit plane each for 
+ * mines, revealed cells, flags and DNE cells, plus four planes holding the bits of each cell's 
+ * proximity count. Every row starts on a fresh word (rows are padded to a multiple of 64 
+ * columns), so a word never spans two rows and the row above or below a word is a fixed 
+ * number of words away. The padding bits are always zero.
+ * 
+ * Proximity counts are computed 64 cells at a time: the mine plane of the rows above, at and 
+ * below a word is shifted into the eight neighbor positions and the eight one-bit inputs are 
+ * summed with bit-sliced ripple addition into the four count planes. Hiding a range of rows 
+ * clears whole words of the revealed and flag planes.
+ * 
+ * @author Caroline Hyland
+ * @author James O'Connell
+ * @author Nicholas Leluan
+ * @author Christian Trejo
+ */
+class BitboardCellStore extends CellStore {
+	
+	/**
+	 * Default serials version ID.
+	 */
+	private static final long serialVersionUID = 1L;
+	
+	/**
+	 * Number of 64-bit words holding one row of a plane.
+	 */
+	private final int wordsPerRow;
+	
+	/**
+	 * Bit plane of the cells holding a mine.
+	 */
+	private final long[] mines;
+	
+	/**
+	 * Bit plane of the cells revealed to the player.
+	 */
+	private final long[] visible;
+	
+	/**
+	 * Bit plane of the flagged cells.
+	 */
+	private final long[] flags;
+	
+	/**
+	 * Bit plane of the cells that do not exist in the board's shape.
+	 */
+	private final long[] dnes;
+	
+	/**
+	 * Bit planes of the proximity counts; counts[i] holds bit i of every cell's count.
+	 */
+	private final long[][] counts;
+	
+	/**
+	 * Constructs a store for a board of the given size with every cell hidden and empty.
+	 * 
+	 * @param rows int number of rows
+	 * @param cols int number of columns
+	 */
+	BitboardCellStore(int rows, int cols) {
+		super(rows, cols);
+		wordsPerRow = (cols + 63) >>> 6;
+		int words = rows * wordsPerRow;
+		mines = new long[words];
+		visible = new long[words];
+		flags = new long[words];
+		dnes = new long[words];
+		counts = new long[4][words];
+	}
+	
+	/**
+	 * Returns the index of the word holding the given cell in every plane.
+	 * 
+	 * @param cell int flat index of the cell
+	 * @return int word index
+	 */
+	private int word(int cell) {
+		return (cell / cols) * wordsPerRow + ((cell % cols) >>> 6);
+	}
+	
+	/**
+	 * Returns the mask selecting the given cell's bit within its word.
+	 * 
+	 * @param cell int flat index of the cell
+	 * @return long single-bit mask
+	 */
+	private long bit(int cell) {
+		return 1L << (cell % cols);
+	}
+	
+	@Override
+	int getVal(int cell) {
+		int word = word(cell);
+		int shift = (cell % cols) & 63;
+		if (((mines[word] >>> shift) & 1L) != 0) {
+			return MinesweeperBoard.MINE;
+		}
+		return (int) (((counts[0][word] >>> shift) & 1L)
+				| (((counts[1][word] >>> shift) & 1L) << 1)
+				| (((counts[2][word] >>> shift) & 1L) << 2)
+				| (((counts[3][word] >>> shift) & 1L) << 3));
+	}
+	
+	@Override
+	void setVal(int cell, int val) {
+		int word = word(cell);
+		long bit = bit(cell);
+		if (val == MinesweeperBoard.MINE) {
+			mines[word] |= bit;
+			val = 0;
+		} else {
+			mines[word] &= ~bit;
+		}
+		for (int plane = 0; plane < 4; plane++) {
+			if (((val >>> plane) & 1) != 0) {
+				counts[plane][word] |= bit;
+			} else {
+				counts[plane][word] &= ~bit;
+			}
+		}
+	}
+	
+	@Override
+	boolean isMine(int cell) {
+		return (mines[word(cell)] & bit(cell)) != 0;
+	}
+	
+	@Override
+	int getVisibility(int cell) {
+		int word = word(cell);
+		long bit = bit(cell);
+		if ((dnes[word] & bit) != 0) {
+			return VIS_DNE;
+		} else if ((flags[word] & bit) != 0) {
+			return VIS_FLAG;
+		} else if ((visible[word] & bit) != 0) {
+			return VIS_VISIBLE;
+		}
+		return VIS_INVISIBLE;
+	}
+	
+	@Override
+	void setVisibility(int cell, int code) {
+		int word = word(cell);
+		long bit = bit(cell);
+		visible[word] &= ~bit;
+		flags[word] &= ~bit;
+		dnes[word] &= ~bit;
+		if (code == VIS_VISIBLE) {
+			visible[word] |= bit;
+		} else if (code == VIS_FLAG) {
+			flags[word] |= bit;
+		} else if (code == VIS_DNE) {
+			dnes[word] |= bit;
+		}
+	}
+	
+	@Override
+	void hideRows(int fromRow, int toRow) {
+		for (int word = fromRow * wordsPerRow; word < toRow * wordsPerRow; word++) {
+			visible[word] = 0;
+			flags[word] = 0;
+		}
+	}
+	
+	@Override
+	void countMines(int fromRow, int toRow) {
+		for (int row = fromRow; row < toRow; row++) {
+			int base = row * wordsPerRow;
+			for (int w = 0; w < wordsPerRow; w++) {
+				long s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+				for (int dr = -1; dr <= 1; dr++) {
+					int r = row + dr;
+					if (r < 0 || r >= rows) {
+						continue;
+					}
+					int rowBase = r * wordsPerRow;
+					long centre = mines[rowBase + w];
+					long before = w > 0 ? mines[rowBase + w - 1] : 0L;
+					long after = w + 1 < wordsPerRow ? mines[rowBase + w + 1] : 0L;
+					//neighbor to the left moves up one bit, neighbor to the right down one bit
+					long left = (centre << 1) | (before >>> 63);
+					long right = (centre >>> 1) | (after << 63);
+					for (int input = 0; input < 3; input++) {
+						long x = input == 0 ? left : input == 1 ? right : (dr == 0 ? 0L : centre);
+						//bit-sliced ripple addition of x into (s3 s2 s1 s0)
+						long c0 = s0 & x;
+						s0 ^= x;
+						long c1 = s1 & c0;
+						s1 ^= c0;
+						long c2 = s2 & c1;
+						s2 ^= c1;
+						s3 ^= c2;
+					}
+				}
+				//only cells that exist and are not mines take the new count
+				long keep = mines[base + w] | dnes[base + w];
+				counts[0][base + w] = (counts[0][base + w] & keep) | (s0 & ~keep);
+				counts[1][base + w] = (counts[1][base + w] & keep) | (s1 & ~keep);
+				counts[2][base + w] = (counts[2][base + w] & keep) | (s2 & ~keep);
+				counts[3][base + w] = (counts[3][base + w] & keep) | (s3 & ~keep);
+			}
+		}
+	}
+}
@@ -0,0 +1,297 @@
+package model;
+
+import metrics.EngineMetrics;
+import metrics.GenerationEvent;
+
+/**
+ * File: BoardGenerator.java
+ * Assignment: Minesweeper
+ * Course: CSC 335; Spring 2021
+ *
+ * This class places the mines and proximity values of a board. Generation is a pure function
+ * of the board's shape and size, the number of mines, the first click and a 64-bit seed fed to
+ * a SeededRandom, so any board can be rebuilt exactly from those few values. Boards with at
+ * least StripedBoardGenerator.MIN_CELLS cells are handed to StripedBoardGenerator; smaller
+ * boards are generated on the calling thread.
+ *
+ * Generation has two steps. The layout spreads the mines over every existing square from the
+ * seed alone, so it can be done before the first click, for example by a BoardPool in the
+ * background. The first click then moves the mines on or touching it, at most nine, to squares
+ * drawn from a second stream of the seed, and only the values around the squares that changed
+ * are updated, so the click itself costs the same on any size of board. The mines outside the
+ * safe zone are a uniform draw and the moved mines a uniform draw from the squares left, so
+ * together they are the same uniform draw as placing the mines around the click directly.
+ *
+ * @author Caroline Hyland
+ * @author James O'Connell
+ * @author Nicholas Leluan
+ * @author Christian Trejo
+ */
+class BoardGenerator {
+
+	/**
+	 * Random squares tried for a moved mine before the free squares are listed instead.
+	 */
+	private static final int MAX_TRIES = 64;
+
+	/**
+	 * Places the mines and proximity values of the board from the given seed, keeping every
+	 * square on or touching the first click free of mines. A board already laid out from the
+	 * same seed and number of mines only has the mines of the safe zone moved; any other board
+	 * is hidden and laid out first. The seed and first click are recorded on the board, and
+	 * the time taken in EngineMetrics and, when Flight Recorder is on, a GenerationEvent,
+	 * unless the board is a scratch board.
+	 *
+	 * @param board MinesweeperBoard to populate, with no mines placed yet or laid out
+	 * @param mineCount int number of mines to place
+	 * @param userRow int row coordinate of the user's first click
+	 * @param userCol int column coordinate of the user's first click
+	 * @param seed long seed of the generator
+	 * @throws IllegalStateException if there are fewer eligible squares than mines
+	 */
+	static void generate(MinesweeperBoard board, int mineCount, int userRow, int userCol, long seed) {
+		long start = System.nanoTime();
+		GenerationEvent event = new GenerationEvent();
+		event.begin();
+		boolean laidOut = board.isLaidOut() && board.getSeed() == seed && board.numMines() == mineCount;
+		boolean striped = false;
+		if (!laidOut) {
+			striped = placeMines(board, mineCount, seed);
+		}
+		relocate(board, mineCount, userRow, userCol, seed);
+		board.recordGeneration(seed, userRow, userCol);
+		if (board.isScratch()) {
+			return;
+		}
+		EngineMetrics.GENERATE_NANOS.recordSince(start);
+		if (event.shouldCommit()) {
+			event.rows = board.numRows();
+			event.cols = board.numCols();
+			event.shape = board.getShape();
+			event.mines = mineCount;
+			event.parallel = striped;
+			event.laidOut = laidOut;
+			event.seed = seed;
+			event.commit();
+		}
+	}
+
+	/**
+	 * Lays the mines and proximity values of the board out from the given seed before the
+	 * first click, over every existing square. The board is marked as laid out and the time
+	 * taken recorded in EngineMetrics.LAYOUT_NANOS.
+	 *
+	 * @param board MinesweeperBoard to lay out, with no first click yet
+	 * @param mineCount int number of mines to place
+	 * @param seed long seed of the generator
+	 * @throws IllegalStateException if there are fewer existing squares than mines
+	 */
+	static void layOut(MinesweeperBoard board, int mineCount, long seed) {
+		long start = System.nanoTime();
+		placeMines(board, mineCount, seed);
+		board.recordLayout(true);
+		if (!board.isScratch()) {
+			EngineMetrics.LAYOUT_NANOS.recordSince(start);
+		}
+	}
+
+	/**
+	 * Removes every mine from the board and counts the values again, undoing a layout.
+	 *
+	 * @param board MinesweeperBoard whose layout is dropped
+	 */
+	static void clearLayout(MinesweeperBoard board) {
+		for (int cell = 0; cell < board.numCells(); cell++) {
+			if (board.getVal(cell) == MinesweeperBoard.MINE) {
+				board.putVal(cell, 0);
+			}
+		}
+		board.countMines(0, board.numRows());
+		board.recordLayout(false);
+	}
+
+	/**
+	 * Hides every square of the board and places the mines and values over every existing
+	 * square, dropping any earlier layout first, then indexes the openings. The moves made
+	 * by relocate() afterwards mark the openings they touch as stale.
+	 *
+	 * @param board MinesweeperBoard to populate
+	 * @param mineCount int number of mines to place
+	 * @param seed long seed of the generator
+	 * @return boolean true if the board was generated in parallel stripes
+	 * @throws IllegalStateException if there are fewer existing squares than mines
+	 */
+	private static boolean placeMines(MinesweeperBoard board, int mineCount, long seed) {
+		board.dropOpenings();
+		if (board.numMines() > 0) {
+			clearLayout(board);
+		}
+		SeededRandom random = new SeededRandom(seed);
+		boolean striped = board.numCells() >= StripedBoardGenerator.MIN_CELLS;
+		if (striped) {
+			StripedBoardGenerator.generate(board, mineCount, random);
+		} else {
+			board.hideRows(0, board.numRows());
+			setMines(board, mineCount, random);
+			board.countMines(0, board.numRows());
+		}
+		board.indexOpenings();
+		return striped;
+	}
+
+	/**
+	 * Places the mines in random places on the board, ensuring none of them are on a DNE
+	 * square.
+	 *
+	 * Every eligible square is listed once and the mines are drawn from that list with a
+	 * partial Fisher-Yates shuffle, so each draw places a mine and placement always ends
+	 * after mineCount draws, even when nearly every eligible square gets a mine.
+	 *
+	 * @param board MinesweeperBoard to place the mines on
+	 * @param mineCount int number of mines to place
+	 * @param random SeededRandom the squares are drawn with
+	 * @throws IllegalStateException if there are fewer eligible squares than mines
+	 */
+	private static void setMines(MinesweeperBoard board, int mineCount, SeededRandom random) {
+		int[] eligible = new int[board.numCells()];
+		int numEligible = 0;
+		for (int cell = 0; cell < board.numCells(); cell++) {
+			if (!board.isDNE(cell)) {
+				eligible[numEligible++] = cell; //mines never go on squares not in use
+			}
+		}
+		if (mineCount > numEligible) {
+			throw new IllegalStateException("Cannot place " + mineCount + " mines; only "
+					+ numEligible + " squares are eligible.");
+		}
+
+		for (int placed = 0; placed < mineCount; placed++) {
+			//swap a random not yet chosen square into position placed and mine it
+			int pick = placed + random.nextInt(numEligible - placed);
+			int cell = eligible[pick];
+			eligible[pick] = eligible[placed];
+			eligible[placed] = cell;
+			board.putVal(cell, MinesweeperBoard.MINE);
+		}
+	}
+
+	/**
+	 * Moves every mine on or touching the user's first click to a random free square outside
+	 * that safe zone, updating only the values of the squares around each mine moved.
+	 *
+	 * Targets are drawn from the first stream split off the seed's generator, so the same seed
+	 * and click always move the same mines to the same squares. A target is found by trying
+	 * random squares, which takes a few tries unless nearly every square is a mine; after
+	 * MAX_TRIES misses the free squares are counted and one of them is picked instead.
+	 *
+	 * @param board MinesweeperBoard laid out from the seed
+	 * @param mineCount int number of mines on the board
+	 * @param userRow int row coordinate of the user's first click
+	 * @param userCol int column coordinate of the user's first click
+	 * @param seed long seed of the generator
+	 * @throws IllegalStateException if the mines do not fit outside the safe zone
+	 */
+	private static void relocate(MinesweeperBoard board, int mineCount, int userRow, int userCol, long seed) {
+		int[] zone = new int[9];
+		int zoneSize = 0;
+		for (int row = Math.max(0, userRow - 1); row <= Math.min(board.numRows() - 1, userRow + 1); row++) {
+			for (int col = Math.max(0, userCol - 1); col <= Math.min(board.numCols() - 1, userCol + 1); col++) {
+				int cell = board.cellIndex(row, col);
+				if (!board.isDNE(cell)) {
+					zone[zoneSize++] = cell;
+				}
+			}
+		}
+		int numEligible = board.numCells() - board.numDNEs() - zoneSize;
+		if (mineCount > numEligible) {
+			throw new IllegalStateException("Cannot place " + mineCount + " mines; only "
+					+ numEligible + " squares are eligible.");
+		}
+
+		SeededRandom random = new SeededRandom(seed).split();
+		int[] neighbors = new int[8];
+		for (int idx = 0; idx < zoneSize; idx++) {
+			int from = zone[idx];
+			if (board.getVal(from) != MinesweeperBoard.MINE) {
+				continue;
+			}
+			int to = -1;
+			for (int tries = 0; tries < MAX_TRIES && to < 0; tries++) {
+				int cell = random.nextInt(board.numCells());
+				if (isFree(board, cell, userRow, userCol)) {
+					to = cell;
+				}
+			}
+			if (to < 0) {
+				to = pickFree(board, userRow, userCol, random);
+			}
+
+			//the mine leaves from: its neighbors lose one and it takes the count of its own
+			board.putVal(from, 0);
+			int mines = 0;
+			int numNeighbors = board.getNeighbors(from, neighbors);
+			for (int nbr = 0; nbr < numNeighbors; nbr++) {
+				int val = board.getVal(neighbors[nbr]);
+				if (val == MinesweeperBoard.MINE) {
+					mines++;
+				} else {
+					board.putVal(neighbors[nbr], val - 1);
+				}
+			}
+			board.putVal(from, mines);
+
+			//and lands on to: its neighbors gain one
+			board.putVal(to, MinesweeperBoard.MINE);
+			numNeighbors = board.getNeighbors(to, neighbors);
+			for (int nbr = 0; nbr < numNeighbors; nbr++) {
+				int val = board.getVal(neighbors[nbr]);
+				if (val != MinesweeperBoard.MINE) {
+					board.putVal(neighbors[nbr], val + 1);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns a uniformly random free square outside the safe zone by counting them all.
+	 *
+	 * @param board MinesweeperBoard being generated
+	 * @param userRow int row coordinate of the user's first click
+	 * @param userCol int column coordinate of the user's first click
+	 * @param random SeededRandom the square is drawn with
+	 * @return int flat index of the square
+	 */
+	private static int pickFree(MinesweeperBoard board, int userRow, int userCol, SeededRandom random) {
+		int free = 0;
+		for (int cell = 0; cell < board.numCells(); cell++) {
+			if (isFree(board, cell, userRow, userCol)) {
+				free++;
+			}
+		}
+		int pick = random.nextInt(free);
+		for (int cell = 0; ; cell++) {
+			if (isFree(board, cell, userRow, userCol) && pick-- == 0) {
+				return cell;
+			}
+		}
+	}
+
+	/**
+	 * Returns true if a mine may be moved to the square: it exists, holds no mine and does
+	 * not touch the user's first click.
+	 *
+	 * @param board MinesweeperBoard being generated
+	 * @param cell int flat index of the square
+	 * @param userRow int row coordinate of the user's first click
+	 * @param userCol int column coordinate of the user's first click
+	 * @return boolean true if the square is free
+	 */
+	private static boolean isFree(MinesweeperBoard board, int cell, int userRow, int userCol) {
+		int row = cell / board.numCols();
+		int col = cell % board.numCols();
+		if (Math.abs(row - userRow) <= 1 && Math.abs(col - userCol) <= 1) {
+			return false;
+		}
+		return !board.isDNE(cell) && board.getVal(cell) != MinesweeperBoard.MINE;
+	}
+}
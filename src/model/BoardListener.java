@@ -0,0 +1,32 @@
+package model;
+
+/**
+ * File: BoardListener.java
+ * Assignment: Minesweeper
+ * Course: CSC 335; Spring 2021
+ * 
+ * This interface is implemented by anything that wants to hear about moves made on a 
+ * MinesweeperModel, such as the JavaFX view, a server pushing moves to clients, or a batch 
+ * job counting them. It takes the place of java.util.Observer so that the model, controller 
+ * and high score packages do not depend on any user interface and can be run headless.
+ * 
+ * Listeners are called on the thread that made the move, once per move, after every change 
+ * of the move has been made.
+ * 
+ * @author Caroline Hyland
+ * @author James O'Connell
+ * @author Nicholas Leluan
+ * @author Christian Trejo
+ */
+public interface BoardListener {
+	
+	/**
+	 * Purpose: Called when a move has changed the visibility of one or more cells. The 
+	 * ChangeSet is reused by the model for the next move, so it must be read before this 
+	 * method returns and not kept.
+	 * 
+	 * @param model MinesweeperModel the move was made on
+	 * @param changes ChangeSet of the cells whose visibility changed
+	 */
+	void boardChanged(MinesweeperModel model, ChangeSet changes);
+}
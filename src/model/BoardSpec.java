@@ -0,0 +1,172 @@
+package model;
+
+import java.io.Serializable;
+
+/**
+ * File: BoardSpec.java
+ * Assignment: Minesweeper
+ * Course: CSC 335; Spring 2021
+ *
+ * This class holds everything needed to rebuild a generated board exactly: its size, difficulty
+ * and shape, the number of mines, the seed the mines were placed from and the first click they
+ * were placed around. It takes a few dozen bytes however large the board is, so replays and
+ * benchmark corpora can store specs instead of whole boards. Instances are immutable.
+ *
+ * @author Caroline Hyland
+ * @author James O'Connell
+ * @author Nicholas Leluan
+ * @author Christian Trejo
+ */
+public final class BoardSpec implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private final int rows;
+	private final int cols;
+	private final String difficulty;
+	private final String shape;
+	private final int mineCount;
+	private final long seed;
+	private final int firstRow;
+	private final int firstCol;
+
+	/**
+	 * Constructs a new BoardSpec.
+	 *
+	 * @param rows int number of rows of the board
+	 * @param cols int number of columns of the board
+	 * @param difficulty String difficulty of the board
+	 * @param shape String shape of the board
+	 * @param mineCount int number of mines on the board
+	 * @param seed long seed the mines are placed from
+	 * @param firstRow int row of the first click
+	 * @param firstCol int column of the first click
+	 */
+	public BoardSpec(int rows, int cols, String difficulty, String shape, int mineCount, long seed,
+			int firstRow, int firstCol) {
+		this.rows = rows;
+		this.cols = cols;
+		this.difficulty = difficulty;
+		this.shape = shape;
+		this.mineCount = mineCount;
+		this.seed = seed;
+		this.firstRow = firstRow;
+		this.firstCol = firstCol;
+	}
+
+	/**
+	 * Purpose: Builds a new board from this spec, with the same mines and values as the board
+	 * it was taken from and every location hidden.
+	 *
+	 * @param storage MinesweeperBoard.Storage backend to keep the cells in
+	 * @return MinesweeperBoard rebuilt board
+	 * @throws IllegalStateException if the mines do not fit around the first click
+	 */
+	public MinesweeperBoard build(MinesweeperBoard.Storage storage) {
+		MinesweeperBoard board = new MinesweeperBoard(rows, cols, difficulty, shape, storage);
+		board.setNumFlags(mineCount);
+		board.setInit(true);
+		BoardGenerator.generate(board, mineCount, firstRow, firstCol, seed);
+		return board;
+	}
+
+	/**
+	 * Purpose: Returns the number of rows of the board.
+	 *
+	 * @return int number of rows
+	 */
+	public int getRows() {
+		return rows;
+	}
+
+	/**
+	 * Purpose: Returns the number of columns of the board.
+	 *
+	 * @return int number of columns
+	 */
+	public int getCols() {
+		return cols;
+	}
+
+	/**
+	 * Purpose: Returns the difficulty of the board.
+	 *
+	 * @return String difficulty
+	 */
+	public String getDifficulty() {
+		return difficulty;
+	}
+
+	/**
+	 * Purpose: Returns the shape of the board.
+	 *
+	 * @return String shape
+	 */
+	public String getShape() {
+		return shape;
+	}
+
+	/**
+	 * Purpose: Returns the number of mines on the board.
+	 *
+	 * @return int number of mines
+	 */
+	public int getMineCount() {
+		return mineCount;
+	}
+
+	/**
+	 * Purpose: Returns the seed the mines are placed from.
+	 *
+	 * @return long seed
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Purpose: Returns the row of the first click.
+	 *
+	 * @return int row of the first click
+	 */
+	public int getFirstRow() {
+		return firstRow;
+	}
+
+	/**
+	 * Purpose: Returns the column of the first click.
+	 *
+	 * @return int column of the first click
+	 */
+	public int getFirstCol() {
+		return firstCol;
+	}
+
+	/**
+	 * This overrides the equals method of the Object class, saying that two specs are equal
+	 * if every one of their fields is equal.
+	 *
+	 * @param other Object to which the current object is being compared
+	 * @return boolean expressing whether or not the current object is equal to other
+	 */
+	@Override
+	public boolean equals(Object other) {
+		if (!(other instanceof BoardSpec)) {
+			return false;
+		}
+		BoardSpec spec = (BoardSpec) other;
+		return rows == spec.rows && cols == spec.cols && difficulty.equals(spec.difficulty)
+				&& shape.equals(spec.shape) && mineCount == spec.mineCount && seed == spec.seed
+				&& firstRow == spec.firstRow && firstCol == spec.firstCol;
+	}
+
+	/**
+	 * This overrides the hashCode method of the Object class to agree with equals.
+	 *
+	 * @return int hash code of the spec
+	 */
+	@Override
+	public int hashCode() {
+		return Long.hashCode(seed) * 31 + rows * 17 + cols * 7 + firstRow * 3 + firstCol;
+	}
+}
@@ -0,0 +1,107 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * File: CellList.java
+ * Assignment: Minesweeper
+ * Course: CSC 335; Spring 2021
+ * 
+ * This class is a growable list of primitive int values used to report flat cell indices 
+ * (row*cols+col) of a MinesweeperBoard, such as the cells revealed by a single move. Values 
+ * are kept in a plain int[] so adding a cell never boxes or allocates once the list has 
+ * grown to size, and the list is meant to be cleared and reused from move to move.
+ * 
+ * @author Caroline Hyland
+ * @author James O'Connell
+ * @author Nicholas Leluan
+ * @author Christian Trejo
+ */
+public class CellList {
+	
+	/**
+	 * Backing array holding the cell indices in positions [0, size).
+	 */
+	private int[] cells;
+	
+	/**
+	 * The number of cell indices currently in the list.
+	 */
+	private int size;
+	
+	/**
+	 * Constructs a new empty CellList with room for 16 cells.
+	 */
+	public CellList() {
+		this(16);
+	}
+	
+	/**
+	 * Constructs a new empty CellList with room for the given number of cells.
+	 * 
+	 * @param capacity int initial number of cells the list can hold without growing
+	 */
+	public CellList(int capacity) {
+		cells = new int[Math.max(capacity, 1)];
+		size = 0;
+	}
+	
+	/**
+	 * Adds a cell index to the end of the list, growing the backing array if needed.
+	 * 
+	 * @param cell int flat cell index to add
+	 */
+	public void add(int cell) {
+		if (size == cells.length) {
+			cells = Arrays.copyOf(cells, cells.length * 2);
+		}
+		cells[size++] = cell;
+	}
+	
+	/**
+	 * Returns the cell index at the given position in the list.
+	 * 
+	 * @param idx int position in the list, in range [0, size())
+	 * @return int flat cell index stored at that position
+	 */
+	public int get(int idx) {
+		if (idx < 0 || idx >= size) {
+			throw new IndexOutOfBoundsException("Index " + idx + " out of bounds for size " + size);
+		}
+		return cells[idx];
+	}
+	
+	/**
+	 * Returns the number of cell indices in the list.
+	 * 
+	 * @return int number of cells in the list
+	 */
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * Returns true if the list holds no cells.
+	 * 
+	 * @return boolean true if the list is empty
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+	
+	/**
+	 * Removes every cell from the list while keeping its capacity for reuse.
+	 */
+	public void clear() {
+		size = 0;
+	}
+	
+	/**
+	 * Returns a copy of the cell indices in the list.
+	 * 
+	 * @return int[] of length size() holding the cells in insertion order
+	 */
+	public int[] toArray() {
+		return Arrays.copyOf(cells, size);
+	}
+}
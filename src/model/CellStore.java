@@ -0,0 +1,132 @@
+package model;
+
+import java.io.Serializable;
+
+/**
+ * File: CellStore.java
+ * Assignment: Minesweeper
+ * Course: CSC 335; Spring 2021
+ * 
+ * This class is the storage backend behind a MinesweeperBoard. It holds the value (proximity 
+ * count or mine) and the visibility of every cell, addressed by flat cell index row*cols+col, 
+ * while the board keeps the running counts and the neighbor index on top of it. 
+ * 
+ * Visibility is passed around as a code from 0 to 3 (VIS_INVISIBLE, VIS_VISIBLE, VIS_FLAG and 
+ * VIS_DNE) which MinesweeperBoard maps to its public constants. None of the methods here touch
+ * the board's running counts.
+ * 
+ * Bulk operations work on whole rows so that a store can be shared by threads working on 
+ * disjoint row ranges.
+ * 
+ * @author Caroline Hyland
+ * @author James O'Connell
+ * @author Nicholas Leluan
+ * @author Christian Trejo
+ */
+abstract class CellStore implements Serializable {
+	
+	/**
+	 * Default serials version ID.
+	 */
+	private static final long serialVersionUID = 1L;
+	
+	/**
+	 * Visibility code of a hidden cell.
+	 */
+	static final int VIS_INVISIBLE = 0;
+	
+	/**
+	 * Visibility code of a revealed cell.
+	 */
+	static final int VIS_VISIBLE = 1;
+	
+	/**
+	 * Visibility code of a flagged cell.
+	 */
+	static final int VIS_FLAG = 2;
+	
+	/**
+	 * Visibility code of a cell that does not exist in the board's shape.
+	 */
+	static final int VIS_DNE = 3;
+	
+	/**
+	 * The number of rows in the stored board.
+	 */
+	protected final int rows;
+	
+	/**
+	 * The number of columns in the stored board.
+	 */
+	protected final int cols;
+	
+	/**
+	 * Constructs a store for a board of the given size with every cell hidden and empty.
+	 * 
+	 * @param rows int number of rows
+	 * @param cols int number of columns
+	 */
+	protected CellStore(int rows, int cols) {
+		this.rows = rows;
+		this.cols = cols;
+	}
+	
+	/**
+	 * Returns the value of the cell: MinesweeperBoard.MINE or a proximity count in [0,8].
+	 * 
+	 * @param cell int flat index of the cell
+	 * @return int value of the cell
+	 */
+	abstract int getVal(int cell);
+	
+	/**
+	 * Stores the value of the cell: MinesweeperBoard.MINE or a proximity count in [0,8].
+	 * 
+	 * @param cell int flat index of the cell
+	 * @param val int new value of the cell
+	 */
+	abstract void setVal(int cell, int val);
+	
+	/**
+	 * Returns true if the cell holds a mine.
+	 * 
+	 * @param cell int flat index of the cell
+	 * @return boolean true if the cell is a mine
+	 */
+	abstract boolean isMine(int cell);
+	
+	/**
+	 * Returns the visibility code of the cell.
+	 * 
+	 * @param cell int flat index of the cell
+	 * @return int visibility code from VIS_INVISIBLE to VIS_DNE
+	 */
+	abstract int getVisibility(int cell);
+	
+	/**
+	 * Stores the visibility code of the cell.
+	 * 
+	 * @param cell int flat index of the cell
+	 * @param code int visibility code from VIS_INVISIBLE to VIS_DNE
+	 */
+	abstract void setVisibility(int cell, int code);
+	
+	/**
+	 * Sets every existing cell in the rows [fromRow, toRow) back to invisible.
+	 * 
+	 * @param fromRow int first row, inclusive
+	 * @param toRow int last row, exclusive
+	 */
+	abstract void hideRows(int fromRow, int toRow);
+	
+	/**
+	 * For every cell in the rows [fromRow, toRow) that is not a mine or a DNE, counts how 
+	 * many of its neighbors are mines and stores that as its value. Rows outside the range 
+	 * are only read. DNE cells never hold mines, so only the board's bounds limit the 
+	 * neighbors that are looked at.
+	 * 
+	 * @param fromRow int first row, inclusive
+	 * @param toRow int last row, exclusive
+	 */
+	abstract void countMines(int fromRow, int toRow);
+}
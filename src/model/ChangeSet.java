@@ -0,0 +1,178 @@
+package model;
+
+import java.util.BitSet;
+import java.util.function.IntConsumer;
+
+/**
+ * File: ChangeSet.java
+ * Assignment: Minesweeper
+ * Course: CSC 335; Spring 2021
+ * 
+ * This class holds the cells of a MinesweeperBoard whose visibility changed during one move. 
+ * MinesweeperModel gathers every change made between beginMove() and endMove() into a ChangeSet 
+ * and passes it to its listeners in a single notification, so a listener only has to look at 
+ * the cells listed here instead of the whole board.
+ * 
+ * Each cell appears at most once. Cells are listed in the order they were first changed until
+ * the list would take more memory than one bit per board cell; from then on the move is kept
+ * only as a bit set and visited in index order. A ChangeSet therefore never holds more than a
+ * few bits per board cell, even when one click opens a whole board of a hundred million cells.
+ * 
+ * The model keeps the ChangeSet of the last move until the next move begins and then reuses it,
+ * so listeners should read it during the notification and not keep it.
+ * 
+ * @author Caroline Hyland
+ * @author James O'Connell
+ * @author Nicholas Leluan
+ * @author Christian Trejo
+ */
+public class ChangeSet {
+	
+	/**
+	 * The board the changed cells belong to.
+	 */
+	private MinesweeperBoard board;
+	
+	/**
+	 * Flat indices (row*cols+col) of the changed cells, while the set is not dense.
+	 */
+	private CellList cells;
+	
+	/**
+	 * Marks every changed cell, so a cell changed twice is only counted once.
+	 */
+	private BitSet marked;
+	
+	/**
+	 * The number of changed cells.
+	 */
+	private int count;
+	
+	/**
+	 * True once the list has been dropped and the changes are only held in marked.
+	 */
+	private boolean dense;
+	
+	/**
+	 * Largest number of cells listed before the set becomes dense, chosen so the list never
+	 * takes more memory than the bit set.
+	 */
+	private final int maxListed;
+	
+	/**
+	 * Constructs a new empty ChangeSet for the given board.
+	 * 
+	 * @param board MinesweeperBoard the changed cells belong to
+	 */
+	public ChangeSet(MinesweeperBoard board) {
+		this.board = board;
+		cells = new CellList();
+		marked = new BitSet(board.numCells());
+		maxListed = Math.max(4096, board.numCells() / 32);
+	}
+	
+	/**
+	 * Records that the given cell changed, unless it has already been recorded.
+	 * 
+	 * @param cell int flat index of the changed cell
+	 */
+	void add(int cell) {
+		if (marked.get(cell)) {
+			return;
+		}
+		marked.set(cell);
+		count++;
+		if (dense) {
+			return;
+		}
+		if (cells.size() < maxListed) {
+			cells.add(cell);
+		} else {
+			dense = true;
+			cells = new CellList();
+		}
+	}
+	
+	/**
+	 * Removes every recorded cell so the ChangeSet can be reused for the next move. While the
+	 * set is listed only the marks of the listed cells are cleared, so this is proportional to 
+	 * the number of changes.
+	 */
+	void clear() {
+		if (dense) {
+			marked.clear();
+			dense = false;
+		} else {
+			for (int idx = 0; idx < cells.size(); idx++) {
+				marked.clear(cells.get(idx));
+			}
+			cells.clear();
+		}
+		count = 0;
+	}
+	
+	/**
+	 * Returns the board the changed cells belong to.
+	 * 
+	 * @return MinesweeperBoard whose cells changed
+	 */
+	public MinesweeperBoard getBoard() {
+		return board;
+	}
+	
+	/**
+	 * Passes the flat index of every changed cell to the given action: in the order the cells
+	 * were first changed, or in index order once the set is dense.
+	 * 
+	 * @param action IntConsumer called with each changed cell
+	 */
+	public void forEach(IntConsumer action) {
+		if (dense) {
+			for (int cell = marked.nextSetBit(0); cell >= 0; cell = marked.nextSetBit(cell + 1)) {
+				action.accept(cell);
+			}
+		} else {
+			for (int idx = 0; idx < cells.size(); idx++) {
+				action.accept(cells.get(idx));
+			}
+		}
+	}
+	
+	/**
+	 * Returns true if the given cell changed.
+	 * 
+	 * @param cell int flat index of the cell
+	 * @return boolean true if the cell is in this ChangeSet
+	 */
+	public boolean contains(int cell) {
+		return marked.get(cell);
+	}
+	
+	/**
+	 * Returns true if the changes are too many to list and are only held as a bit set. Callers
+	 * interested in a small area, such as a viewport, should then test its cells with contains.
+	 * 
+	 * @return boolean true if the ChangeSet is dense
+	 */
+	public boolean isDense() {
+		return dense;
+	}
+	
+	/**
+	 * Returns the number of changed cells.
+	 * 
+	 * @return int number of changed cells
+	 */
+	public int size() {
+		return count;
+	}
+	
+	/**
+	 * Returns true if no cells have changed.
+	 * 
+	 * @return boolean true if the ChangeSet is empty
+	 */
+	public boolean isEmpty() {
+		return count == 0;
+	}
+}
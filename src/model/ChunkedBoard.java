@@ -0,0 +1,434 @@
+package model;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * File: ChunkedBoard.java
+ * Assignment: Minesweeper
+ * Course: CSC 335; Spring 2021
+ *
+ * This class holds an endless Minesweeper board with no edges. Rows and columns may be any int,
+ * including negative ones, and the board is split into square chunks of CHUNK_SIZE x CHUNK_SIZE
+ * squares. Nothing is allocated for a chunk until a square in it or next to it is looked at.
+ *
+ * The mines of a chunk are never stored for good. They are a function of the board's seed and
+ * the chunk's coordinates, so the mine plane of a chunk (one long per row) is kept in a small
+ * least recently used cache and simply rebuilt when it is needed again after being evicted.
+ * The only state kept for every chunk is what the player has done there: a plane of revealed
+ * squares and a plane of flags, each created the first time a square in the chunk is revealed
+ * or flagged. Memory therefore grows with the explored area and not with any nominal board size.
+ *
+ * Every square on or touching (0, 0) is kept free of mines so the game can always be opened
+ * there.
+ *
+ * @author Caroline Hyland
+ * @author James O'Connell
+ * @author Nicholas Leluan
+ * @author Christian Trejo
+ */
+public class ChunkedBoard implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Number of rows and columns in every chunk. A chunk row is held in one long.
+	 */
+	public static final int CHUNK_SIZE = 64;
+
+	/**
+	 * Default number of chunk mine planes kept in the cache.
+	 */
+	public static final int DEFAULT_CACHED_CHUNKS = 1024;
+
+	/**
+	 * Log base 2 of CHUNK_SIZE, used to find the chunk a square belongs to.
+	 */
+	private static final int CHUNK_SHIFT = 6;
+
+	/**
+	 * Mask selecting the position of a square within its chunk.
+	 */
+	private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+	/**
+	 * Seed every chunk's mines are derived from.
+	 */
+	private final long seed;
+
+	/**
+	 * Fraction of the squares of each chunk that hold a mine.
+	 */
+	private final double density;
+
+	/**
+	 * Number of mines placed in each chunk before the squares around (0, 0) are cleared.
+	 */
+	private final int minesPerChunk;
+
+	/**
+	 * Largest number of chunk mine planes kept in the cache.
+	 */
+	private final int cachedChunks;
+
+	/**
+	 * Player state of every chunk that has had a square revealed or flagged, keyed by chunkKey.
+	 */
+	private final HashMap<Long, ChunkState> states = new HashMap<>();
+
+	/**
+	 * Least recently used cache of chunk mine planes, keyed by chunkKey. Evicted planes are
+	 * rebuilt from the seed, so the cache is not saved.
+	 */
+	private transient LinkedHashMap<Long, long[]> mineCache;
+
+	/**
+	 * Key and mine plane of the chunk looked up last, which skips the cache for runs of
+	 * lookups in the same chunk.
+	 */
+	private transient long lastKey;
+	private transient long[] lastMines;
+
+	/**
+	 * Number of squares revealed so far.
+	 */
+	private long visibleCount;
+
+	/**
+	 * Number of flags placed on the board.
+	 */
+	private long flagCount;
+
+	/**
+	 * Number of mines revealed so far.
+	 */
+	private long visibleMineCount;
+
+	/**
+	 * Holds the revealed and flagged squares of one chunk, one long per chunk row. The flag
+	 * plane is only created when the first flag is placed in the chunk.
+	 */
+	private static class ChunkState implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private final long[] visible = new long[CHUNK_SIZE];
+		private long[] flags;
+	}
+
+	/**
+	 * Constructs a new endless board with the given seed and mine density, caching up to
+	 * DEFAULT_CACHED_CHUNKS chunk mine planes.
+	 *
+	 * @param seed long seed every chunk's mines are derived from
+	 * @param density double fraction of the squares that hold a mine, at least 0 and below 1
+	 * @throws IllegalArgumentException if the density is outside [0, 1)
+	 */
+	public ChunkedBoard(long seed, double density) {
+		this(seed, density, DEFAULT_CACHED_CHUNKS);
+	}
+
+	/**
+	 * Constructs a new endless board with the given seed and mine density, caching up to the
+	 * given number of chunk mine planes.
+	 *
+	 * @param seed long seed every chunk's mines are derived from
+	 * @param density double fraction of the squares that hold a mine, at least 0 and below 1
+	 * @param cachedChunks int largest number of chunk mine planes kept in memory, at least 9 so
+	 *        a square and all of its neighbors always fit
+	 * @throws IllegalArgumentException if the density is outside [0, 1) or cachedChunks is below 9
+	 */
+	public ChunkedBoard(long seed, double density, int cachedChunks) {
+		if (!(density >= 0 && density < 1)) {
+			throw new IllegalArgumentException("Mine density must be in [0, 1): " + density);
+		}
+		if (cachedChunks < 9) {
+			throw new IllegalArgumentException("At least 9 chunks must be cached: " + cachedChunks);
+		}
+		this.seed = seed;
+		this.density = density;
+		this.minesPerChunk = (int) Math.round(density * CHUNK_SIZE * CHUNK_SIZE);
+		this.cachedChunks = cachedChunks;
+		initCache();
+	}
+
+	/**
+	 * Creates the empty mine plane cache, evicting the least recently used plane once more
+	 * than cachedChunks are held.
+	 */
+	private void initCache() {
+		mineCache = new LinkedHashMap<Long, long[]>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, long[]> eldest) {
+				return size() > cachedChunks;
+			}
+		};
+		lastMines = null;
+	}
+
+	/**
+	 * Restores a saved board, starting with an empty mine plane cache.
+	 *
+	 * @param in ObjectInputStream the board is read from
+	 * @throws IOException if the stream cannot be read
+	 * @throws ClassNotFoundException if a saved class cannot be found
+	 */
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		initCache();
+	}
+
+	/**
+	 * Returns the key of the chunk holding the given square.
+	 *
+	 * @param row int row coordinate of the square
+	 * @param col int column coordinate of the square
+	 * @return long key of the chunk, its chunk row in the high word and chunk column in the low word
+	 */
+	private static long chunkKey(int row, int col) {
+		return ((long) (row >> CHUNK_SHIFT) << 32) | ((col >> CHUNK_SHIFT) & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Returns the mine plane of the chunk with the given key, building it from the seed if it
+	 * is not cached.
+	 *
+	 * @param key long key of the chunk
+	 * @return long[] one long per chunk row, bit c set if column c of the row holds a mine
+	 */
+	private long[] mines(long key) {
+		if (lastMines != null && key == lastKey) {
+			return lastMines;
+		}
+		long[] plane = mineCache.get(key);
+		if (plane == null) {
+			plane = buildMines((int) (key >> 32), (int) key);
+			mineCache.put(key, plane);
+		}
+		lastKey = key;
+		lastMines = plane;
+		return plane;
+	}
+
+	/**
+	 * Builds the mine plane of a chunk. Exactly minesPerChunk squares are chosen by selection
+	 * sampling with a generator seeded from a hash of the board's seed and the chunk coordinates,
+	 * after which any mines on or touching (0, 0) are removed.
+	 *
+	 * @param chunkRow int chunk row coordinate
+	 * @param chunkCol int chunk column coordinate
+	 * @return long[] mine plane of the chunk
+	 */
+	private long[] buildMines(int chunkRow, int chunkCol) {
+		long[] plane = new long[CHUNK_SIZE];
+		SeededRandom random = new SeededRandom(chunkSeed(chunkRow, chunkCol));
+		int remainingSquares = CHUNK_SIZE * CHUNK_SIZE;
+		int remainingMines = minesPerChunk;
+		for (int square = 0; square < CHUNK_SIZE * CHUNK_SIZE && remainingMines > 0; square++) {
+			if (random.nextInt(remainingSquares) < remainingMines) {
+				plane[square >>> CHUNK_SHIFT] |= 1L << (square & CHUNK_MASK);
+				remainingMines--;
+			}
+			remainingSquares--;
+		}
+		int rowBase = chunkRow << CHUNK_SHIFT;
+		int colBase = chunkCol << CHUNK_SHIFT;
+		for (int row = -1; row <= 1; row++) {
+			for (int col = -1; col <= 1; col++) {
+				if (chunkKey(row, col) == chunkKey(rowBase, colBase)) {
+					plane[row & CHUNK_MASK] &= ~(1L << (col & CHUNK_MASK));
+				}
+			}
+		}
+		return plane;
+	}
+
+	/**
+	 * Mixes the board's seed with a chunk's coordinates into the seed of that chunk's
+	 * generator, using the SplitMix64 finalizer so neighboring chunks get unrelated streams.
+	 *
+	 * @param chunkRow int chunk row coordinate
+	 * @param chunkCol int chunk column coordinate
+	 * @return long seed of the chunk's generator
+	 */
+	private long chunkSeed(int chunkRow, int chunkCol) {
+		return SeededRandom.mix(seed + 0x9E3779B97F4A7C15L * (((long) chunkRow << 32) ^ (chunkCol & 0xFFFFFFFFL)));
+	}
+
+	/**
+	 * Purpose: Returns true if the given square holds a mine.
+	 *
+	 * @param row int row coordinate of the square
+	 * @param col int column coordinate of the square
+	 * @return boolean true if the square holds a mine
+	 */
+	public boolean isMine(int row, int col) {
+		return (mines(chunkKey(row, col))[row & CHUNK_MASK] >>> (col & CHUNK_MASK) & 1L) != 0;
+	}
+
+	/**
+	 * Purpose: Returns the value of the given square: MINE if it holds a mine, otherwise the
+	 * number of mines in the 8 squares around it.
+	 *
+	 * @param row int row coordinate of the square
+	 * @param col int column coordinate of the square
+	 * @return int value of the square
+	 */
+	public int getVal(int row, int col) {
+		if (isMine(row, col)) {
+			return MinesweeperBoard.MINE;
+		}
+		int count = 0;
+		for (int dRow = -1; dRow <= 1; dRow++) {
+			for (int dCol = -1; dCol <= 1; dCol++) {
+				if ((dRow != 0 || dCol != 0) && isMine(row + dRow, col + dCol)) {
+					count++;
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Purpose: Returns the visibility of the given square: VISIBLE, FLAG or INVISIBLE.
+	 *
+	 * @param row int row coordinate of the square
+	 * @param col int column coordinate of the square
+	 * @return int visibility of the square
+	 */
+	public int getVisible(int row, int col) {
+		ChunkState state = states.get(chunkKey(row, col));
+		if (state == null) {
+			return MinesweeperBoard.INVISIBLE;
+		}
+		long bit = 1L << (col & CHUNK_MASK);
+		if ((state.visible[row & CHUNK_MASK] & bit) != 0) {
+			return MinesweeperBoard.VISIBLE;
+		}
+		if (state.flags != null && (state.flags[row & CHUNK_MASK] & bit) != 0) {
+			return MinesweeperBoard.FLAG;
+		}
+		return MinesweeperBoard.INVISIBLE;
+	}
+
+	/**
+	 * Purpose: Sets the visibility of the given square to VISIBLE, FLAG or INVISIBLE, keeping
+	 * the running counts up to date.
+	 *
+	 * @param row int row coordinate of the square
+	 * @param col int column coordinate of the square
+	 * @param visibility int new visibility of the square
+	 * @throws IllegalArgumentException if the visibility is not VISIBLE, FLAG or INVISIBLE
+	 */
+	public void putVisible(int row, int col, int visibility) {
+		if (visibility != MinesweeperBoard.VISIBLE && visibility != MinesweeperBoard.FLAG
+				&& visibility != MinesweeperBoard.INVISIBLE) {
+			throw new IllegalArgumentException("Invalid visibility for an endless board: " + visibility);
+		}
+		int old = getVisible(row, col);
+		if (old == visibility) {
+			return;
+		}
+		long key = chunkKey(row, col);
+		ChunkState state = states.get(key);
+		if (state == null) {
+			state = new ChunkState();
+			states.put(key, state);
+		}
+		int r = row & CHUNK_MASK;
+		long bit = 1L << (col & CHUNK_MASK);
+		if (old == MinesweeperBoard.VISIBLE) {
+			state.visible[r] &= ~bit;
+			visibleCount--;
+			if (isMine(row, col)) {
+				visibleMineCount--;
+			}
+		} else if (old == MinesweeperBoard.FLAG) {
+			state.flags[r] &= ~bit;
+			flagCount--;
+		}
+		if (visibility == MinesweeperBoard.VISIBLE) {
+			state.visible[r] |= bit;
+			visibleCount++;
+			if (isMine(row, col)) {
+				visibleMineCount++;
+			}
+		} else if (visibility == MinesweeperBoard.FLAG) {
+			if (state.flags == null) {
+				state.flags = new long[CHUNK_SIZE];
+			}
+			state.flags[r] |= bit;
+			flagCount++;
+		}
+	}
+
+	/**
+	 * Purpose: Returns the seed every chunk's mines are derived from.
+	 *
+	 * @return long seed of the board
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Purpose: Returns the fraction of the squares that hold a mine.
+	 *
+	 * @return double mine density of the board
+	 */
+	public double getDensity() {
+		return density;
+	}
+
+	/**
+	 * Purpose: Returns the number of squares revealed so far.
+	 *
+	 * @return long number of visible squares
+	 */
+	public long numVisible() {
+		return visibleCount;
+	}
+
+	/**
+	 * Purpose: Returns the number of mines revealed so far.
+	 *
+	 * @return long number of visible mines
+	 */
+	public long numVisibleMines() {
+		return visibleMineCount;
+	}
+
+	/**
+	 * Purpose: Returns the number of flags on the board.
+	 *
+	 * @return long number of flags
+	 */
+	public long numFlags() {
+		return flagCount;
+	}
+
+	/**
+	 * Purpose: Returns the number of chunks that have player state, which is the explored area
+	 * in chunks.
+	 *
+	 * @return int number of explored chunks
+	 */
+	public int numExploredChunks() {
+		return states.size();
+	}
+
+	/**
+	 * Purpose: Returns the number of chunk mine planes currently held in the cache.
+	 *
+	 * @return int number of cached chunks
+	 */
+	public int numCachedChunks() {
+		return mineCache.size();
+	}
+}
@@ -1,9 +1,19 @@
 package model;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.util.AbstractSet;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntConsumer;
+
+import metrics.EngineMetrics;
 import orderedpair.OrderedPair;
 
 /**
@@ -12,16 +22,23 @@ import orderedpair.OrderedPair;
  * Course: CSC 335; Spring 2021
  * 
  * This class holds all the logic about the current state of a playable Minesweeper game board. 
- * Two key features of this class are the two int[][] 2-Dimensional arrays that store the current 
- * state and values that make up a game board. The visibility board represents what is currently 
- * visible to the user in the view, the value board stores what is found at the given location which 
- * is either a mine, mine proximity indicator or blank space. 
+ * The key feature of this class is a CellStore which keeps the current state and value of every location, 
+ * addressed by the flat index row*cols+col. By default this is a flat byte array packing each location 
+ * into a single byte; a bitboard store holding one bit plane per property can be chosen instead. The 
+ * visibility represents what is currently visible to the user in the view (or that the location does 
+ * not exist in the board's shape), the value stores what is found at the given location which is either 
+ * a mine, mine proximity indicator or blank space. The mine and DNE locations are exposed as Set views 
+ * over the store rather than being stored separately. 
  * 
  * This class is serializble so it can be saved in the event that the user of the game does not
  * complete a game that has been started. Because this class is one of only 2 classes that are 
  * serializable, a few details about a current game are saved here from the view in ordered to be 
  * saved and reinitialized in the event a user wants to continue a game.
  * 
+ * Mines are placed from a 64-bit seed, so a generated board is saved as its seed, first click 
+ * and which squares are revealed or flagged, and its values are regenerated when it is read 
+ * back. Only boards whose mines were placed some other way save every value.
+ * 
  * @author Caroline Hyland
  * @author James O'Connell
  * @author Nicholas Leluan
@@ -32,56 +49,122 @@ public class MinesweeperBoard implements Serializable {
 	/**
 	 * Default serials version ID.
 	 */
-	private static final long serialVersionUID = 1L;
+	private static final long serialVersionUID = 3L;
 	
 	/**
-	 * Visible locations will have value = 1 in visibleBoard.
+	 * Visible locations will have visibility = 1.
 	 */
 	public static final int VISIBLE = 1;
 	
 	/**
-	 * Invisible locations will have value = 0 in visibleBoard.
+	 * Invisible locations will have visibility = 0.
 	 */
 	public static final int INVISIBLE = 0;
 	
 	/**
-	 * Locations with mines will have a value = -1 in valBoard.
+	 * Locations with mines will have a value = -1.
 	 */
 	public static final int MINE = -1;
 	
 	/**
-	 * Locations with flags will have a value = -2 in visibleBoard.
+	 * Locations with flags will have a visibility = -2.
 	 */
 	public static final int FLAG = -2;
 	
 	/**
-	 * Locations that do not exist (DNE) will have a value = -3 in visibleBoard.
+	 * Locations that do not exist (DNE) will have a visibility = -3.
 	 */
 	public static final int DNE = -3;
 	
 	/**
-	 * 2D array representing the current status of the board populated by 
-	 * values in range [-1,8] inclusive representing how many mines a location 
-	 * is touching or -1 if the location is a mine. 
+	 * Visibility codes 0 to 3 of the cell store, decoded to the public visibility constants.
+	 */
+	private static final int[] VIS_DECODE = {INVISIBLE, VISIBLE, FLAG, DNE};
+	
+	/**
+	 * Storage backends a board can be built on.
+	 */
+	public enum Storage {
+		/**
+		 * One byte per cell holding the value and visibility of the cell.
+		 */
+		PACKED,
+		/**
+		 * Bit planes for mines, revealed cells, flags and DNE cells, processed 64 cells at a time.
+		 */
+		BITBOARD
+	}
+	
+	/**
+	 * Storage holding the value and visibility of every location, indexed by row*cols+col.
+	 * It is written by writeObject, in full only if the board cannot be regenerated.
+	 */
+	private transient CellStore store;
+	
+	/**
+	 * Storage backend the board was built on.
+	 */
+	private Storage storage;
+	
+	/**
+	 * Seed the mines are placed from when the game starts.
+	 */
+	private long seed;
+	
+	/**
+	 * Row and column of the first click the mines were placed around, or -1 before then.
+	 */
+	private int firstRow;
+	private int firstCol;
+	
+	/**
+	 * True if the mines were placed from seed around the first click, so the values of 
+	 * the board can be regenerated rather than saved.
+	 */
+	private boolean seeded;
+	
+	/**
+	 * True if the mines were laid out from seed before the first click, and are still to be 
+	 * moved off it when it is played.
+	 */
+	private boolean laidOut;
+	
+	/**
+	 * True for a board played by the engine itself, such as a no-guess candidate, whose 
+	 * generation and moves are not recorded in EngineMetrics or reported to Flight Recorder.
+	 */
+	private transient boolean scratch;
+	
+	/**
+	 * The number of locations on the board currently visible to the player.
 	 */
-	protected int[][] valBoard;
+	private int visibleCount;
 	
 	/**
-	 * 2D array representing the current status of the board populated by 
-	 * 0 for invisible, 1 for visible, and -2 for flag.
+	 * The number of locations on the board that contain a mine.
 	 */
-	private int[][] visibleBoard;
+	private int mineCount;
 	
 	/**
-	 * HashSet containing OrderedPair objects for all coordinates on the grid
-	 * visible to the player.
+	 * The number of visible locations on the board that contain a mine. Together with 
+	 * the other counts this gives the number of safe locations still hidden in O(1).
 	 */
-	protected HashSet<OrderedPair> visibles;
+	private int visibleMineCount;
 	
 	/**
-	 * A set of all the "Does Not Exist" Ordered Pair locations on the board.
+	 * The number of locations on the board that do not exist (DNE) for its shape.
 	 */
-	private HashSet<OrderedPair> dnes;
+	private int dneCount;
+	
+	/**
+	 * Set view of the mine locations, created on first use.
+	 */
+	private transient CellSet mineView;
+	
+	/**
+	 * Set view of the DNE locations, created on first use.
+	 */
+	private transient CellSet dneView;
 	
 	/**
 	 * The number of rows in the current board. 
@@ -94,19 +177,19 @@ public class MinesweeperBoard implements Serializable {
 	private int cols;
 	
 	/**
-	 * HashSet containing OrderedPair objects for all coordinates on the grid
-	 * containing mines.
+	 * Flat index offsets of the eight neighbor directions, in the order above-left, above, 
+	 * above-right, left, right, below-left, below, below-right.
 	 */
-	private HashSet<OrderedPair> mineLocs;
+	private transient int[] neighborDeltas;
 	
 	/**
-	 * HashMap that contains an adjacency list for each coordinate
-	 * in the grid. Each key has a list of all neighboring positions on the grid.
+	 * Openings of the board as generated, or null if it was not generated or is too large 
+	 * to index; rebuilt rather than saved.
 	 */
-	private HashMap<OrderedPair, ArrayList<OrderedPair>> adjacencies;
+	private transient OpeningIndex openings;
 
     /**
-	 * Flag to determine if mines and proximity locations have been placed on the valBoard.
+	 * Flag to determine if mines and proximity locations have been placed on the board.
 	 */
 	protected boolean initialized;
 
@@ -136,7 +219,7 @@ public class MinesweeperBoard implements Serializable {
 	private int flags;
     
 	/**
-	 * Constructs a new instance of MinsweeperBoard.
+	 * Constructs a new instance of MinsweeperBoard using packed storage.
 	 * 
 	 * @param N The number of rows in the board. 
 	 * @param M The number of columns in the board.
@@ -144,19 +227,45 @@ public class MinesweeperBoard implements Serializable {
 	 * @param shape The shape of the board to build. 
 	 */
 	public MinesweeperBoard(int N, int M, String level, String shape) {
-		valBoard = new int[N][M];
-		visibleBoard = new int[N][M];
-		visibles = new HashSet<OrderedPair>();
-		dnes = new HashSet<OrderedPair>();
-		mineLocs = new HashSet<OrderedPair>();
+		this(N, M, level, shape, Storage.PACKED);
+	}
+	
+	/**
+	 * Constructs a new instance of MinsweeperBoard on the given storage backend. 
+	 * 
+	 * Both backends behave the same through every method of this class; the bitboard 
+	 * backend computes proximity values 64 cells at a time, which makes generating large 
+	 * boards faster.
+	 * 
+	 * @param N The number of rows in the board. 
+	 * @param M The number of columns in the board.
+	 * @param level The difficulty of the board. 
+	 * @param shape The shape of the board to build. 
+	 * @param storage The storage backend to keep the cells in.
+	 */
+	public MinesweeperBoard(int N, int M, String level, String shape, Storage storage) {
+		this.storage = storage;
 		rows = N;
 		cols = M;
         initialized = false;
         score = 0;
         difficulty = level;
-        
+        seed = ThreadLocalRandom.current().nextLong();
+        firstRow = -1;
+        firstCol = -1;
 
         this.shape = shape.toLowerCase();
+        setUpShape();
+        
+        buildNeighborIndex();
+        flags = mineCount;
+	} 
+	
+	/**
+	 * Creates an empty cell store and marks the locations outside the board's shape as DNE.
+	 */
+	private void setUpShape() {
+		store = storage == Storage.BITBOARD ? new BitboardCellStore(rows, cols) : new PackedCellStore(rows, cols);
         if((this.shape).equals("triangle")){
         	setUpTriangle();
         } else if ((this.shape).equals("cross")){
@@ -164,13 +273,10 @@ public class MinesweeperBoard implements Serializable {
         } else if (shape.equals("diamond")) {
         	setUpDiamond();
         }
-        
-        adjacencies = makeAdjacencyList();
-        flags = mineLocs.size();
-	} 
+	}
 
 	/**
-	 * Sets location [row][col] in the visibleBoard to DNE (does not exist).
+	 * Sets location [row][col] on the board to DNE (does not exist).
 	 * 
 	 * This method is used to create custom shapes with boundaries.
 	 * 
@@ -178,72 +284,283 @@ public class MinesweeperBoard implements Serializable {
 	 * @param col The column coordinate of location to set to DNE.
 	 */
 	private void makeDNE(int row, int col) {
-		dnes.add(new OrderedPair(row, col));
-		visibleBoard[row][col] = MinesweeperBoard.DNE;
+		putVisible(cellIndex(row, col), MinesweeperBoard.DNE);
 	}
 	
 	
 	/**
-	 * Creates a HashMap where each location is mapped to a list of its 
-	 * adjacent locations.  
-	 * 
-	 * @return HashMap of adjacency lists. 
+	 * Builds the flat index offset of each of the eight neighbor directions.
 	 */ 
-	private HashMap<OrderedPair, ArrayList<OrderedPair>> makeAdjacencyList() {
-		HashMap<OrderedPair, ArrayList<OrderedPair>> adjacencyList = new HashMap<OrderedPair, ArrayList<OrderedPair>>();
-		for (int row = 0; row < rows; row++) {
-			for (int col = 0; col < cols; col++) {
-				//skip dne squares
-				if (dnes.contains(new OrderedPair(row,col))) {
-					continue;
-				}
-				 
-				//process adjacencies
-				ArrayList<OrderedPair> currAdjacencies = new ArrayList<OrderedPair>();
-				//add adjacencies in row above current row
-				if (row-1 >= 0) {
-					if (col-1 >= 0) {
-						processSquare(currAdjacencies, new OrderedPair(row-1, col-1));
-					}
-					processSquare(currAdjacencies, new OrderedPair(row-1, col));
-					if (col+1 < cols) {
-						processSquare(currAdjacencies, new OrderedPair(row-1, col+1));
-					}
-				}
-				//add adjacencies in current row
-				if (col-1 >= 0) {
-					processSquare(currAdjacencies, new OrderedPair(row, col-1));
-				}
-				if (col+1 < cols) {
-					processSquare(currAdjacencies, new OrderedPair(row, col+1));
-				}
-				//add adjacencies in row below current row
-				if (row+1 < rows) {
-					if (col-1 >= 0) {
-						processSquare(currAdjacencies, new OrderedPair(row+1, col-1));
-					}
-					processSquare(currAdjacencies, new OrderedPair(row+1, col));
-					if (col+1 < cols) {
-						processSquare(currAdjacencies, new OrderedPair(row+1, col+1));
-					}
+	private void buildNeighborIndex() {
+		neighborDeltas = new int[] {-cols-1, -cols, -cols+1, -1, 1, cols-1, cols, cols+1};
+	}
+	
+	/**
+	 * Returns a bit mask of the neighbors of a location that are on the board and not DNE: 
+	 * bit i is set when the neighbor in direction i (see neighborDeltas) exists. The mask is 
+	 * worked out from the location's row and column on every call rather than stored, which 
+	 * saves a byte per location; DNE neighbors are only looked up on shaped boards.
+	 * 
+	 * @param cell int flat index of the location
+	 * @return int neighbor mask of the location, 0 for a DNE location
+	 */
+	private int neighborMask(int cell) {
+		int row = cell / cols;
+		int col = cell - row * cols;
+		int mask = 0xFF;
+		if (row == 0) {
+			mask &= ~0b00000111; //no row above
+		}
+		if (row == rows - 1) {
+			mask &= ~0b11100000; //no row below
+		}
+		if (col == 0) {
+			mask &= ~0b00101001; //no column to the left
+		}
+		if (col == cols - 1) {
+			mask &= ~0b10010100; //no column to the right
+		}
+		if (dneCount != 0) {
+			if (isDNE(cell)) {
+				return 0;
+			}
+			for (int bits = mask; bits != 0; bits &= bits - 1) {
+				int dir = Integer.numberOfTrailingZeros(bits);
+				if (isDNE(cell + neighborDeltas[dir])) {
+					mask &= ~(1 << dir);
 				}
-				adjacencyList.put(new OrderedPair(row, col), currAdjacencies);
 			}
 		}
-		return adjacencyList;
+		return mask;
 	}
-
+	
+	/**
+	 * Returns true if the values of this board can be rebuilt from its shape, seed and first 
+	 * click instead of being saved: either the first click has not been played, so the mines 
+	 * are not placed or only laid out from the seed, or they were placed from the seed.
+	 * 
+	 * @return boolean true if the board can be regenerated
+	 */
+	private boolean isRegenerable() {
+		return !initialized || seeded;
+	}
+	
+	/**
+	 * Saves the board. A board that can be regenerated saves its fields and two bit sets 
+	 * marking the revealed and flagged locations; any other board also saves its cell store.
+	 * The time taken is recorded in EngineMetrics.SAVE_NANOS.
+	 * 
+	 * @param out ObjectOutputStream the board is being written to
+	 * @throws IOException if the board cannot be written
+	 */
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		long start = System.nanoTime();
+		try {
+			writeCells(out);
+		} finally {
+			EngineMetrics.SAVE_NANOS.recordSince(start);
+		}
+	}
+	
+	/**
+	 * Writes the fields of the board, then either the bit sets of revealed and flagged 
+	 * locations of a regenerable board or the whole cell store of any other board.
+	 * 
+	 * @param out ObjectOutputStream the board is being written to
+	 * @throws IOException if the board cannot be written
+	 */
+	private void writeCells(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		if (!isRegenerable()) {
+			out.writeObject(store);
+			return;
+		}
+		BitSet visible = new BitSet();
+		BitSet flagged = new BitSet();
+		for (int cell = 0; cell < numCells(); cell++) {
+			int code = store.getVisibility(cell);
+			if (code == CellStore.VIS_VISIBLE) {
+				visible.set(cell);
+			} else if (code == CellStore.VIS_FLAG) {
+				flagged.set(cell);
+			}
+		}
+		out.writeObject(visible);
+		out.writeObject(flagged);
+	}
+	
+	/**
+	 * Restores a serialized board and rebuilds its neighbor offsets, which are not saved. A 
+	 * regenerable board is rebuilt from its shape, seed and first click, or laid out again if 
+	 * it was laid out before its first click, after which the saved revealed and flagged 
+	 * locations are applied; the running counts are recomputed along the way. The time taken 
+	 * is recorded in EngineMetrics.LOAD_NANOS.
+	 * 
+	 * @param in ObjectInputStream the board is being read from
+	 * @throws IOException if the board cannot be read
+	 * @throws ClassNotFoundException if a class of the saved board cannot be found
+	 */
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		long start = System.nanoTime();
+		try {
+			readCells(in);
+		} finally {
+			EngineMetrics.LOAD_NANOS.recordSince(start);
+		}
+	}
+	
+	/**
+	 * Reads the fields and cells of a board written by writeCells, regenerating a 
+	 * regenerable board from its seed.
+	 * 
+	 * @param in ObjectInputStream the board is being read from
+	 * @throws IOException if the board cannot be read
+	 * @throws ClassNotFoundException if a class of the saved board cannot be found
+	 */
+	private void readCells(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		if (!isRegenerable()) {
+			store = (CellStore) in.readObject();
+			buildNeighborIndex();
+			return;
+		}
+		BitSet visible = (BitSet) in.readObject();
+		BitSet flagged = (BitSet) in.readObject();
+		int mines = mineCount;
+		visibleCount = 0;
+		mineCount = 0;
+		visibleMineCount = 0;
+		dneCount = 0;
+		setUpShape();
+		buildNeighborIndex();
+		if (initialized) {
+			BoardGenerator.generate(this, mines, firstRow, firstCol, seed);
+		} else if (laidOut) {
+			BoardGenerator.layOut(this, mines, seed);
+		}
+		for (int cell = visible.nextSetBit(0); cell >= 0; cell = visible.nextSetBit(cell + 1)) {
+			putVisible(cell, VISIBLE);
+		}
+		for (int cell = flagged.nextSetBit(0); cell >= 0; cell = flagged.nextSetBit(cell + 1)) {
+			putVisible(cell, FLAG);
+		}
+	}
+	
+	/**
+	 * Returns the seed the mines of this board are placed from.
+	 * 
+	 * @return long seed of the board
+	 */
+	public long getSeed() {
+		return seed;
+	}
+	
+	/**
+	 * Sets the seed the mines of this board will be placed from, so that a game can be 
+	 * replayed or a benchmark run on the same board every time. A layout made from another 
+	 * seed is dropped.
+	 * 
+	 * @param seed long seed of the board
+	 * @throws IllegalStateException if the mines have already been placed
+	 */
+	public void setSeed(long seed) {
+		if (initialized) {
+			throw new IllegalStateException("The mines of this board have already been placed.");
+		}
+		if (laidOut && seed != this.seed) {
+			BoardGenerator.clearLayout(this);
+		}
+		this.seed = seed;
+	}
+	
+	/**
+	 * Lays the given number of mines out from the seed before the first click, over every 
+	 * existing square. When the first click is played with the same number of mines, only the 
+	 * mines on or touching it are moved and the values around them updated, so the click does 
+	 * not wait for the whole board to be generated. The board it leads to is the same as 
+	 * without a layout.
+	 * 
+	 * @param mineCount int number of mines to lay out
+	 * @throws IllegalStateException if the mines have already been placed
+	 * @throws IllegalArgumentException if the mines cannot all be placed around every possible 
+	 * first click, see maxMines()
+	 */
+	public void layOutMines(int mineCount) {
+		if (initialized) {
+			throw new IllegalStateException("The mines of this board have already been placed.");
+		}
+		if (mineCount < 0 || mineCount > maxMines()) {
+			throw new IllegalArgumentException("Cannot place " + mineCount + " mines on this board; "
+					+ "at most " + maxMines() + " fit outside any first click.");
+		}
+		BoardGenerator.layOut(this, mineCount, seed);
+	}
+	
+	/**
+	 * Returns true if the mines were laid out before the first click by layOutMines and 
+	 * have not been moved off it yet.
+	 * 
+	 * @return boolean true if the board is laid out
+	 */
+	public boolean isLaidOut() {
+		return laidOut;
+	}
+	
+	/**
+	 * Marks the board as a scratch board, played by the engine itself rather than a player, 
+	 * so that its generation, moves and dispatches are not recorded. A scratch board is not 
+	 * kept as one when saved.
+	 * 
+	 * @param scratch boolean true if the board's work should not be recorded
+	 */
+	public void setScratch(boolean scratch) {
+		this.scratch = scratch;
+	}
+	
+	/**
+	 * Returns true if the board is a scratch board whose work is not recorded.
+	 * 
+	 * @return boolean true if the board is a scratch board
+	 */
+	public boolean isScratch() {
+		return scratch;
+	}
+	
+	/**
+	 * Records whether the mines were just laid out from the seed, or the layout was dropped.
+	 * 
+	 * @param laidOut boolean true if the mines are laid out
+	 */
+	void recordLayout(boolean laidOut) {
+		this.laidOut = laidOut;
+	}
+	
 	/**
-	 * Private helper method which adds the given position to the adjacency
-	 * list provided if the square exists.
+	 * Returns the recipe this board was generated from, which rebuilds the same board.
 	 * 
-	 * @param currAdjacencies The adjacency list to add the position if conditions are met. 
-	 * @param position The position to add to the adjacency list. 
+	 * @return BoardSpec of the board
+	 * @throws IllegalStateException if the mines were not placed from the seed
 	 */
-    private void processSquare(ArrayList<OrderedPair> currAdjacencies, OrderedPair position) {
-		if (!dnes.contains(position)) {
-			currAdjacencies.add(position);
+	public BoardSpec getSpec() {
+		if (!seeded) {
+			throw new IllegalStateException("The mines of this board were not placed from a seed.");
 		}
+		return new BoardSpec(rows, cols, difficulty, shape, mineCount, seed, firstRow, firstCol);
+	}
+	
+	/**
+	 * Records that the mines were just placed from the given seed around the given first click.
+	 * 
+	 * @param seed long seed the mines were placed from
+	 * @param row int row of the first click
+	 * @param col int column of the first click
+	 */
+	void recordGeneration(long seed, int row, int col) {
+		this.seed = seed;
+		this.firstRow = row;
+		this.firstCol = col;
+		this.seeded = true;
+		this.laidOut = false;
 	}
 
 	/**
@@ -337,22 +654,58 @@ public class MinesweeperBoard implements Serializable {
     /**
      * Sets the initialized field to the given boolean value. 
      * 
+     * The board is no longer treated as generated from its seed until the generator 
+     * records that it placed the mines, so boards set up by hand save all their values.
+     * 
      * @param init boolean value to set initialized to.
      */
     public void setInit(boolean init) {
         this.initialized = init;
+        this.seeded = false;
     }
 
+	/**
+	 * Method that returns the flat cell index of the (row, col) location. Cells are 
+	 * stored row by row, so the index is row*cols+col.
+	 * 
+	 * @param row int row of position being considered
+	 * @param col int column of position being considered
+	 * @return int flat index of the (row, col) location
+	 */
+	public int cellIndex(int row, int col) {
+		return row * cols + col;
+	}
+	
+	/**
+	 * Method that returns the total number of cells (rows*cols) in the board, including
+	 * DNE locations.
+	 * 
+	 * @return int number of cells in the board
+	 */
+	public int numCells() {
+		return rows * cols;
+	}
+	
 	/**
 	 * Method that returns the value stored at the specified location in the 
 	 * MinesweeperBoard
 	 * 
 	 * @param row int row of position being considered
 	 * @param col int column of position being considered
-	 * @return int value current found at the (row, col) position of the valBoard
+	 * @return int value current found at the (row, col) position of the board
 	 */
 	public int getVal(int row, int col) {
-		return valBoard[row][col];
+		return getVal(cellIndex(row, col));
+	}
+	
+	/**
+	 * Method that returns the value stored at the given flat cell index.
+	 * 
+	 * @param cell int flat index of position being considered
+	 * @return int value in range [-1,8] found at the cell
+	 */
+	public int getVal(int cell) {
+		return store.getVal(cell);
 	}
 	
 	/**
@@ -363,7 +716,35 @@ public class MinesweeperBoard implements Serializable {
 	 * @param val int value to be placed in instance of Board
 	 */
 	public void putVal(int row, int col, int val) {
-		valBoard[row][col] = val;
+		putVal(cellIndex(row, col), val);
+	}
+	
+	/**
+	 * Method that puts the given value at the given flat cell index. The mine counts 
+	 * of the board are kept up to date as cells become or stop being mines, and the 
+	 * openings around the cell are marked as changed.
+	 * 
+	 * @param cell int flat index of position being considered
+	 * @param val int value in range [-1,8] to be placed at the cell
+	 */
+	public void putVal(int cell, int val) {
+		boolean wasMine = store.isMine(cell);
+		store.setVal(cell, val);
+		if (openings != null) {
+			openings.valueChanged(cell);
+		}
+		boolean visible = store.getVisibility(cell) == CellStore.VIS_VISIBLE;
+		if (val == MINE && !wasMine) {
+			mineCount++;
+			if (visible) {
+				visibleMineCount++;
+			}
+		} else if (val != MINE && wasMine) {
+			mineCount--;
+			if (visible) {
+				visibleMineCount--;
+			}
+		}
 	}
 	
 	/**
@@ -375,25 +756,78 @@ public class MinesweeperBoard implements Serializable {
 	 * @return int visibility status at the (row, col) position
 	 */
 	public int getVisible(int row, int col) {
-		return visibleBoard[row][col];
+		return getVisible(cellIndex(row, col));
+	}
+	
+	/**
+	 * Method that gets the current visibility status at the given flat cell index.
+	 * 
+	 * @param cell int flat index of position being considered
+	 * @return int visibility status of the cell
+	 */
+	public int getVisible(int cell) {
+		return VIS_DECODE[store.getVisibility(cell)];
 	}
 	
 	/**
 	 * Method that puts or updates the visibility status at the (row, col) position of the 
 	 * visible board
 	 * 
-	 * Method also creates and adds a new OrderedPair object into the visibles ArrayList
-	 * which stores all the locations on the board that has been revealed to the player
-	 * 
 	 * @param row int row of position being considered
 	 * @param col int column of position being considered
 	 * @param vis int new visibility status for the (row, col) position on the board
 	 */
 	public void putVisible(int row, int col, int vis) {
+		putVisible(cellIndex(row, col), vis);
+	}
+	
+	/**
+	 * Method that puts or updates the visibility status at the given flat cell index.
+	 * 
+	 * The counts of visible, visible mine and DNE locations are kept up to date as the 
+	 * status of the cell changes.
+	 * 
+	 * @param cell int flat index of position being considered
+	 * @param vis int new visibility status for the cell
+	 */
+	public void putVisible(int cell, int vis) {
+		int old = getVisible(cell);
+		int code;
+		switch (vis) {
+			case VISIBLE: code = CellStore.VIS_VISIBLE; break;
+			case FLAG:    code = CellStore.VIS_FLAG; break;
+			case DNE:     code = CellStore.VIS_DNE; break;
+			default:      code = CellStore.VIS_INVISIBLE; break;
+		}
+		store.setVisibility(cell, code);
+		boolean mine = store.isMine(cell);
+		if (old == VISIBLE) {
+			visibleCount--;
+			if (mine) {
+				visibleMineCount--;
+			}
+		} else if (old == DNE) {
+			dneCount--;
+		}
 		if (vis == VISIBLE) {
-			visibles.add(new OrderedPair(row, col));
+			visibleCount++;
+			if (mine) {
+				visibleMineCount++;
+			}
+		} else if (vis == DNE) {
+			dneCount++;
 		}
-		visibleBoard[row][col] = vis;
+	}
+	
+	/**
+	 * Method that returns true if the cell at the given flat index does not exist in
+	 * the shape of this board.
+	 * 
+	 * @param cell int flat index of position being considered
+	 * @return boolean true if the cell is a DNE location
+	 */
+	public boolean isDNE(int cell) {
+		return store.getVisibility(cell) == CellStore.VIS_DNE;
 	}
 	
 	/**
@@ -402,7 +836,27 @@ public class MinesweeperBoard implements Serializable {
 	 * @return int number of visible squares on the game board 
 	 */
 	public int numVisible() {
-		return visibles.size();
+		return visibleCount;
+	}
+	
+	/**
+	 * Method that returns the number of locations that exist, are not mines and are not
+	 * yet visible to the user. The game is won once this reaches zero.
+	 * 
+	 * @return int number of hidden safe squares on the game board
+	 */
+	public int numHiddenSafe() {
+		return numCells() - dneCount - mineCount - (visibleCount - visibleMineCount);
+	}
+	
+	/**
+	 * Method that returns the number of mines that are visible to the user, which is
+	 * only non-zero once a mine has been hit.
+	 * 
+	 * @return int number of visible mines on the game board
+	 */
+	public int numVisibleMines() {
+		return visibleMineCount;
 	}
 	
 	/**
@@ -435,39 +889,229 @@ public class MinesweeperBoard implements Serializable {
 	 * @param pair OrderedPair position of the new mine to be added
 	 */
 	public void addMine(OrderedPair pair) {
-		mineLocs.add(pair);
+		putVal(pair.getRow(), pair.getCol(), MINE);
+	}
+	
+	/**
+	 * Method that returns the number of mines currently placed on the board.
+	 * 
+	 * @return int number of mine locations
+	 */
+	public int numMines() {
+		return mineCount;
+	}
+	
+	/**
+	 * Sets every existing cell in the rows [fromRow, toRow) back to invisible.
+	 * 
+	 * Used when a new game is generated, before any cell has been revealed, so the running 
+	 * counts are left alone. Disjoint row ranges may be hidden from different threads.
+	 * 
+	 * @param fromRow int first row, inclusive
+	 * @param toRow int last row, exclusive
+	 */
+	void hideRows(int fromRow, int toRow) {
+		store.hideRows(fromRow, toRow);
+	}
+	
+	/**
+	 * Builds the opening index from the values just counted, unless the board has more 
+	 * than OpeningIndex.MAX_CELLS cells.
+	 */
+	void indexOpenings() {
+		openings = numCells() <= OpeningIndex.MAX_CELLS ? new OpeningIndex(this) : null;
+	}
+	
+	/**
+	 * Drops the opening index before the values are generated again.
+	 */
+	void dropOpenings() {
+		openings = null;
+	}
+	
+	/**
+	 * Returns the opening index of the board, or null if it has none.
+	 * 
+	 * @return OpeningIndex of the board, or null
+	 */
+	OpeningIndex getOpenings() {
+		return openings;
+	}
+	
+	/**
+	 * Places a mine on the given cell without updating the running mine count, so that 
+	 * different threads can place mines in disjoint rows of the board. The caller must 
+	 * report the mines it placed through addMineCount once it is done.
+	 * 
+	 * @param cell int flat index of a cell that is not yet a mine
+	 */
+	void placeMineUncounted(int cell) {
+		store.setVal(cell, MINE);
+	}
+	
+	/**
+	 * Adds mines placed through placeMineUncounted to the running mine count.
+	 * 
+	 * @param placed int number of mines that were placed
+	 */
+	void addMineCount(int placed) {
+		mineCount += placed;
+	}
+	
+	/**
+	 * For every cell in the rows [fromRow, toRow) that is not a mine or a DNE, counts 
+	 * how many neighboring cells are mines and saves that as the cell's value.
+	 * 
+	 * Only the values inside the range are written, while the rows just outside it are 
+	 * only read, so disjoint row ranges may be counted from different threads once every 
+	 * mine has been placed.
+	 * 
+	 * @param fromRow int first row, inclusive
+	 * @param toRow int last row, exclusive
+	 */
+	void countMines(int fromRow, int toRow) {
+		store.countMines(fromRow, toRow);
+	}
+	
+	/**
+	 * Method that returns the bytes the board keeps in its cells and opening index. Both 
+	 * storages take about a byte per cell, and an indexed board takes several more for 
+	 * its openings.
+	 * 
+	 * @return long approximate bytes held by the board
+	 */
+	public long numBytes() {
+		return (long) numCells() + (openings == null ? 0 : openings.numBytes());
+	}
+	
+	/**
+	 * Method that returns the largest number of mines that can be placed on this board 
+	 * whatever square is clicked first. No mine may touch the first click, so this is the 
+	 * number of existing squares minus the largest first-click safe zone (the square and 
+	 * its neighbors) on the board.
+	 * 
+	 * @return int largest mine count that can always be placed
+	 */
+	public int maxMines() {
+		if (dneCount == 0) {
+			//on a full rectangle the largest safe zone is a whole 3x3 block where one fits
+			return numCells() - Math.min(rows, 3) * Math.min(cols, 3);
+		}
+		int largestSafeZone = 0;
+		for (int cell = 0; cell < numCells(); cell++) {
+			if (!isDNE(cell)) {
+				largestSafeZone = Math.max(largestSafeZone, 1 + numNeighbors(cell));
+			}
+		}
+		return numCells() - dneCount - largestSafeZone;
+	}
+	
+	/**
+	 * Method that returns the number of DNE locations on the board.
+	 * 
+	 * @return int number of DNE locations
+	 */
+	public int numDNEs() {
+		return dneCount;
 	}
 	
 	/**
-	 * Method that return a HashSet containing OrderedPair locations for all the mines
+	 * Method that return a Set containing OrderedPair locations for all the mines
 	 * in this instance of MinesweeperBoard 
 	 * 
-	 * @return HashSet of OrderedPair objects for all mine locations
+	 * The set is a read-only view backed by the cell store, so it always 
+	 * reflects the current board.
+	 * 
+	 * @return Set of OrderedPair objects for all mine locations
 	 */
-	public HashSet<OrderedPair> getMineLocs(){
-		return mineLocs;
+	public Set<OrderedPair> getMineLocs(){
+		if (mineView == null) {
+			mineView = new CellSet(true);
+		}
+		return mineView;
 	}
 	
 	/**
-	 * Method that return a HashSet containing OrderedPair locations for all the DNE
+	 * Method that return a Set containing OrderedPair locations for all the DNE
 	 * locations in this instance of MinesweeperBoard 
 	 * 
-	 * @return HashSet of OrderedPair objects for all DNE locations
+	 * The set is a read-only view backed by the cell store, so it always 
+	 * reflects the current board.
+	 * 
+	 * @return Set of OrderedPair objects for all DNE locations
 	 */
-	public HashSet<OrderedPair> getDNEs(){
-		return dnes;
+	public Set<OrderedPair> getDNEs(){
+		if (dneView == null) {
+			dneView = new CellSet(false);
+		}
+		return dneView;
 	}
 
 	/**
 	 * Method that return an ArrayList containing OrderedPair locations for all the valid
 	 * grid spots bordering the given OrderedPair in this instance of MinesweeperBoard 
 	 * 
+	 * The list is built from the neighbor index on each call; hot paths should use 
+	 * forEachNeighbor or getNeighbors instead.
+	 * 
 	 * @param op OrderedPair representing the position whose adjacency list is being returned
 	 * @return ArrayList of OrderedPairs for valid grid positions bordering the given position
-	 * (adjacency list for the given position)
+	 * (adjacency list for the given position), or null if the position is not on the board
 	 */
 	public ArrayList<OrderedPair> getAdjacencies(OrderedPair op) {
-		return adjacencies.get(op);
+		if (op.getRow() < 0 || op.getRow() >= rows || op.getCol() < 0 || op.getCol() >= cols) {
+			return null;
+		}
+		int cell = cellIndex(op.getRow(), op.getCol());
+		if (isDNE(cell)) {
+			return null;
+		}
+		ArrayList<OrderedPair> adjacencies = new ArrayList<OrderedPair>(numNeighbors(cell));
+		for (int mask = neighborMask(cell); mask != 0; mask &= mask - 1) {
+			int neighbor = cell + neighborDeltas[Integer.numberOfTrailingZeros(mask)];
+			adjacencies.add(new OrderedPair(neighbor / cols, neighbor % cols));
+		}
+		return adjacencies;
+	}
+	
+	/**
+	 * Method that passes the flat index of every valid grid spot bordering the given 
+	 * cell to the given action, in the same order as getAdjacencies. Nothing is allocated
+	 * per call.
+	 * 
+	 * @param cell int flat index of the cell whose neighbors are visited
+	 * @param action IntConsumer called with the flat index of each neighbor
+	 */
+	public void forEachNeighbor(int cell, IntConsumer action) {
+		for (int mask = neighborMask(cell); mask != 0; mask &= mask - 1) {
+			action.accept(cell + neighborDeltas[Integer.numberOfTrailingZeros(mask)]);
+		}
+	}
+	
+	/**
+	 * Method that writes the flat index of every valid grid spot bordering the given 
+	 * cell into the given buffer, in the same order as getAdjacencies.
+	 * 
+	 * @param cell int flat index of the cell whose neighbors are returned
+	 * @param out int[] buffer of length at least 8 to receive the neighbor indices
+	 * @return int number of neighbors written to the buffer
+	 */
+	public int getNeighbors(int cell, int[] out) {
+		int count = 0;
+		for (int mask = neighborMask(cell); mask != 0; mask &= mask - 1) {
+			out[count++] = cell + neighborDeltas[Integer.numberOfTrailingZeros(mask)];
+		}
+		return count;
+	}
+	
+	/**
+	 * Method that returns how many valid grid spots border the given cell.
+	 * 
+	 * @param cell int flat index of the cell being considered
+	 * @return int number of neighbors of the cell
+	 */
+	public int numNeighbors(int cell) {
+		return Integer.bitCount(neighborMask(cell));
 	}
 	
 	/**
@@ -475,9 +1119,6 @@ public class MinesweeperBoard implements Serializable {
 	 */
 	private void setUpTriangle() {
 		
-		valBoard = new int[rows][cols];
-		visibleBoard = new int[rows][cols];
-
 		int[][] temp = new int[rows][cols];
 		int middle = cols/2;		//middle column
 		int width = 0;
@@ -512,9 +1153,6 @@ public class MinesweeperBoard implements Serializable {
 	 */
 	private void setUpDiamond() {
 		
-		valBoard = new int[rows][cols];
-		visibleBoard = new int[rows][cols];
-
 		int[][] temp = new int[rows][cols];
 		int middle = cols/2;		//middle column
 		int width = 0;
@@ -572,9 +1210,6 @@ public class MinesweeperBoard implements Serializable {
 	 */
 	private void setUpCross() {
 		
-		valBoard = new int[rows][cols];
-		visibleBoard = new int[rows][cols];
-
 		int[][] temp = new int[rows][cols];
 		
 		//Vertical bar 
@@ -599,4 +1234,83 @@ public class MinesweeperBoard implements Serializable {
 			}
 		}	
 	}
+	
+	/**
+	 * Read-only Set view over the cell store which contains the OrderedPair 
+	 * of every mine location or of every DNE location. Membership is answered directly 
+	 * from the cell store and the size from the board's running counts, so no per-cell
+	 * objects are kept.
+	 */
+	private class CellSet extends AbstractSet<OrderedPair> {
+		
+		/**
+		 * True if this view holds the mine locations, false for the DNE locations.
+		 */
+		private final boolean mines;
+		
+		/**
+		 * Creates a view over either the mine or the DNE locations.
+		 * 
+		 * @param mines true for a view of mine locations, false for DNE locations
+		 */
+		private CellSet(boolean mines) {
+			this.mines = mines;
+		}
+		
+		/**
+		 * Returns true if the cell at the given flat index belongs in this view.
+		 * 
+		 * @param cell int flat index of the cell
+		 * @return boolean true if the cell belongs in this view
+		 */
+		private boolean matches(int cell) {
+			return mines ? store.isMine(cell) : isDNE(cell);
+		}
+		
+		@Override
+		public boolean contains(Object o) {
+			if (!(o instanceof OrderedPair)) {
+				return false;
+			}
+			OrderedPair op = (OrderedPair) o;
+			if (op.getRow() < 0 || op.getRow() >= rows || op.getCol() < 0 || op.getCol() >= cols) {
+				return false;
+			}
+			return matches(cellIndex(op.getRow(), op.getCol()));
+		}
+		
+		@Override
+		public int size() {
+			return mines ? mineCount : dneCount;
+		}
+		
+		@Override
+		public Iterator<OrderedPair> iterator() {
+			return new Iterator<OrderedPair>() {
+				private int next = advance(0);
+				
+				private int advance(int from) {
+					while (from < numCells() && !matches(from)) {
+						from++;
+					}
+					return from;
+				}
+				
+				@Override
+				public boolean hasNext() {
+					return next < numCells();
+				}
+				
+				@Override
+				public OrderedPair next() {
+					if (next >= numCells()) {
+						throw new NoSuchElementException();
+					}
+					OrderedPair op = new OrderedPair(next / cols, next % cols);
+					next = advance(next + 1);
+					return op;
+				}
+			};
+		}
+	}
 }
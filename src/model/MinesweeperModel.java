@@ -1,11 +1,12 @@
 package model;
 
 import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.Observable;
-import java.util.Random;
+import java.util.Set;
+import java.util.function.IntConsumer;
 
 import highscore.HighScoreBoard;
+import metrics.DispatchEvent;
+import metrics.EngineMetrics;
 import orderedpair.OrderedPair;
 
 /**
@@ -26,13 +27,16 @@ import orderedpair.OrderedPair;
  * There are also a variety of private helper methods to assist with this and another public method used
  * only for testing.
  * 
+ * Listeners are notified with a ChangeSet of the cells whose visibility changed. Changes made between 
+ * beginMove() and endMove() are sent together in a single notification for the whole move. The model 
+ * has no user interface dependency; a view is just one BoardListener among any others.
+ * 
  * @author Caroline Hyland
  * @author James O'Connell
  * @author Nicholas Leluan
  * @author Christian Trejo
  */
-@SuppressWarnings("deprecation")
-public class MinesweeperModel extends Observable {
+public class MinesweeperModel {
 	
 	/**
 	 * Board containing int values that correspond with mine placement, proximity locations 
@@ -52,6 +56,23 @@ public class MinesweeperModel extends Observable {
 	 */
 	private int mineCount;
 	
+	/**
+	 * Listeners notified once at the end of every move that changed a cell.
+	 */
+	private ArrayList<BoardListener> listeners = new ArrayList<BoardListener>();
+	
+	/**
+	 * Cells whose visibility changed during the current move, sent to the listeners in one
+	 * notification when the move ends.
+	 */
+	private ChangeSet changes;
+	
+	/**
+	 * Number of moves currently open through beginMove(). Changes are only sent to the 
+	 * listeners once the outermost move ends.
+	 */
+	private int moveDepth;
+	
 	/** 
 	 * Constructor for when there is a High Score saved file, but not Save Game file
 	 * in the present working directory
@@ -65,14 +86,67 @@ public class MinesweeperModel extends Observable {
 	 * HighScoreBoard object
 	 * @param difficulty String value for the difficulty of the board
 	 * @param shape String value for the shape of the board
+	 * @throws IllegalArgumentException if the mines cannot all be placed around every possible 
+	 * first click, see MinesweeperBoard.maxMines()
 	 */
 	public MinesweeperModel(int row, int col, int count, HighScoreBoard highScoreBoard, String difficulty, String shape) {
-		board = new MinesweeperBoard(row, col, difficulty, shape);
+		this(row, col, count, highScoreBoard, difficulty, shape, MinesweeperBoard.Storage.PACKED);
+	}
+	
+	/** 
+	 * Constructor for a NEW board kept on the given storage backend and an EXISTING 
+	 * HighScoreBoard.
+	 * 
+	 * @param row int value for the number of rows to create on board
+	 * @param col int value for the number of columns to put inside each row on the board
+	 * @param count int value for the number of mines to place into the board
+	 * @param highScoreBoard HighScoreBoard instance of a previously serialized and saved 
+	 * HighScoreBoard object
+	 * @param difficulty String value for the difficulty of the board
+	 * @param shape String value for the shape of the board
+	 * @param storage MinesweeperBoard.Storage backend the board keeps its cells in
+	 * @throws IllegalArgumentException if the mines cannot all be placed around every possible 
+	 * first click, see MinesweeperBoard.maxMines()
+	 */
+	public MinesweeperModel(int row, int col, int count, HighScoreBoard highScoreBoard, String difficulty, String shape,
+			MinesweeperBoard.Storage storage) {
+		board = new MinesweeperBoard(row, col, difficulty, shape, storage);
+		if (count < 0 || count > board.maxMines()) {
+			throw new IllegalArgumentException("Cannot place " + count + " mines on this board; "
+					+ "at most " + board.maxMines() + " fit outside any first click.");
+		}
 		mineCount = count;
       	this.highScoreBoard = highScoreBoard;
         board.setNumFlags(mineCount);
+        changes = new ChangeSet(this.board);
     }
 	
+	/**
+	 * Constructor for a NEW game on a board built in advance, such as one taken from a 
+	 * BoardPool, and an EXISTING HighScoreBoard.
+	 * 
+	 * @param board MinesweeperBoard new board with no mines placed yet
+	 * @param count int value for the number of mines to place into the board
+	 * @param highScoreBoard HighScoreBoard instance of a previously serialized and saved 
+	 * HighScoreBoard object
+	 * @throws IllegalArgumentException if the board has been played, or the mines cannot all 
+	 * be placed around every possible first click, see MinesweeperBoard.maxMines()
+	 */
+	public MinesweeperModel(MinesweeperBoard board, int count, HighScoreBoard highScoreBoard) {
+		if (board.getInit()) {
+			throw new IllegalArgumentException("The board already has its mines.");
+		}
+		if (count < 0 || count > board.maxMines()) {
+			throw new IllegalArgumentException("Cannot place " + count + " mines on this board; "
+					+ "at most " + board.maxMines() + " fit outside any first click.");
+		}
+		this.board = board;
+		mineCount = count;
+		this.highScoreBoard = highScoreBoard;
+		board.setNumFlags(mineCount);
+		changes = new ChangeSet(this.board);
+	}
+	
 	/**
 	 * Constructor for when there is a Saved Game file present but NOT a High Score
 	 * saved serialized file in the directory.
@@ -83,8 +157,9 @@ public class MinesweeperModel extends Observable {
 	 */
 	public MinesweeperModel(MinesweeperBoard board) {
 		this.board = board;
-		mineCount = board.getMineLocs().size();
+		mineCount = board.numMines();
         highScoreBoard = new HighScoreBoard();
+        changes = new ChangeSet(this.board);
     }
 	
 	
@@ -101,8 +176,9 @@ public class MinesweeperModel extends Observable {
 	 */
 	public MinesweeperModel(MinesweeperBoard board, HighScoreBoard highScoreBoard) {
 		this.board = board;
-		mineCount = board.getMineLocs().size();
+		mineCount = board.numMines();
       	this.highScoreBoard = highScoreBoard;
+        changes = new ChangeSet(this.board);
     }
 
 	/**
@@ -110,60 +186,34 @@ public class MinesweeperModel extends Observable {
 	 * starting the game.  It relies on the idea that the user's first click cannot be 
 	 * touching a mine location.
 	 * 
+	 * The mines are placed by BoardGenerator from the board's seed, so the same seed and 
+	 * first click always give the same board. Boards with at least StripedBoardGenerator.MIN_CELLS 
+	 * cells are generated in parallel row stripes; smaller boards are generated on this thread.
+	 * A board laid out in advance with the same seed and number of mines, see 
+	 * MinesweeperBoard.layOutMines(), only has the mines touching the click moved.
+	 * 
 	 * @param userRow int row coordinate of the user's click.
 	 * @param userCol int column coordinate of the user's click.
 	 */
 	public void newGame(int userRow, int userCol) {
-		
-		this.board.setInit(true);
-		
-		//Initialize revealBoard to all false
-		for(int row = 0; row < board.numRows(); row++) {
-			for(int col = 0; col < board.numCols(); col++) {
-				if (!board.getDNEs().contains(new OrderedPair(row,col))) {
-					board.putVisible(row, col, MinesweeperBoard.INVISIBLE);
-				}
-			}
-		}
-		
-		setMines(userRow, userCol); 		//Use field value for number of mines
-		setMineCounts();
-		
+		newGame(userRow, userCol, board.getSeed());
 	}
 	
-	
 	/**
-	 * Purpose: This sets the necessary number of mines in random places on 
-	 * the board, ensuring none of them are on a square touching the user's first 
-	 * click or on a DNE square.
+	 * Purpose: Starts the game from the user's first click like newGame(int, int), but places 
+	 * the mines from the given seed instead of the board's own, such as one chosen by the 
+	 * controller in no-guess mode. The seed is recorded on the board like any other.
 	 * 
 	 * @param userRow int row coordinate of the user's click.
-	 * @param userCol int column coordinate of the user's click.	 
+	 * @param userCol int column coordinate of the user's click.
+	 * @param seed long seed to place the mines from
 	 */
-	private void setMines(int userRow, int userCol) {
-		Random rand = new Random();
-		int randomRow;
-		int randomCol;
-		int currNumMines = 0;
+	public void newGame(int userRow, int userCol, long seed) {
 		
-		OrderedPair userPair = new OrderedPair(userRow, userCol);
+		this.board.setInit(true);
 		
-		while (currNumMines < mineCount) {
-			randomRow = rand.nextInt(board.numRows());	
-			randomCol = rand.nextInt(board.numCols());
-			
-			OrderedPair op = new OrderedPair(randomRow, randomCol);
-			
-			if(!op.equals(userPair) && !board.getDNEs().contains(op)) {		//Check if mine (row,col) != user's clicked (row,col) or invalid
-				if(!board.getAdjacencies(userPair).contains(op)) {	//Check if mine's coordinates dont touch user's coordinates
-					if(board.getVal(randomRow, randomCol) == 0) {		//Check if no mines already there
-						board.putVal(randomRow, randomCol, MinesweeperBoard.MINE);
-						currNumMines++;
-						board.addMine(op);
-					}
-				}
-			}
-		}
+		//Use field value for number of mines and the chosen seed
+		BoardGenerator.generate(board, mineCount, userRow, userCol, seed);
 	}
 	
 	
@@ -173,25 +223,7 @@ public class MinesweeperModel extends Observable {
 	 * square is touching and saves that as its value.
 	 */
 	private void setMineCounts() {
-		
-		for (int row = 0; row < board.numRows(); row++) {
-			for (int col = 0; col < board.numCols(); col++) {
-				if (board.getVal(row, col) == MinesweeperBoard.MINE) {
-					continue; //pass over mines
-				}
-				if (board.getVisible(row, col) == MinesweeperBoard.DNE) {
-					continue; //pass over squares not in use
-				}
-				int adjMines = 0;
-				for (OrderedPair neighbor: board.getAdjacencies(new OrderedPair(row,col))) {
-					if (board.getVal(neighbor.getRow(), neighbor.getCol()) == MinesweeperBoard.MINE) {
-						adjMines++;
-					}
-				}
-				board.putVal(row, col, adjMines);
-			}
-		}
-		
+		board.countMines(0, board.numRows());
 	}
 	
 	/**
@@ -205,10 +237,12 @@ public class MinesweeperModel extends Observable {
 	 */
 	public void buildTestBoard(OrderedPair[] mines) {
 		this.board.setInit(true);
-		//Initialize revealBoard to all false
+		//Initialize revealBoard to all false, keeping the squares outside the board's shape
 		for(int row = 0; row < board.numRows(); row++) {
 			for(int col = 0; col < board.numCols(); col++) {
-				board.putVisible(row, col, MinesweeperBoard.INVISIBLE);
+				if (!board.isDNE(board.cellIndex(row, col))) {
+					board.putVisible(row, col, MinesweeperBoard.INVISIBLE);
+				}
 			}
 		}
 		
@@ -235,6 +269,41 @@ public class MinesweeperModel extends Observable {
 		return board.getAdjacencies(new OrderedPair(row, col));
 	}
 
+	/**
+	 * Purpose: This passes the flat cell index of every active board square around the 
+	 * given cell to the given action without allocating.
+	 * 
+	 * @param cell int flat index (row*cols+col) of the cell whose neighbors are visited
+	 * @param action IntConsumer called with the flat index of each neighbor
+	 */
+	public void forEachNeighbor(int cell, IntConsumer action) {
+		board.forEachNeighbor(cell, action);
+	}
+	
+	/**
+	 * Purpose: This writes the flat cell index of every active board square around the 
+	 * given cell into the given buffer without allocating.
+	 * 
+	 * @param cell int flat index (row*cols+col) of the cell whose neighbors are returned
+	 * @param out int[] buffer of length at least 8 to receive the neighbor indices
+	 * @return int number of neighbors written to the buffer
+	 */
+	public int getNeighbors(int cell, int[] out) {
+		return board.getNeighbors(cell, out);
+	}
+	
+	/**
+	 * Purpose: This is a getter for the flat index of the position (row, col) on the board,
+	 * which is row*cols+col.
+	 * 
+	 * @param row int value of the row of the position
+	 * @param col int value of the column of the position
+	 * @return int flat index of the position
+	 */
+	public int cellIndex(int row, int col) {
+		return board.cellIndex(row, col);
+	}
+
 	/**
 	 * Purpose: This is a getter that returns the value at a specific position in the board.
 	 * This value is the number of mines that border the specific square.
@@ -248,6 +317,16 @@ public class MinesweeperModel extends Observable {
 		
 	}
 	
+	/**
+	 * Purpose: This is a getter that returns the value at the given flat cell index.
+	 * 
+	 * @param cell int flat index (row*cols+col) of the position
+	 * @return int value that is found at the cell
+	 */
+	public int getVal(int cell) {
+		return board.getVal(cell);
+	}
+	
 	/**
 	 * Purpose: This is a setter for the value of a specific position in the board.
 	 * The int value passed in will be in the range [-1,8] inclusive. If the passed in 
@@ -277,6 +356,16 @@ public class MinesweeperModel extends Observable {
 		return board.getVisible(row, col);
 	}
 	
+	/**
+	 * Purpose: This is a getter for the visibility of the given flat cell index.
+	 * 
+	 * @param cell int flat index (row*cols+col) of the position
+	 * @return int visibility for the cell
+	 */
+	public int getVisibility(int cell) {
+		return board.getVisible(cell);
+	}
+	
 	/**
 	 * Purpose: This is a getter fro the number of visible squares on the board. 
 	 * 
@@ -287,6 +376,36 @@ public class MinesweeperModel extends Observable {
 		return board.numVisible();
 	}
 	
+	/**
+	 * Purpose: This is a getter for the number of squares that exist, are not mines and are 
+	 * not yet visible. It is kept as a running count by the board, so it is O(1).
+	 * 
+	 * @return int number of hidden safe squares left on the board
+	 */
+	public int numHiddenSafe() {
+		return board.numHiddenSafe();
+	}
+	
+	/**
+	 * Purpose: This is a getter for the number of mines the game is played with, which the 
+	 * board only holds once they are placed by the first click or laid out in advance.
+	 * 
+	 * @return int number of mines of the game
+	 */
+	public int getMineCount() {
+		return mineCount;
+	}
+	
+	/**
+	 * Purpose: This is a getter for the number of mines that are visible to the user, which
+	 * is only non-zero once a mine has been hit.
+	 * 
+	 * @return int number of visible mines on the board
+	 */
+	public int numVisibleMines() {
+		return board.numVisibleMines();
+	}
+	
 	/**
 	 * Purpose: This is a setter that will change the visibility of a specific position on 
 	 * the board. Invisible is indicated with 0, visible with 1, a flag with -2, and DNE with
@@ -297,29 +416,169 @@ public class MinesweeperModel extends Observable {
 	 * @param value int representing the new visibility status of the specified location
 	 */
 	public void putVisibility(int row, int col, int value) {
-		board.putVisible(row, col, value);
-        // Mark Observable and notify Observer.
-		setChanged();
-        notifyObservers(board);
+		putVisibility(board.cellIndex(row, col), value);
+	}
+	
+	/**
+	 * Purpose: This is a setter that will change the visibility of the given flat cell index.
+	 * 
+	 * @param cell int flat index (row*cols+col) of the position
+	 * @param value int representing the new visibility status of the cell
+	 */
+	public void putVisibility(int cell, int value) {
+		if (moveDepth == 0) {
+			//a change outside of a move is a move of its own
+			changes.clear();
+		}
+		board.putVisible(cell, value);
+		changes.add(cell);
+		if (moveDepth == 0) {
+			notifyChanges();
+		}
+	}
+	
+	/**
+	 * Purpose: Reveals the whole opening of the given empty square at once from the board's 
+	 * opening index: every empty square joined to it and every numbered square around them. 
+	 * The square itself may already be revealed. The cells revealed are the same as those 
+	 * of a search outward from the square, so nothing is revealed and false is returned 
+	 * whenever the index cannot be trusted to match one: the board has no index, the 
+	 * opening changed since it was built, or it holds a flag or another revealed empty 
+	 * square, where a search would stop.
+	 * 
+	 * @param cell int flat index of an empty square
+	 * @return boolean true if the opening was revealed
+	 */
+	public boolean revealOpening(int cell) {
+		OpeningIndex openings = board.getOpenings();
+		int opening = openings == null ? -1 : openings.openingOf(cell);
+		if (opening < 0 || openings.isStale(opening)) {
+			return false;
+		}
+		int end = openings.end(opening);
+		for (int pos = openings.start(opening); pos < end; pos++) {
+			int square = openings.square(pos);
+			int vis = board.getVisible(square);
+			if (vis == MinesweeperBoard.FLAG 
+					|| (vis == MinesweeperBoard.VISIBLE && square != cell && board.getVal(square) == 0)) {
+				return false;
+			}
+		}
+		beginMove();
+		try {
+			for (int pos = openings.start(opening); pos < end; pos++) {
+				int square = openings.square(pos);
+				if (board.getVisible(square) == MinesweeperBoard.INVISIBLE) {
+					putVisibility(square, MinesweeperBoard.VISIBLE);
+				}
+			}
+		} finally {
+			endMove();
+		}
+		return true;
+	}
+	
+	/**
+	 * Purpose: This opens a move. Every visibility change made until the matching call to 
+	 * endMove() is gathered into one ChangeSet instead of notifying the listeners once per 
+	 * cell. Moves may be nested; the listeners are notified when the outermost move ends.
+	 */
+	public void beginMove() {
+		if (moveDepth == 0) {
+			changes.clear();
+		}
+		moveDepth++;
+	}
+	
+	/**
+	 * Purpose: This closes a move opened by beginMove(). When the outermost move ends, the 
+	 * listeners are notified once with a ChangeSet holding every cell changed by the move, 
+	 * if any cell changed at all.
+	 */
+	public void endMove() {
+		if (moveDepth > 0) {
+			moveDepth--;
+		}
+		if (moveDepth == 0) {
+			notifyChanges();
+		}
+	}
+	
+	/**
+	 * Sends the ChangeSet of the move that just ended to the listeners, if there are any and it
+	 * is not empty. 
+	 * It is kept, and returned by getLastChanges(), until the next move begins. The number of
+	 * listeners and the time they took are recorded in EngineMetrics, and as a DispatchEvent
+	 * when Flight Recorder is on, unless the board is a scratch board.
+	 */
+	private void notifyChanges() {
+		if (changes.isEmpty() || listeners.isEmpty()) {
+			return;
+		}
+		long start = System.nanoTime();
+		DispatchEvent event = new DispatchEvent();
+		event.begin();
+		for (int idx = 0; idx < listeners.size(); idx++) {
+			listeners.get(idx).boardChanged(this, changes);
+		}
+		if (board.isScratch()) {
+			return;
+		}
+		EngineMetrics.NOTIFY_LISTENERS.record(listeners.size());
+		EngineMetrics.NOTIFY_NANOS.recordSince(start);
+		if (event.shouldCommit()) {
+			event.listeners = listeners.size();
+			event.cellsChanged = changes.size();
+			event.commit();
+		}
+	}
+	
+	/**
+	 * Purpose: This adds a listener to be notified at the end of every move. A listener 
+	 * added twice is notified twice.
+	 * 
+	 * @param listener BoardListener to notify
+	 */
+	public void addListener(BoardListener listener) {
+		listeners.add(listener);
+	}
+	
+	/**
+	 * Purpose: This removes a listener added with addListener(), if it is present.
+	 * 
+	 * @param listener BoardListener to stop notifying
+	 */
+	public void removeListener(BoardListener listener) {
+		listeners.remove(listener);
+	}
+	
+	/**
+	 * Purpose: This is a getter for the cells changed by the most recent move, or by the
+	 * move in progress. The ChangeSet is reused when the next move begins.
+	 * 
+	 * @return ChangeSet of the last move
+	 */
+	public ChangeSet getLastChanges() {
+		return changes;
 	}
 	
 	/**
-	 * Purpose: This is a getter for a HashSet containing all of the mine locations on the board.
+	 * Purpose: This is a getter for a Set containing all of the mine locations on the board.
 	 * 
-	 * @return HashSet of OrderdPair objects that represent all the mine locations in the 
+	 * @return Set of OrderdPair objects that represent all the mine locations in the 
 	 * present game board 
 	 */
-	public HashSet<OrderedPair> getMineLocs() {
+	public Set<OrderedPair> getMineLocs() {
 		return board.getMineLocs();
 	}
 	
 	/**
-	 * Purpose: This is a getter for a HashSet containing all of the DNE locations on the board.
+	 * Purpose: This is a getter for a Set containing all of the DNE locations on the board.
 	 * 
-	 * @return HashSet of OrderdPair objects that represent all the DNE locations in the 
+	 * @return Set of OrderdPair objects that represent all the DNE locations in the 
 	 * present game board 
 	 */
-	public HashSet<OrderedPair> getDNEs() {
+	public Set<OrderedPair> getDNEs() {
 		return board.getDNEs();
 	}
 	
@@ -0,0 +1,313 @@
+package model;
+
+/**
+ * File: OpeningIndex.java
+ * Assignment: Minesweeper
+ * Course: CSC 335; Spring 2021
+ *
+ * This class lists the openings of a generated board: every connected group of empty (zero)
+ * squares together with the numbered squares around it, which is exactly what the automatic
+ * reveal uncovers when one of those empty squares is clicked. With the index a click on an
+ * empty square reveals its opening straight from a list, in time proportional to the squares
+ * revealed, instead of searching outward square by square.
+ *
+ * The index is built once the values are counted. The empty squares are joined with their
+ * empty neighbors by union-find in one row-major pass, each set is numbered, and the squares of
+ * every opening are stored contiguously in one array, opening by opening. A numbered square
+ * bordering several openings is listed in each of them.
+ *
+ * An opening is only correct for the values it was built from. Any later change to a value
+ * marks as stale every opening holding that square or one of its neighbors, which covers the
+ * openings it joins, splits or borders; the mines moved off the first click mark only the few
+ * openings around them. Stale openings, and squares that became empty later, are not in the
+ * index and are revealed by the usual search.
+ *
+ * Boards with more than MAX_CELLS cells are not indexed, as the index takes a few bytes per
+ * cell on top of the board itself.
+ *
+ * @author Caroline Hyland
+ * @author James O'Connell
+ * @author Nicholas Leluan
+ * @author Christian Trejo
+ */
+class OpeningIndex {
+
+	/**
+	 * Boards with more cells than this are not indexed.
+	 */
+	static final int MAX_CELLS = 1 << 22;
+
+	/**
+	 * Opening of each empty square, or -1 for any other square.
+	 */
+	private final int[] openingOf;
+
+	/**
+	 * Squares of every opening, one opening after another; opening i takes the positions
+	 * [start[i], start[i + 1]).
+	 */
+	private final int[] squares;
+	private final int[] start;
+
+	/**
+	 * Openings changed since the index was built.
+	 */
+	private final boolean[] stale;
+
+	/**
+	 * Board the index was built from, read for neighbors when a value changes.
+	 */
+	private final MinesweeperBoard board;
+
+	/**
+	 * Buffer for the neighbors of a square.
+	 */
+	private final int[] neighbors = new int[8];
+
+	/**
+	 * Constructs the index of the given board, whose values must all be counted.
+	 *
+	 * @param board MinesweeperBoard to index
+	 */
+	OpeningIndex(MinesweeperBoard board) {
+		this.board = board;
+		int numCells = board.numCells();
+		int cols = board.numCols();
+
+		//join every empty square with the empty squares before it: left, up-left, up and up-right
+		int[] parent = new int[numCells];
+		for (int cell = 0; cell < numCells; cell++) {
+			parent[cell] = isEmpty(cell) ? cell : -1;
+			if (parent[cell] < 0) {
+				continue;
+			}
+			int col = cell % cols;
+			if (col > 0) {
+				union(parent, cell, cell - 1);
+			}
+			if (cell >= cols) {
+				union(parent, cell, cell - cols);
+				if (col > 0) {
+					union(parent, cell, cell - cols - 1);
+				}
+				if (col < cols - 1) {
+					union(parent, cell, cell - cols + 1);
+				}
+			}
+		}
+
+		//number the sets; a set's root is its first square, so it is numbered first
+		openingOf = new int[numCells];
+		int numOpenings = 0;
+		for (int cell = 0; cell < numCells; cell++) {
+			if (parent[cell] < 0) {
+				openingOf[cell] = -1;
+			} else {
+				int root = find(parent, cell);
+				openingOf[cell] = root == cell ? numOpenings++ : openingOf[root];
+			}
+		}
+
+		//count the squares of each opening, then list them
+		start = new int[numOpenings + 1];
+		forEachMember((cell, opening) -> start[opening + 1]++);
+		for (int opening = 0; opening < numOpenings; opening++) {
+			start[opening + 1] += start[opening];
+		}
+		squares = new int[start[numOpenings]];
+		int[] next = new int[numOpenings];
+		System.arraycopy(start, 0, next, 0, numOpenings);
+		forEachMember((cell, opening) -> squares[next[opening]++] = cell);
+		stale = new boolean[numOpenings];
+	}
+
+	/**
+	 * Returns the opening of the given empty square, or -1 if the square is not empty or
+	 * became empty after the index was built.
+	 *
+	 * @param cell int flat index of the square
+	 * @return int opening of the square, or -1
+	 */
+	int openingOf(int cell) {
+		return openingOf[cell];
+	}
+
+	/**
+	 * Returns true if a value in or around the given opening changed after the index was
+	 * built, so its list of squares may be wrong.
+	 *
+	 * @param opening int number of the opening
+	 * @return boolean true if the opening is stale
+	 */
+	boolean isStale(int opening) {
+		return stale[opening];
+	}
+
+	/**
+	 * Returns the position in squares() of the first square of the given opening.
+	 *
+	 * @param opening int number of the opening
+	 * @return int first position of the opening
+	 */
+	int start(int opening) {
+		return start[opening];
+	}
+
+	/**
+	 * Returns the position in squares() just after the last square of the given opening.
+	 *
+	 * @param opening int number of the opening
+	 * @return int end position of the opening, exclusive
+	 */
+	int end(int opening) {
+		return start[opening + 1];
+	}
+
+	/**
+	 * Returns the square at the given position of the list of every opening's squares.
+	 *
+	 * @param pos int position in the list
+	 * @return int flat index of the square
+	 */
+	int square(int pos) {
+		return squares[pos];
+	}
+
+	/**
+	 * Returns the number of openings of the board.
+	 *
+	 * @return int number of openings
+	 */
+	int numOpenings() {
+		return stale.length;
+	}
+
+	/**
+	 * Returns the bytes taken by the index's arrays.
+	 *
+	 * @return long bytes of the index
+	 */
+	long numBytes() {
+		return 4L * (openingOf.length + squares.length + start.length) + stale.length;
+	}
+
+	/**
+	 * Marks as stale every opening that holds the given square or one of its neighbors,
+	 * after the value of the square changed.
+	 *
+	 * @param cell int flat index of the square whose value changed
+	 */
+	void valueChanged(int cell) {
+		markStale(cell);
+		int numNeighbors = board.getNeighbors(cell, neighbors);
+		for (int idx = 0; idx < numNeighbors; idx++) {
+			markStale(neighbors[idx]);
+		}
+	}
+
+	/**
+	 * Marks the opening of the given square as stale, if it is an indexed empty square.
+	 *
+	 * @param cell int flat index of the square
+	 */
+	private void markStale(int cell) {
+		if (openingOf[cell] >= 0) {
+			stale[openingOf[cell]] = true;
+		}
+	}
+
+	/**
+	 * Returns true if the square exists and is empty: neither a mine nor next to one.
+	 *
+	 * @param cell int flat index of the square
+	 * @return boolean true if the square is empty
+	 */
+	private boolean isEmpty(int cell) {
+		return !board.isDNE(cell) && board.getVal(cell) == 0;
+	}
+
+	/**
+	 * Hands every square of every opening to the given action: each empty square with its
+	 * opening, and each numbered square once with every different opening it borders.
+	 *
+	 * @param action Member to call for each square and opening
+	 */
+	private void forEachMember(Member action) {
+		int[] seen = new int[8];
+		for (int cell = 0; cell < openingOf.length; cell++) {
+			if (openingOf[cell] >= 0) {
+				action.accept(cell, openingOf[cell]);
+				continue;
+			}
+			if (board.isDNE(cell) || board.getVal(cell) == MinesweeperBoard.MINE) {
+				continue;
+			}
+			int numSeen = 0;
+			int numNeighbors = board.getNeighbors(cell, neighbors);
+			for (int idx = 0; idx < numNeighbors; idx++) {
+				int opening = openingOf[neighbors[idx]];
+				if (opening < 0) {
+					continue;
+				}
+				boolean repeat = false;
+				for (int prev = 0; prev < numSeen && !repeat; prev++) {
+					repeat = seen[prev] == opening;
+				}
+				if (!repeat) {
+					seen[numSeen++] = opening;
+					action.accept(cell, opening);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Joins the sets of two empty squares, keeping the smaller root so that every set's
+	 * root is its first square in row-major order.
+	 *
+	 * @param parent int[] parent of each square, or -1 for squares that are not empty
+	 * @param cell int flat index of one square
+	 * @param other int flat index of the other square, joined only if it is empty
+	 */
+	private static void union(int[] parent, int cell, int other) {
+		if (parent[other] < 0) {
+			return;
+		}
+		int root = find(parent, cell);
+		int otherRoot = find(parent, other);
+		if (root < otherRoot) {
+			parent[otherRoot] = root;
+		} else if (otherRoot < root) {
+			parent[root] = otherRoot;
+		}
+	}
+
+	/**
+	 * Returns the root of the set of the given square, halving the path on the way.
+	 *
+	 * @param parent int[] parent of each square
+	 * @param cell int flat index of an empty square
+	 * @return int root of its set
+	 */
+	private static int find(int[] parent, int cell) {
+		while (parent[cell] != cell) {
+			parent[cell] = parent[parent[cell]];
+			cell = parent[cell];
+		}
+		return cell;
+	}
+
+	/**
+	 * Action taken on one square of one opening.
+	 */
+	private interface Member {
+
+		/**
+		 * Takes one square of one opening.
+		 *
+		 * @param cell int flat index of the square
+		 * @param opening int number of the opening
+		 */
+		void accept(int cell, int opening);
+	}
+}
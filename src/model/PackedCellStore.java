@@ -0,0 +1,141 @@
+package model;
+
+/**
+ * File: PackedCellStore.java
+ * Assignment: Minesweeper
+ * Course: CSC 335; Spring 2021
+ * 
+ * This class is the default CellStore. It packs every cell into one byte of a flat array 
+ * indexed by row*cols+col: the low nibble holds the proximity value (0-8, or MINE_CODE for a 
+ * mine) and bits 4-5 hold the visibility code.
+ * 
+ * @author Caroline Hyland
+ * @author James O'Connell
+ * @author Nicholas Leluan
+ * @author Christian Trejo
+ */
+class PackedCellStore extends CellStore {
+	
+	/**
+	 * Default serials version ID.
+	 */
+	private static final long serialVersionUID = 1L;
+	
+	/**
+	 * Mask selecting the value bits (low nibble) of a packed cell.
+	 */
+	private static final int VAL_MASK = 0x0F;
+	
+	/**
+	 * Value code stored in the low nibble of a packed cell that holds a mine.
+	 */
+	private static final int MINE_CODE = 0x0F;
+	
+	/**
+	 * Number of bits the visibility code is shifted by inside a packed cell.
+	 */
+	private static final int VIS_SHIFT = 4;
+	
+	/**
+	 * Mask selecting the visibility bits of a packed cell.
+	 */
+	private static final int VIS_MASK = 0x30;
+	
+	/**
+	 * Packed cell storage indexed by row*cols+col.
+	 */
+	private final byte[] cells;
+	
+	/**
+	 * Constructs a store for a board of the given size with every cell hidden and empty.
+	 * 
+	 * @param rows int number of rows
+	 * @param cols int number of columns
+	 */
+	PackedCellStore(int rows, int cols) {
+		super(rows, cols);
+		cells = new byte[rows * cols];
+	}
+	
+	@Override
+	int getVal(int cell) {
+		int code = cells[cell] & VAL_MASK;
+		return code == MINE_CODE ? MinesweeperBoard.MINE : code;
+	}
+	
+	@Override
+	void setVal(int cell, int val) {
+		int code = val == MinesweeperBoard.MINE ? MINE_CODE : val;
+		cells[cell] = (byte) ((cells[cell] & ~VAL_MASK) | (code & VAL_MASK));
+	}
+	
+	@Override
+	boolean isMine(int cell) {
+		return (cells[cell] & VAL_MASK) == MINE_CODE;
+	}
+	
+	@Override
+	int getVisibility(int cell) {
+		return (cells[cell] & VIS_MASK) >> VIS_SHIFT;
+	}
+	
+	@Override
+	void setVisibility(int cell, int code) {
+		cells[cell] = (byte) ((cells[cell] & ~VIS_MASK) | (code << VIS_SHIFT));
+	}
+	
+	@Override
+	void hideRows(int fromRow, int toRow) {
+		for (int cell = fromRow * cols; cell < toRow * cols; cell++) {
+			if ((cells[cell] & VIS_MASK) != VIS_MASK) {
+				cells[cell] = (byte) (cells[cell] & ~VIS_MASK);
+			}
+		}
+	}
+	
+	/**
+	 * Counts with a sliding window: for each row the number of mines in each column of the
+	 * rows above, at and below it is summed once, and each cell's count is the sum of three
+	 * neighboring column totals, so every cell is read three times instead of nine. Mines and
+	 * DNE cells are detected with bit arithmetic rather than branches, since on a random board
+	 * such branches are mispredicted about as often as they are taken.
+	 */
+	@Override
+	void countMines(int fromRow, int toRow) {
+		int[] columnMines = new int[cols + 2]; //padded with an empty column on each side
+		for (int row = fromRow; row < toRow; row++) {
+			int above = Math.max(row - 1, 0) * cols;
+			int below = Math.min(row + 1, rows - 1) * cols;
+			int base = row * cols;
+			for (int col = 0; col < cols; col++) {
+				int total = isMineBit(cells[base + col]);
+				if (above != base) {
+					total += isMineBit(cells[above + col]);
+				}
+				if (below != base) {
+					total += isMineBit(cells[below + col]);
+				}
+				columnMines[col + 1] = total;
+			}
+			for (int col = 0; col < cols; col++) {
+				int old = cells[base + col];
+				int adjMines = columnMines[col] + columnMines[col + 1] + columnMines[col + 2];
+				//mines and squares not in use keep their byte
+				int keep = isMineBit(old) | ((old >> 4) & (old >> 5) & 1);
+				int counted = (old & ~VAL_MASK) | adjMines;
+				cells[base + col] = (byte) (counted + ((old - counted) & -keep));
+			}
+		}
+	}
+	
+	/**
+	 * Returns 1 if the packed cell holds a mine and 0 otherwise, without branching: the low
+	 * nibble plus one only carries into bit 4 when the nibble is MINE_CODE.
+	 * 
+	 * @param packed int packed cell
+	 * @return int 1 for a mine, else 0
+	 */
+	private static int isMineBit(int packed) {
+		return ((packed & VAL_MASK) + 1) >> 4;
+	}
+}
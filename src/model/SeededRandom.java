@@ -0,0 +1,108 @@
+package model;
+
+/**
+ * File: SeededRandom.java
+ * Assignment: Minesweeper
+ * Course: CSC 335; Spring 2021
+ *
+ * This class is the pseudorandom number generator every board is generated with. It is the
+ * SplitMix64 generator, written out here so that its output is fixed by this file alone and
+ * not by the Java version the game runs on: the same 64-bit seed always produces the same
+ * numbers, and so the same board. The bounded and split operations below are part of that
+ * contract and must not be changed without changing how saved seeds are read.
+ *
+ * Instances are not thread safe; parallel work uses one stream per task made with split().
+ *
+ * @author Caroline Hyland
+ * @author James O'Connell
+ * @author Nicholas Leluan
+ * @author Christian Trejo
+ */
+public final class SeededRandom {
+
+	/**
+	 * Odd constant added to the state on every step, 2^64 divided by the golden ratio.
+	 */
+	private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+	/**
+	 * Current state of the generator.
+	 */
+	private long state;
+
+	/**
+	 * Constructs a new generator starting from the given seed.
+	 *
+	 * @param seed long seed of the generator
+	 */
+	public SeededRandom(long seed) {
+		state = seed;
+	}
+
+	/**
+	 * Scrambles a 64-bit value with the SplitMix64 finalizer. Nearby inputs give unrelated
+	 * outputs, so it is also used to turn coordinates into seeds.
+	 *
+	 * @param z long value to scramble
+	 * @return long scrambled value
+	 */
+	public static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * Returns the next 64 random bits.
+	 *
+	 * @return long next value of the stream
+	 */
+	public long nextLong() {
+		state += GOLDEN_GAMMA;
+		return mix(state);
+	}
+
+	/**
+	 * Returns a uniformly distributed int in [0, bound). The high 32 bits of nextLong() are 
+	 * scaled by multiplying with bound (Lemire's method), and the few products that would 
+	 * bias the result are rejected, so no division is needed except in that rare case.
+	 *
+	 * @param bound int exclusive upper bound, at least 1
+	 * @return int random value in [0, bound)
+	 * @throws IllegalArgumentException if bound is not positive
+	 */
+	public int nextInt(int bound) {
+		if (bound <= 0) {
+			throw new IllegalArgumentException("bound must be positive: " + bound);
+		}
+		long product = (nextLong() >>> 32) * bound;
+		long low = product & 0xFFFFFFFFL;
+		if (low < bound) {
+			long threshold = (0x100000000L - bound) % bound;
+			while (low < threshold) {
+				product = (nextLong() >>> 32) * bound;
+				low = product & 0xFFFFFFFFL;
+			}
+		}
+		return (int) (product >>> 32);
+	}
+
+	/**
+	 * Returns a uniformly distributed double in [0, 1) with 53 random bits.
+	 *
+	 * @return double random value in [0, 1)
+	 */
+	public double nextDouble() {
+		return (nextLong() >>> 11) * 0x1.0p-53;
+	}
+
+	/**
+	 * Returns a new generator seeded from the next value of this one. Streams split off in
+	 * the same order are the same on every run, however they are later used.
+	 *
+	 * @return SeededRandom independent generator
+	 */
+	public SeededRandom split() {
+		return new SeededRandom(mix(nextLong() ^ GOLDEN_GAMMA));
+	}
+}
@@ -0,0 +1,171 @@
+package model;
+
+import java.util.stream.IntStream;
+
+/**
+ * File: StripedBoardGenerator.java
+ * Assignment: Minesweeper
+ * Course: CSC 335; Spring 2021
+ * 
+ * This class generates the mines and proximity values of very large boards in parallel. The 
+ * board is split into stripes of STRIPE_ROWS rows which are processed on the common ForkJoinPool 
+ * in three passes, each finishing before the next begins:
+ * 
+ * 1. Every stripe hides its cells and counts the squares in it that may hold a mine (those that
+ *    exist).
+ * 2. The mines are shared out between the stripes in proportion to their eligible squares, and 
+ *    every stripe places its share with its own SeededRandom stream.
+ * 3. Every stripe computes the proximity values of its own cells. The rows just above and below 
+ *    a stripe (its halo) belong to its neighbors and are only read, which is safe because every
+ *    mine was placed in the previous pass.
+ * 
+ * Within a stripe every set of squares of the stripe's share is equally likely. The share itself
+ * is the stripe's proportional part of the mines, with the fractions left over handed out at 
+ * random, so the per-stripe mine counts vary less than under a fully uniform layout. On boards 
+ * large enough to use this class the difference cannot be seen in play.
+ * 
+ * The stripe height is fixed and the stripe streams are split off in stripe order before any 
+ * work starts, so the same seed leads to the same board however many cores do the work.
+ * 
+ * Only the layout is made here; BoardGenerator then moves the mines off the first click.
+ * 
+ * @author Caroline Hyland
+ * @author James O'Connell
+ * @author Nicholas Leluan
+ * @author Christian Trejo
+ */
+class StripedBoardGenerator {
+	
+	/**
+	 * Boards with at least this many cells are generated in parallel stripes.
+	 */
+	static final int MIN_CELLS = 1 << 20;
+	
+	/**
+	 * Number of board rows in each stripe.
+	 */
+	static final int STRIPE_ROWS = 64;
+	
+	/**
+	 * Generates the mines and proximity values of the given board in parallel stripes, 
+	 * drawing every random number from streams split off the given generator.
+	 * 
+	 * @param board MinesweeperBoard to populate, with no mines placed yet
+	 * @param mineCount int number of mines to place
+	 * @param random SeededRandom the stripe streams are split from
+	 * @throws IllegalStateException if there are fewer eligible squares than mines
+	 */
+	static void generate(MinesweeperBoard board, int mineCount, SeededRandom random) {
+		int rows = board.numRows();
+		int cols = board.numCols();
+		int stripes = (rows + STRIPE_ROWS - 1) / STRIPE_ROWS;
+		
+		//pass 1: hide every stripe and count its eligible squares
+		int[] eligible = new int[stripes];
+		IntStream.range(0, stripes).parallel().forEach(stripe -> {
+			int fromRow = stripe * STRIPE_ROWS;
+			int toRow = Math.min(rows, fromRow + STRIPE_ROWS);
+			board.hideRows(fromRow, toRow);
+			int count = 0;
+			for (int row = fromRow; row < toRow; row++) {
+				for (int col = 0; col < cols; col++) {
+					if (!board.isDNE(board.cellIndex(row, col))) {
+						count++;
+					}
+				}
+			}
+			eligible[stripe] = count;
+		});
+		
+		//share the mines out between the stripes
+		long totalEligible = 0;
+		for (int count : eligible) {
+			totalEligible += count;
+		}
+		if (mineCount > totalEligible) {
+			throw new IllegalStateException("Cannot place " + mineCount + " mines; only " 
+					+ totalEligible + " squares are eligible.");
+		}
+		int[] quota = shareMines(eligible, totalEligible, mineCount, random);
+		SeededRandom[] streams = new SeededRandom[stripes];
+		for (int stripe = 0; stripe < stripes; stripe++) {
+			streams[stripe] = random.split();
+		}
+		
+		//pass 2: every stripe places its share of the mines
+		IntStream.range(0, stripes).parallel().forEach(stripe -> {
+			SeededRandom stream = streams[stripe];
+			int fromRow = stripe * STRIPE_ROWS;
+			int toRow = Math.min(rows, fromRow + STRIPE_ROWS);
+			int remainingSquares = eligible[stripe];
+			int remainingMines = quota[stripe];
+			//selection sampling: each eligible square is mined with probability remainingMines/remainingSquares
+			for (int row = fromRow; row < toRow && remainingMines > 0; row++) {
+				for (int col = 0; col < cols && remainingMines > 0; col++) {
+					if (board.isDNE(board.cellIndex(row, col))) {
+						continue;
+					}
+					if (stream.nextInt(remainingSquares) < remainingMines) {
+						board.placeMineUncounted(board.cellIndex(row, col));
+						remainingMines--;
+					}
+					remainingSquares--;
+				}
+			}
+		});
+		board.addMineCount(mineCount);
+		
+		//pass 3: every stripe computes its proximity values, reading its halo rows
+		IntStream.range(0, stripes).parallel().forEach(stripe -> {
+			int fromRow = stripe * STRIPE_ROWS;
+			int toRow = Math.min(rows, fromRow + STRIPE_ROWS);
+			board.countMines(fromRow, toRow);
+		});
+	}
+	
+	/**
+	 * Shares the mines out between the stripes in proportion to their eligible squares. Each 
+	 * stripe gets the whole part of its share and the mines left over go one each to stripes 
+	 * picked at random, weighted by the fraction of a mine each stripe lost to rounding.
+	 * 
+	 * @param eligible int[] number of eligible squares in each stripe
+	 * @param totalEligible long total number of eligible squares
+	 * @param mineCount int number of mines to share out, at most totalEligible
+	 * @param random SeededRandom used to hand out the leftover mines
+	 * @return int[] number of mines each stripe should place
+	 */
+	private static int[] shareMines(int[] eligible, long totalEligible, int mineCount, SeededRandom random) {
+		int stripes = eligible.length;
+		int[] quota = new int[stripes];
+		double[] fraction = new double[stripes];
+		int assigned = 0;
+		for (int stripe = 0; stripe < stripes; stripe++) {
+			double share = (double) mineCount * eligible[stripe] / totalEligible;
+			quota[stripe] = Math.min(eligible[stripe], (int) share);
+			fraction[stripe] = share - quota[stripe];
+			assigned += quota[stripe];
+		}
+		while (assigned < mineCount) {
+			double total = 0;
+			for (int stripe = 0; stripe < stripes; stripe++) {
+				if (quota[stripe] < eligible[stripe]) {
+					total += Math.max(fraction[stripe], 1e-9);
+				}
+			}
+			double pick = random.nextDouble() * total;
+			for (int stripe = 0; stripe < stripes; stripe++) {
+				if (quota[stripe] >= eligible[stripe]) {
+					continue;
+				}
+				pick -= Math.max(fraction[stripe], 1e-9);
+				if (pick <= 0 || stripe == stripes - 1) {
+					quota[stripe]++;
+					fraction[stripe] = 0;
+					assigned++;
+					break;
+				}
+			}
+		}
+		return quota;
+	}
+}
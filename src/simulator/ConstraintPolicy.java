@@ -0,0 +1,83 @@
+package simulator;
+
+import controller.MinesweeperController;
+import model.MinesweeperBoard;
+import model.MinesweeperModel;
+import model.SeededRandom;
+import solver.ConstraintSolver;
+
+/**
+ * File: ConstraintPolicy.java
+ * Assignment: Minesweeper
+ * Course: CSC 335; Spring 2021
+ * 
+ * This class is a MovePolicy that plays every square a ConstraintSolver has proven safe, and 
+ * guesses a random hidden square that is not a known mine only when there is none. The solver 
+ * follows the game as a listener, so after each move only the numbers around that move are 
+ * looked at again. It opens in the middle of the board like SinglePointPolicy, and since its
+ * pair rule proves everything the single point rules do and more, it guesses less often.
+ * 
+ * @author Caroline Hyland
+ * @author James O'Connell
+ * @author Nicholas Leluan
+ * @author Christian Trejo
+ */
+public class ConstraintPolicy implements MovePolicy {
+	
+	/**
+	 * Solver following the current game.
+	 */
+	private ConstraintSolver solver;
+	
+	/**
+	 * Whether the last move returned was a guess.
+	 */
+	private boolean guessed;
+	
+	/**
+	 * Purpose: Starts a solver on the new game and adds it as a listener of the game.
+	 * 
+	 * @param game MinesweeperController of the new game
+	 */
+	@Override
+	public void newGame(MinesweeperController game) {
+		solver = new ConstraintSolver(game.getModel());
+		game.addListener(solver);
+	}
+	
+	/**
+	 * Purpose: Returns a square proven safe if there is one, or else a guess.
+	 * 
+	 * @param game MinesweeperController of the game in progress
+	 * @param random SeededRandom stream of this game, used for guesses
+	 * @return int flat index of the square to reveal
+	 */
+	@Override
+	public int nextMove(MinesweeperController game, SeededRandom random) {
+		MinesweeperModel model = game.getModel();
+		guessed = false;
+		if (!game.getInit()) {
+			int middle = model.cellIndex(game.numRows() / 2, game.numCols() / 2);
+			if (model.getVisibility(middle) == MinesweeperBoard.INVISIBLE) {
+				return middle;
+			}
+			return RandomPolicy.randomHidden(model, random, null); //the middle is not part of this shape
+		}
+		int cell = solver.nextSafe(0);
+		if (cell >= 0) {
+			return cell;
+		}
+		guessed = true;
+		return RandomPolicy.randomHidden(model, random, solver.getKnownMines());
+	}
+	
+	/**
+	 * Purpose: Returns whether the last move was a guess.
+	 * 
+	 * @return boolean expressing whether the last move was a guess
+	 */
+	@Override
+	public boolean wasGuess() {
+		return guessed;
+	}
+}
@@ -0,0 +1,212 @@
+package simulator;
+
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import controller.MinesweeperController;
+import exceptions.HitMineException;
+import exceptions.IllegalMoveException;
+import highscore.HighScoreBoard;
+import model.SeededRandom;
+
+/**
+ * File: MonteCarloSimulator.java
+ * Assignment: Minesweeper
+ * Course: CSC 335; Spring 2021
+ * 
+ * This class plays large batches of games headless on every core and reports how they went, 
+ * which is how the difficulty presets are tuned. Every thread has its own MinesweeperController, 
+ * MovePolicy and SimulationResult, so the only thing the threads share is a counter they take 
+ * games from, CHUNK_GAMES at a time; their results are merged once all of them have finished.
+ * 
+ * Every game has its own SeededRandom stream, made from the batch seed and the game's number. 
+ * The stream seeds the game's board and then makes the policy's random choices, so a batch gives 
+ * the same statistics (apart from its speed) however many threads play it.
+ * 
+ * It can also be run from the command line:
+ * 
+ *     java simulator.MonteCarloSimulator rows cols mines games [single|constraint|random] [shape] [seed]
+ * 
+ * @author Caroline Hyland
+ * @author James O'Connell
+ * @author Nicholas Leluan
+ * @author Christian Trejo
+ */
+public class MonteCarloSimulator {
+	
+	/**
+	 * Number of games a thread takes from the shared counter at a time.
+	 */
+	static final int CHUNK_GAMES = 256;
+	
+	/**
+	 * Number of threads games are played on.
+	 */
+	private int threads;
+	
+	/**
+	 * Constructs a new simulator playing on one thread per available core.
+	 */
+	public MonteCarloSimulator() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+	
+	/**
+	 * Constructs a new simulator playing on the given number of threads.
+	 * 
+	 * @param threads int number of threads, at least 1
+	 * @throws IllegalArgumentException if threads is less than 1
+	 */
+	public MonteCarloSimulator(int threads) {
+		if (threads < 1) {
+			throw new IllegalArgumentException("threads must be at least 1: " + threads);
+		}
+		this.threads = threads;
+	}
+	
+	/**
+	 * Purpose: Plays every game of the batch and returns the merged statistics. Each thread 
+	 * gets its own policy from the given supplier.
+	 * 
+	 * @param config SimulationConfig of the batch
+	 * @param policies Supplier making one MovePolicy per thread
+	 * @return SimulationResult of the whole batch
+	 * @throws IllegalArgumentException if the mines do not fit on the board
+	 * @throws IllegalStateException if a policy chooses a square that cannot be revealed, or
+	 * the calling thread is interrupted
+	 */
+	public SimulationResult run(SimulationConfig config, Supplier<MovePolicy> policies) {
+		//fail on the calling thread if the board cannot be built at all
+		new MinesweeperController(config.getRows(), config.getCols(), config.getMines(), new HighScoreBoard(),
+				config.getDifficulty(), config.getShape());
+		
+		AtomicLong nextGame = new AtomicLong();
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		ArrayList<Future<SimulationResult>> workers = new ArrayList<Future<SimulationResult>>();
+		SimulationResult total = new SimulationResult();
+		long start = System.nanoTime();
+		try {
+			for (int thread = 0; thread < threads; thread++) {
+				workers.add(pool.submit(() -> playGames(config, policies.get(), nextGame)));
+			}
+			for (Future<SimulationResult> worker : workers) {
+				total.merge(worker.get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while simulating.", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IllegalStateException("A simulator thread failed.", e.getCause());
+		} finally {
+			pool.shutdownNow();
+		}
+		total.setElapsedNanos(System.nanoTime() - start);
+		return total;
+	}
+	
+	/**
+	 * Plays games taken from the shared counter until the batch is used up, recording them
+	 * in a result of this thread's own.
+	 * 
+	 * @param config SimulationConfig of the batch
+	 * @param policy MovePolicy of this thread
+	 * @param nextGame AtomicLong holding the number of the next game not yet taken
+	 * @return SimulationResult of the games this thread played
+	 */
+	private static SimulationResult playGames(SimulationConfig config, MovePolicy policy, AtomicLong nextGame) {
+		SimulationResult result = new SimulationResult();
+		HighScoreBoard highScoreBoard = new HighScoreBoard();
+		MinesweeperController game = null;
+		while (true) {
+			long from = nextGame.getAndAdd(CHUNK_GAMES);
+			if (from >= config.getGames()) {
+				return result;
+			}
+			long to = Math.min(config.getGames(), from + CHUNK_GAMES);
+			for (long number = from; number < to; number++) {
+				if (game == null) {
+					game = new MinesweeperController(config.getRows(), config.getCols(), config.getMines(),
+							highScoreBoard, config.getDifficulty(), config.getShape());
+				} else {
+					game.updateModel(config.getRows(), config.getCols(), config.getMines(), highScoreBoard,
+							config.getDifficulty(), config.getShape());
+				}
+				SeededRandom random = new SeededRandom(SeededRandom.mix(config.getSeed() + number));
+				game.getBoard().setSeed(random.nextLong());
+				playGame(game, policy, random, result);
+			}
+		}
+	}
+	
+	/**
+	 * Plays one game to the end with the given policy and records it.
+	 * 
+	 * @param game MinesweeperController holding a new game
+	 * @param policy MovePolicy choosing the moves
+	 * @param random SeededRandom stream of this game
+	 * @param result SimulationResult to record the game in
+	 * @throws IllegalStateException if the policy chooses a square that cannot be revealed
+	 */
+	static void playGame(MinesweeperController game, MovePolicy policy, SeededRandom random, SimulationResult result) {
+		int cols = game.numCols();
+		boolean guessed = false;
+		policy.newGame(game);
+		while (true) {
+			boolean first = !game.getInit();
+			int cell = policy.nextMove(game, random);
+			boolean guess = !first && policy.wasGuess();
+			guessed |= guess;
+			try {
+				game.putTurn(cell / cols, cell % cols);
+			} catch (HitMineException e) {
+				result.recordMineHit(guess);
+				result.recordGame(false, guessed);
+				return;
+			} catch (IllegalMoveException e) {
+				throw new IllegalStateException("The move policy chose a square that cannot be revealed: "
+						+ e.getLocalizedMessage(), e);
+			}
+			result.recordReveal(game.getLastRevealed().size(), guess);
+			if (game.isGameWon()) {
+				result.recordGame(true, guessed);
+				return;
+			}
+		}
+	}
+	
+	/**
+	 * Purpose: Runs one batch from the command line and prints its report.
+	 * 
+	 * @param args String[] rows, cols, mines and games, then optionally the policy ("single", 
+	 * "constraint" or "random"), the shape and the seed
+	 */
+	public static void main(String[] args) {
+		if (args.length < 4) {
+			System.err.println("usage: MonteCarloSimulator rows cols mines games [single|constraint|random] [shape] [seed]");
+			System.exit(2);
+		}
+		String policy = args.length > 4 ? args[4] : "single";
+		String shape = args.length > 5 ? args[5] : "square";
+		long seed = args.length > 6 ? Long.parseLong(args[6]) : System.nanoTime();
+		SimulationConfig config = new SimulationConfig(Integer.parseInt(args[0]), Integer.parseInt(args[1]),
+				Integer.parseInt(args[2]), "Custom", shape, Long.parseLong(args[3]), seed);
+		Supplier<MovePolicy> policies;
+		if (policy.equals("random")) {
+			policies = RandomPolicy::new;
+		} else if (policy.equals("constraint")) {
+			policies = ConstraintPolicy::new;
+		} else {
+			policies = SinglePointPolicy::new;
+		}
+		System.out.println(config + ", " + policy + " policy");
+		System.out.print(new MonteCarloSimulator().run(config, policies));
+	}
+}
@@ -0,0 +1,48 @@
+package simulator;
+
+import controller.MinesweeperController;
+import model.SeededRandom;
+
+/**
+ * File: MovePolicy.java
+ * Assignment: Minesweeper
+ * Course: CSC 335; Spring 2021
+ * 
+ * This interface is a strategy the MonteCarloSimulator plays games with. Each simulator thread 
+ * makes its own policy, so a policy may keep state between moves and between games without any 
+ * locking; it is told when a new game starts and is then asked for one move at a time until the 
+ * game is won or lost.
+ * 
+ * @author Caroline Hyland
+ * @author James O'Connell
+ * @author Nicholas Leluan
+ * @author Christian Trejo
+ */
+public interface MovePolicy {
+	
+	/**
+	 * Purpose: Called before the first move of every game, with a new board that has not had
+	 * its first click yet.
+	 * 
+	 * @param game MinesweeperController of the new game
+	 */
+	void newGame(MinesweeperController game);
+	
+	/**
+	 * Purpose: Chooses the next square to reveal. The square must exist and be hidden, and not 
+	 * be flagged.
+	 * 
+	 * @param game MinesweeperController of the game in progress
+	 * @param random SeededRandom stream of this game, to be used for every random choice
+	 * @return int flat index (row*cols+col) of the square to reveal
+	 */
+	int nextMove(MinesweeperController game, SeededRandom random);
+	
+	/**
+	 * Purpose: Returns whether the square last returned by nextMove() was a guess, meaning the
+	 * policy could not tell it was safe from what had been revealed.
+	 * 
+	 * @return boolean expressing whether the last move was a guess
+	 */
+	boolean wasGuess();
+}
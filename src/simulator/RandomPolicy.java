@@ -0,0 +1,104 @@
+package simulator;
+
+import java.util.BitSet;
+
+import controller.MinesweeperController;
+import model.MinesweeperBoard;
+import model.MinesweeperModel;
+import model.SeededRandom;
+
+/**
+ * File: RandomPolicy.java
+ * Assignment: Minesweeper
+ * Course: CSC 335; Spring 2021
+ * 
+ * This class is the simplest MovePolicy: every move reveals a hidden square chosen uniformly at 
+ * random, and every move is a guess. It gives the baseline win rate that smarter policies are 
+ * measured against.
+ * 
+ * @author Caroline Hyland
+ * @author James O'Connell
+ * @author Nicholas Leluan
+ * @author Christian Trejo
+ */
+public class RandomPolicy implements MovePolicy {
+	
+	/**
+	 * Purpose: Nothing is kept between games.
+	 * 
+	 * @param game MinesweeperController of the new game
+	 */
+	@Override
+	public void newGame(MinesweeperController game) {
+	}
+	
+	/**
+	 * Purpose: Returns a hidden square chosen uniformly at random.
+	 * 
+	 * @param game MinesweeperController of the game in progress
+	 * @param random SeededRandom stream of this game
+	 * @return int flat index of the square to reveal
+	 */
+	@Override
+	public int nextMove(MinesweeperController game, SeededRandom random) {
+		return randomHidden(game.getModel(), random, null);
+	}
+	
+	/**
+	 * Purpose: Every move of this policy is a guess.
+	 * 
+	 * @return boolean true
+	 */
+	@Override
+	public boolean wasGuess() {
+		return true;
+	}
+	
+	/**
+	 * Returns a hidden square, not in the given set of squares to avoid, chosen uniformly at 
+	 * random. A few squares are drawn from the whole board first, which is enough while much 
+	 * of it is hidden; failing that the hidden squares are counted and one is picked by rank.
+	 * 
+	 * @param model MinesweeperModel of the game in progress
+	 * @param random SeededRandom stream of this game
+	 * @param avoid BitSet of squares never to return, or null
+	 * @return int flat index of a hidden square
+	 * @throws IllegalStateException if no square is hidden
+	 */
+	static int randomHidden(MinesweeperModel model, SeededRandom random, BitSet avoid) {
+		int numCells = model.numRows() * model.numCols();
+		for (int attempt = 0; attempt < 32; attempt++) {
+			int cell = random.nextInt(numCells);
+			if (isCandidate(model, cell, avoid)) {
+				return cell;
+			}
+		}
+		int candidates = 0;
+		for (int cell = 0; cell < numCells; cell++) {
+			if (isCandidate(model, cell, avoid)) {
+				candidates++;
+			}
+		}
+		if (candidates == 0) {
+			throw new IllegalStateException("No hidden square is left to reveal.");
+		}
+		int rank = random.nextInt(candidates);
+		for (int cell = 0; ; cell++) {
+			if (isCandidate(model, cell, avoid) && rank-- == 0) {
+				return cell;
+			}
+		}
+	}
+	
+	/**
+	 * Returns whether a square is hidden and not to be avoided.
+	 * 
+	 * @param model MinesweeperModel of the game in progress
+	 * @param cell int flat index of the square
+	 * @param avoid BitSet of squares to avoid, or null
+	 * @return boolean expressing whether the square may be revealed
+	 */
+	private static boolean isCandidate(MinesweeperModel model, int cell, BitSet avoid) {
+		return model.getVisibility(cell) == MinesweeperBoard.INVISIBLE && (avoid == null || !avoid.get(cell));
+	}
+}
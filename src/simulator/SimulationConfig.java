@@ -0,0 +1,124 @@
+package simulator;
+
+/**
+ * File: SimulationConfig.java
+ * Assignment: Minesweeper
+ * Course: CSC 335; Spring 2021
+ * 
+ * This class describes one batch of simulated games: the board every game is played on (its 
+ * size, number of mines, difficulty and shape), how many games to play and the seed all of the 
+ * games' boards and random choices are drawn from. Instances are immutable.
+ * 
+ * @author Caroline Hyland
+ * @author James O'Connell
+ * @author Nicholas Leluan
+ * @author Christian Trejo
+ */
+public final class SimulationConfig {
+	
+	private final int rows;
+	private final int cols;
+	private final int mines;
+	private final String difficulty;
+	private final String shape;
+	private final long games;
+	private final long seed;
+	
+	/**
+	 * Constructs a new SimulationConfig.
+	 * 
+	 * @param rows int number of rows of every board
+	 * @param cols int number of columns of every board
+	 * @param mines int number of mines on every board
+	 * @param difficulty String difficulty of every board
+	 * @param shape String shape of every board
+	 * @param games long number of games to play
+	 * @param seed long seed of the whole batch
+	 * @throws IllegalArgumentException if the number of games is negative
+	 */
+	public SimulationConfig(int rows, int cols, int mines, String difficulty, String shape, long games, long seed) {
+		if (games < 0) {
+			throw new IllegalArgumentException("games must not be negative: " + games);
+		}
+		this.rows = rows;
+		this.cols = cols;
+		this.mines = mines;
+		this.difficulty = difficulty;
+		this.shape = shape;
+		this.games = games;
+		this.seed = seed;
+	}
+	
+	/**
+	 * Purpose: Returns the number of rows of every board.
+	 * 
+	 * @return int number of rows
+	 */
+	public int getRows() {
+		return rows;
+	}
+	
+	/**
+	 * Purpose: Returns the number of columns of every board.
+	 * 
+	 * @return int number of columns
+	 */
+	public int getCols() {
+		return cols;
+	}
+	
+	/**
+	 * Purpose: Returns the number of mines on every board.
+	 * 
+	 * @return int number of mines
+	 */
+	public int getMines() {
+		return mines;
+	}
+	
+	/**
+	 * Purpose: Returns the difficulty of every board.
+	 * 
+	 * @return String difficulty
+	 */
+	public String getDifficulty() {
+		return difficulty;
+	}
+	
+	/**
+	 * Purpose: Returns the shape of every board.
+	 * 
+	 * @return String shape
+	 */
+	public String getShape() {
+		return shape;
+	}
+	
+	/**
+	 * Purpose: Returns the number of games to play.
+	 * 
+	 * @return long number of games
+	 */
+	public long getGames() {
+		return games;
+	}
+	
+	/**
+	 * Purpose: Returns the seed of the whole batch.
+	 * 
+	 * @return long seed
+	 */
+	public long getSeed() {
+		return seed;
+	}
+	
+	/**
+	 * This overrides the toString method of the Object class to describe the batch.
+	 * 
+	 * @return String describing the board and number of games
+	 */
+	@Override
+	public String toString() {
+		return String.format("%s %s %dx%d, %d mines, %d games, seed %d", difficulty, shape, rows, cols, mines, games, seed);
+	}
+}
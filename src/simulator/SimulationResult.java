@@ -0,0 +1,260 @@
+package simulator;
+
+/**
+ * File: SimulationResult.java
+ * Assignment: Minesweeper
+ * Course: CSC 335; Spring 2021
+ * 
+ * This class holds the statistics of a batch of simulated games: wins, losses, moves, guesses, 
+ * the sizes of the cascades opened by each move, and how long the batch took.
+ * 
+ * Each simulator thread records into its own SimulationResult, with no sharing or locking, and 
+ * the results of all the threads are merged once at the end. Instances are therefore not thread 
+ * safe.
+ * 
+ * @author Caroline Hyland
+ * @author James O'Connell
+ * @author Nicholas Leluan
+ * @author Christian Trejo
+ */
+public class SimulationResult {
+	
+	/**
+	 * Number of buckets of the cascade histogram; bucket k counts cascades of 2^k to 2^(k+1)-1 
+	 * squares.
+	 */
+	public static final int CASCADE_BUCKETS = 32;
+	
+	private long games;
+	private long wins;
+	private long losses;
+	private long moves;
+	private long guesses;
+	private long gamesGuessed;
+	private long cascades;
+	private long cascadeSquares;
+	private int maxCascade;
+	private long[] cascadeHistogram = new long[CASCADE_BUCKETS];
+	private long elapsedNanos;
+	
+	/**
+	 * Records one safe move and the number of squares it revealed.
+	 * 
+	 * @param revealed int number of squares revealed by the move, at least 1
+	 * @param guess boolean expressing whether the move was a guess
+	 */
+	void recordReveal(int revealed, boolean guess) {
+		moves++;
+		if (guess) {
+			guesses++;
+		}
+		cascades++;
+		cascadeSquares += revealed;
+		maxCascade = Math.max(maxCascade, revealed);
+		cascadeHistogram[31 - Integer.numberOfLeadingZeros(revealed)]++;
+	}
+	
+	/**
+	 * Records a move that hit a mine.
+	 * 
+	 * @param guess boolean expressing whether the move was a guess
+	 */
+	void recordMineHit(boolean guess) {
+		moves++;
+		if (guess) {
+			guesses++;
+		}
+	}
+	
+	/**
+	 * Records the end of a game.
+	 * 
+	 * @param won boolean expressing whether the game was won
+	 * @param guessed boolean expressing whether any move of the game was a guess
+	 */
+	void recordGame(boolean won, boolean guessed) {
+		games++;
+		if (won) {
+			wins++;
+		} else {
+			losses++;
+		}
+		if (guessed) {
+			gamesGuessed++;
+		}
+	}
+	
+	/**
+	 * Sets the wall clock time the batch took.
+	 * 
+	 * @param nanos long elapsed time in nanoseconds
+	 */
+	void setElapsedNanos(long nanos) {
+		elapsedNanos = nanos;
+	}
+	
+	/**
+	 * Purpose: Adds the counts of another result to this one. The elapsed time is not added, 
+	 * as the results being merged were recorded at the same time.
+	 * 
+	 * @param other SimulationResult to add
+	 */
+	public void merge(SimulationResult other) {
+		games += other.games;
+		wins += other.wins;
+		losses += other.losses;
+		moves += other.moves;
+		guesses += other.guesses;
+		gamesGuessed += other.gamesGuessed;
+		cascades += other.cascades;
+		cascadeSquares += other.cascadeSquares;
+		maxCascade = Math.max(maxCascade, other.maxCascade);
+		for (int bucket = 0; bucket < CASCADE_BUCKETS; bucket++) {
+			cascadeHistogram[bucket] += other.cascadeHistogram[bucket];
+		}
+	}
+	
+	/**
+	 * Purpose: Returns the number of games played.
+	 * 
+	 * @return long number of games
+	 */
+	public long getGames() {
+		return games;
+	}
+	
+	/**
+	 * Purpose: Returns the number of games won.
+	 * 
+	 * @return long number of wins
+	 */
+	public long getWins() {
+		return wins;
+	}
+	
+	/**
+	 * Purpose: Returns the number of games lost.
+	 * 
+	 * @return long number of losses
+	 */
+	public long getLosses() {
+		return losses;
+	}
+	
+	/**
+	 * Purpose: Returns the number of moves made in all games.
+	 * 
+	 * @return long number of moves
+	 */
+	public long getMoves() {
+		return moves;
+	}
+	
+	/**
+	 * Purpose: Returns the number of moves that were guesses. The first click of a game is 
+	 * never a guess, as it is always safe.
+	 * 
+	 * @return long number of guesses
+	 */
+	public long getGuesses() {
+		return guesses;
+	}
+	
+	/**
+	 * Purpose: Returns the number of games in which at least one guess was made.
+	 * 
+	 * @return long number of games that needed a guess
+	 */
+	public long getGamesGuessed() {
+		return gamesGuessed;
+	}
+	
+	/**
+	 * Purpose: Returns the number of safe moves, each of which opened a cascade of one or 
+	 * more squares.
+	 * 
+	 * @return long number of cascades
+	 */
+	public long getCascades() {
+		return cascades;
+	}
+	
+	/**
+	 * Purpose: Returns the mean number of squares revealed by a safe move.
+	 * 
+	 * @return double mean cascade size, or 0 if there were none
+	 */
+	public double getMeanCascade() {
+		return cascades == 0 ? 0 : (double) cascadeSquares / cascades;
+	}
+	
+	/**
+	 * Purpose: Returns the largest number of squares revealed by one move.
+	 * 
+	 * @return int largest cascade size
+	 */
+	public int getMaxCascade() {
+		return maxCascade;
+	}
+	
+	/**
+	 * Purpose: Returns the number of cascades whose size is from 2^bucket to 2^(bucket+1)-1.
+	 * 
+	 * @param bucket int bucket index from 0 to CASCADE_BUCKETS-1
+	 * @return long number of cascades in the bucket
+	 */
+	public long getCascadeCount(int bucket) {
+		return cascadeHistogram[bucket];
+	}
+	
+	/**
+	 * Purpose: Returns the fraction of games won.
+	 * 
+	 * @return double win rate from 0 to 1, or 0 if no game was played
+	 */
+	public double getWinRate() {
+		return games == 0 ? 0 : (double) wins / games;
+	}
+	
+	/**
+	 * Purpose: Returns the wall clock time the batch took.
+	 * 
+	 * @return long elapsed time in nanoseconds
+	 */
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+	
+	/**
+	 * Purpose: Returns the number of games played per second of wall clock time.
+	 * 
+	 * @return double games per second, or 0 if no time was recorded
+	 */
+	public double getGamesPerSecond() {
+		return elapsedNanos == 0 ? 0 : games * 1e9 / elapsedNanos;
+	}
+	
+	/**
+	 * This overrides the toString method of the Object class to give a short report of the 
+	 * batch, one statistic per line.
+	 * 
+	 * @return String report of the batch
+	 */
+	@Override
+	public String toString() {
+		StringBuilder report = new StringBuilder();
+		report.append(String.format("games        %d%n", games));
+		report.append(String.format("wins         %d (%.2f%%)%n", wins, 100 * getWinRate()));
+		report.append(String.format("losses       %d%n", losses));
+		report.append(String.format("moves        %d%n", moves));
+		report.append(String.format("guesses      %d in %d games%n", guesses, gamesGuessed));
+		report.append(String.format("cascades     %d, mean %.2f, max %d squares%n", cascades, getMeanCascade(), maxCascade));
+		for (int bucket = 0; bucket < CASCADE_BUCKETS; bucket++) {
+			if (cascadeHistogram[bucket] != 0) {
+				report.append(String.format("  %8d+    %d%n", 1L << bucket, cascadeHistogram[bucket]));
+			}
+		}
+		report.append(String.format("games/sec    %.0f%n", getGamesPerSecond()));
+		return report.toString();
+	}
+}
@@ -0,0 +1,188 @@
+package simulator;
+
+import java.util.BitSet;
+
+import controller.MinesweeperController;
+import model.MinesweeperBoard;
+import model.MinesweeperModel;
+import model.SeededRandom;
+
+/**
+ * File: SinglePointPolicy.java
+ * Assignment: Minesweeper
+ * Course: CSC 335; Spring 2021
+ * 
+ * This class is a MovePolicy that plays the way most people do. The first click is in the 
+ * middle of the board, where the opening tends to be largest. After that it looks at one 
+ * revealed number at a time: if the number already touches as many known mines as it says, 
+ * every other hidden square around it is safe, and if it touches exactly as many hidden 
+ * squares as it has mines left, every one of them is a mine. Known mines are only remembered 
+ * by the policy, never flagged, so the board's flag count is not used up. When neither rule 
+ * applies anywhere, it guesses a random hidden square that is not a known mine.
+ * 
+ * Safe squares found by one scan are queued and played before the board is scanned again.
+ * 
+ * @author Caroline Hyland
+ * @author James O'Connell
+ * @author Nicholas Leluan
+ * @author Christian Trejo
+ */
+public class SinglePointPolicy implements MovePolicy {
+	
+	/**
+	 * Squares this policy has shown to be mines in the current game.
+	 */
+	private BitSet knownMines = new BitSet();
+	
+	/**
+	 * Squares shown to be safe that are still to be played, used as a stack.
+	 */
+	private int[] safe = new int[64];
+	private int numSafe;
+	
+	/**
+	 * Buffer receiving the neighbors of the square being looked at.
+	 */
+	private int[] neighbors = new int[8];
+	
+	/**
+	 * Whether the last move returned was a guess.
+	 */
+	private boolean guessed;
+	
+	/**
+	 * Purpose: Forgets the known mines and safe squares of the previous game.
+	 * 
+	 * @param game MinesweeperController of the new game
+	 */
+	@Override
+	public void newGame(MinesweeperController game) {
+		knownMines.clear();
+		numSafe = 0;
+	}
+	
+	/**
+	 * Purpose: Returns a square known to be safe if there is one, or else a guess.
+	 * 
+	 * @param game MinesweeperController of the game in progress
+	 * @param random SeededRandom stream of this game, used for guesses
+	 * @return int flat index of the square to reveal
+	 */
+	@Override
+	public int nextMove(MinesweeperController game, SeededRandom random) {
+		MinesweeperModel model = game.getModel();
+		guessed = false;
+		if (!game.getInit()) {
+			int middle = model.cellIndex(game.numRows() / 2, game.numCols() / 2);
+			if (model.getVisibility(middle) == MinesweeperBoard.INVISIBLE) {
+				return middle;
+			}
+			return RandomPolicy.randomHidden(model, random, null); //the middle is not part of this shape
+		}
+		int cell = popSafe(model);
+		if (cell < 0) {
+			deduce(model);
+			cell = popSafe(model);
+		}
+		if (cell >= 0) {
+			return cell;
+		}
+		guessed = true;
+		return RandomPolicy.randomHidden(model, random, knownMines);
+	}
+	
+	/**
+	 * Purpose: Returns whether the last move was a guess.
+	 * 
+	 * @return boolean expressing whether the last move was a guess
+	 */
+	@Override
+	public boolean wasGuess() {
+		return guessed;
+	}
+	
+	/**
+	 * Pops queued safe squares until one is found that is still hidden; earlier moves may 
+	 * have revealed the others already.
+	 * 
+	 * @param model MinesweeperModel of the game in progress
+	 * @return int flat index of a hidden safe square, or -1 if none is queued
+	 */
+	private int popSafe(MinesweeperModel model) {
+		while (numSafe > 0) {
+			int cell = safe[--numSafe];
+			if (model.getVisibility(cell) == MinesweeperBoard.INVISIBLE) {
+				return cell;
+			}
+		}
+		return -1;
+	}
+	
+	/**
+	 * Scans every revealed number, applying both rules, until a scan finds a safe square or 
+	 * marks no new mine. Safe squares are queued; mines are added to knownMines.
+	 * 
+	 * @param model MinesweeperModel of the game in progress
+	 */
+	private void deduce(MinesweeperModel model) {
+		int numCells = model.numRows() * model.numCols();
+		boolean marked = true;
+		while (marked && numSafe == 0) {
+			marked = false;
+			for (int cell = 0; cell < numCells; cell++) {
+				int val = model.getVal(cell);
+				if (val <= 0 || val == MinesweeperBoard.MINE || model.getVisibility(cell) != MinesweeperBoard.VISIBLE) {
+					continue;
+				}
+				int numNeighbors = model.getNeighbors(cell, neighbors);
+				int hidden = 0;
+				int mines = 0;
+				for (int idx = 0; idx < numNeighbors; idx++) {
+					int neighbor = neighbors[idx];
+					if (model.getVisibility(neighbor) == MinesweeperBoard.INVISIBLE) {
+						if (knownMines.get(neighbor)) {
+							mines++;
+						} else {
+							hidden++;
+						}
+					}
+				}
+				if (hidden == 0) {
+					continue;
+				}
+				if (mines == val) {
+					//every other hidden neighbor is safe
+					for (int idx = 0; idx < numNeighbors; idx++) {
+						int neighbor = neighbors[idx];
+						if (model.getVisibility(neighbor) == MinesweeperBoard.INVISIBLE && !knownMines.get(neighbor)) {
+							pushSafe(neighbor);
+						}
+					}
+				} else if (val - mines == hidden) {
+					//every other hidden neighbor is a mine
+					for (int idx = 0; idx < numNeighbors; idx++) {
+						int neighbor = neighbors[idx];
+						if (model.getVisibility(neighbor) == MinesweeperBoard.INVISIBLE) {
+							knownMines.set(neighbor);
+						}
+					}
+					marked = true;
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Queues a safe square, growing the stack when it is full.
+	 * 
+	 * @param cell int flat index of the safe square
+	 */
+	private void pushSafe(int cell) {
+		if (numSafe == safe.length) {
+			int[] grown = new int[safe.length * 2];
+			System.arraycopy(safe, 0, grown, 0, numSafe);
+			safe = grown;
+		}
+		safe[numSafe++] = cell;
+	}
+}
@@ -0,0 +1,453 @@
+package solver;
+
+import java.util.BitSet;
+
+import model.BoardListener;
+import model.ChangeSet;
+import model.MinesweeperBoard;
+import model.MinesweeperModel;
+
+/**
+ * File: ConstraintSolver.java
+ * Assignment: Minesweeper
+ * Course: CSC 335; Spring 2021
+ *
+ * This class finds the hidden squares that can be proven safe, and those that can be proven
+ * to be mines, from what the player can see. It only ever reads the values of revealed squares
+ * through the MinesweeperModel, so it knows no more than the player does. Flags are the
+ * player's guesses and are treated like any other hidden square.
+ *
+ * Every revealed number is a constraint: its hidden neighbors that are not yet known hold
+ * exactly its value less the mines already known around it. Two rules are applied:
+ * - single: if a constraint has no mines left its unknown squares are safe, and if it has as
+ * many mines left as unknown squares they are all mines
+ * - pair: for two constraints A and B sharing a square, if A has as many more mines than B as
+ * it has squares B does not, those squares are all mines and the squares only B has are safe.
+ * This covers the subset case, where A's squares are all B's.
+ *
+ * The solver is a BoardListener and works incrementally. After each move only the constraints
+ * on or touching the changed squares are evaluated, and a constraint is evaluated again only
+ * when a square around it is proven. The work per move therefore follows the size of the move,
+ * not the size of the board, and it can run after every click on boards of millions of squares.
+ * The squares proven are the same as if every constraint were evaluated until none changed.
+ *
+ * @author Caroline Hyland
+ * @author James O'Connell
+ * @author Nicholas Leluan
+ * @author Christian Trejo
+ */
+public class ConstraintSolver implements BoardListener {
+
+	/**
+	 * Model whose revealed squares are read.
+	 */
+	private MinesweeperModel model;
+
+	/**
+	 * Hidden squares proven to be mines.
+	 */
+	private BitSet knownMines = new BitSet();
+	private int numMines;
+
+	/**
+	 * Hidden squares proven to be safe; cleared as they are revealed.
+	 */
+	private BitSet knownSafe = new BitSet();
+	private int numSafe;
+
+	/**
+	 * Constraints waiting to be evaluated, used as a stack, and the mark of each one queued.
+	 */
+	private int[] pending = new int[64];
+	private int numPending;
+	private BitSet queued = new BitSet();
+
+	/**
+	 * Number of constraints evaluated since the last move.
+	 */
+	private int evaluations;
+
+	/**
+	 * Unknown squares and mines left of the constraint being evaluated and of the one it is
+	 * being paired with.
+	 */
+	private int[] unknownA = new int[8];
+	private int[] unknownB = new int[8];
+	private int sizeA;
+	private int minesA;
+
+	/**
+	 * Number of mines left among the squares last listed by unknowns().
+	 */
+	private int minesLeft;
+
+	/**
+	 * Buffers receiving the neighbors of a constraint and of one of its squares.
+	 */
+	private int[] neighbors = new int[8];
+	private int[] around = new int[8];
+
+	/**
+	 * Constraints already paired with the one being evaluated; at most the 24 squares within
+	 * two steps of it.
+	 */
+	private int[] paired = new int[64];
+
+	/**
+	 * Constructs a new solver for the given model and evaluates every number already revealed,
+	 * so it can also be started on a game in progress. It must be added as a listener of the
+	 * model, or of its controller, to follow later moves.
+	 *
+	 * @param model MinesweeperModel whose revealed squares are read
+	 */
+	public ConstraintSolver(MinesweeperModel model) {
+		this.model = model;
+		rescan();
+	}
+
+	/**
+	 * Purpose: Forgets everything proven and evaluates every revealed number again. This is
+	 * only needed if the board was changed without the solver being told.
+	 */
+	public void rescan() {
+		knownMines.clear();
+		numMines = 0;
+		knownSafe.clear();
+		numSafe = 0;
+		queued.clear();
+		numPending = 0;
+		evaluations = 0;
+		int numCells = model.numRows() * model.numCols();
+		for (int cell = 0; cell < numCells; cell++) {
+			if (isNumber(cell)) {
+				push(cell);
+			}
+		}
+		propagate();
+	}
+
+	/**
+	 * Purpose: Evaluates the constraints on and around the squares changed by a move, and
+	 * every constraint touched by what that proves. The numbers around a revealed empty square
+	 * are queued too, as numbers revealed by earlier moves may have lost an unknown square.
+	 *
+	 * @param source MinesweeperModel the move was made on
+	 * @param changes ChangeSet of the squares whose visibility changed
+	 */
+	@Override
+	public void boardChanged(MinesweeperModel source, ChangeSet changes) {
+		evaluations = 0;
+		changes.forEach(cell -> {
+			if (model.getVisibility(cell) != MinesweeperBoard.VISIBLE) {
+				return; //a flag placed or removed changes no constraint
+			}
+			if (knownSafe.get(cell)) {
+				knownSafe.clear(cell);
+				numSafe--;
+			}
+			if (model.getVal(cell) == MinesweeperBoard.MINE) {
+				return;
+			}
+			if (isNumber(cell)) {
+				push(cell);
+			}
+			pushNumbersAround(cell);
+		});
+		propagate();
+	}
+
+	/**
+	 * Purpose: Returns whether the given square is hidden and proven safe.
+	 *
+	 * @param cell int flat index of the square
+	 * @return boolean expressing whether the square is known to be safe
+	 */
+	public boolean isSafe(int cell) {
+		return knownSafe.get(cell);
+	}
+
+	/**
+	 * Purpose: Returns whether the given square is hidden and proven to be a mine.
+	 *
+	 * @param cell int flat index of the square
+	 * @return boolean expressing whether the square is known to be a mine
+	 */
+	public boolean isMine(int cell) {
+		return knownMines.get(cell);
+	}
+
+	/**
+	 * Purpose: Returns the first square from the given one on that is proven safe and can be
+	 * revealed, skipping safe squares the player has flagged, or -1 if there is none.
+	 *
+	 * @param from int flat index to start looking from
+	 * @return int flat index of a safe hidden square, or -1
+	 */
+	public int nextSafe(int from) {
+		for (int cell = knownSafe.nextSetBit(from); cell >= 0; cell = knownSafe.nextSetBit(cell + 1)) {
+			if (model.getVisibility(cell) == MinesweeperBoard.INVISIBLE) {
+				return cell;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Purpose: Returns the number of hidden squares proven safe.
+	 *
+	 * @return int number of known safe squares
+	 */
+	public int numSafe() {
+		return numSafe;
+	}
+
+	/**
+	 * Purpose: Returns the squares proven to be mines. The set is the solver's own and is 
+	 * updated by later moves, so it must not be changed.
+	 *
+	 * @return BitSet of the known mines
+	 */
+	public BitSet getKnownMines() {
+		return knownMines;
+	}
+
+	/**
+	 * Purpose: Returns the number of squares proven to be mines.
+	 *
+	 * @return int number of known mines
+	 */
+	public int numMines() {
+		return numMines;
+	}
+
+	/**
+	 * Purpose: Returns the number of constraints evaluated for the last move, or by the last
+	 * rescan. It shows how much of the board the last update had to look at.
+	 *
+	 * @return int number of constraints evaluated
+	 */
+	public int getEvaluations() {
+		return evaluations;
+	}
+
+	/**
+	 * Evaluates queued constraints until none is left.
+	 */
+	private void propagate() {
+		while (numPending > 0) {
+			int cell = pending[--numPending];
+			queued.clear(cell);
+			evaluations++;
+			evaluate(cell);
+		}
+	}
+
+	/**
+	 * Applies the single rule to one constraint and, if it proves nothing, the pair rule with
+	 * every constraint sharing one of its unknown squares.
+	 *
+	 * @param cell int flat index of the revealed number
+	 */
+	private void evaluate(int cell) {
+		sizeA = unknowns(cell, unknownA);
+		minesA = minesLeft;
+		if (sizeA == 0) {
+			return;
+		}
+		if (minesA == 0) {
+			proveAll(unknownA, sizeA, false);
+			return;
+		}
+		if (minesA == sizeA) {
+			proveAll(unknownA, sizeA, true);
+			return;
+		}
+		int numPaired = 0;
+		for (int idx = 0; idx < sizeA; idx++) {
+			int numAround = model.getNeighbors(unknownA[idx], around);
+			for (int near = 0; near < numAround; near++) {
+				int other = around[near];
+				if (other == cell || !isNumber(other) || contains(paired, numPaired, other)) {
+					continue;
+				}
+				paired[numPaired++] = other;
+			}
+		}
+		for (int idx = 0; idx < numPaired; idx++) {
+			if (pair(paired[idx])) {
+				return; //unknownA changed; the proven squares queued this constraint again
+			}
+		}
+	}
+
+	/**
+	 * Applies the pair rule to the constraint being evaluated, held in unknownA, and the 
+	 * constraint of another revealed number, in both directions.
+	 *
+	 * @param other int flat index of the other revealed number
+	 * @return boolean expressing whether any square was proven
+	 */
+	private boolean pair(int other) {
+		int sizeB = unknowns(other, unknownB);
+		int minesB = minesLeft;
+		if (sizeB == 0) {
+			return false;
+		}
+		int onlyA = 0;
+		for (int idx = 0; idx < sizeA; idx++) {
+			if (!contains(unknownB, sizeB, unknownA[idx])) {
+				onlyA++;
+			}
+		}
+		int onlyB = sizeB - (sizeA - onlyA);
+		if (minesA - minesB == onlyA && (onlyA > 0 || onlyB > 0)) {
+			proveDifference(unknownA, sizeA, unknownB, sizeB, true);
+			proveDifference(unknownB, sizeB, unknownA, sizeA, false);
+			return true;
+		}
+		if (minesB - minesA == onlyB && (onlyA > 0 || onlyB > 0)) {
+			proveDifference(unknownB, sizeB, unknownA, sizeA, true);
+			proveDifference(unknownA, sizeA, unknownB, sizeB, false);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Lists the unknown squares around a revealed number into the given buffer and leaves the
+	 * number of mines among them in minesLeft.
+	 *
+	 * @param cell int flat index of the revealed number
+	 * @param out int[] buffer receiving the unknown squares
+	 * @return int number of unknown squares
+	 */
+	private int unknowns(int cell, int[] out) {
+		int numNeighbors = model.getNeighbors(cell, neighbors);
+		int size = 0;
+		int mines = model.getVal(cell);
+		for (int idx = 0; idx < numNeighbors; idx++) {
+			int neighbor = neighbors[idx];
+			if (model.getVisibility(neighbor) == MinesweeperBoard.VISIBLE || knownSafe.get(neighbor)) {
+				continue;
+			}
+			if (knownMines.get(neighbor)) {
+				mines--;
+			} else {
+				out[size++] = neighbor;
+			}
+		}
+		minesLeft = mines;
+		return size;
+	}
+
+	/**
+	 * Proves every square in from that is not in without.
+	 *
+	 * @param from int[] squares to prove
+	 * @param fromSize int number of squares in from
+	 * @param without int[] squares to leave alone
+	 * @param withoutSize int number of squares in without
+	 * @param mine boolean whether the squares are mines or safe
+	 */
+	private void proveDifference(int[] from, int fromSize, int[] without, int withoutSize, boolean mine) {
+		for (int idx = 0; idx < fromSize; idx++) {
+			if (!contains(without, withoutSize, from[idx])) {
+				prove(from[idx], mine);
+			}
+		}
+	}
+
+	/**
+	 * Proves every square in the given buffer.
+	 *
+	 * @param cells int[] squares to prove
+	 * @param size int number of squares
+	 * @param mine boolean whether the squares are mines or safe
+	 */
+	private void proveAll(int[] cells, int size, boolean mine) {
+		for (int idx = 0; idx < size; idx++) {
+			prove(cells[idx], mine);
+		}
+	}
+
+	/**
+	 * Records a square as a mine or as safe and queues every constraint around it, as each of
+	 * them has lost an unknown square.
+	 *
+	 * @param cell int flat index of the proven square
+	 * @param mine boolean whether the square is a mine or safe
+	 */
+	private void prove(int cell, boolean mine) {
+		if (mine) {
+			knownMines.set(cell);
+			numMines++;
+		} else {
+			knownSafe.set(cell);
+			numSafe++;
+		}
+		pushNumbersAround(cell);
+	}
+
+	/**
+	 * Queues every revealed number around the given square.
+	 *
+	 * @param cell int flat index of the square
+	 */
+	private void pushNumbersAround(int cell) {
+		int numAround = model.getNeighbors(cell, around);
+		for (int idx = 0; idx < numAround; idx++) {
+			if (isNumber(around[idx])) {
+				push(around[idx]);
+			}
+		}
+	}
+
+	/**
+	 * Returns whether a square is a revealed number, and so a constraint.
+	 *
+	 * @param cell int flat index of the square
+	 * @return boolean expressing whether the square is a revealed number
+	 */
+	private boolean isNumber(int cell) {
+		if (model.getVisibility(cell) != MinesweeperBoard.VISIBLE) {
+			return false;
+		}
+		int val = model.getVal(cell);
+		return val > 0 && val != MinesweeperBoard.MINE;
+	}
+
+	/**
+	 * Queues a constraint unless it is already queued, growing the stack when it is full.
+	 *
+	 * @param cell int flat index of the revealed number
+	 */
+	private void push(int cell) {
+		if (queued.get(cell)) {
+			return;
+		}
+		queued.set(cell);
+		if (numPending == pending.length) {
+			int[] grown = new int[pending.length * 2];
+			System.arraycopy(pending, 0, grown, 0, numPending);
+			pending = grown;
+		}
+		pending[numPending++] = cell;
+	}
+
+	/**
+	 * Returns whether the first size entries of the given buffer hold the given square.
+	 *
+	 * @param cells int[] buffer of squares
+	 * @param size int number of squares in the buffer
+	 * @param cell int flat index of the square
+	 * @return boolean expressing whether the square is in the buffer
+	 */
+	private static boolean contains(int[] cells, int size, int cell) {
+		for (int idx = 0; idx < size; idx++) {
+			if (cells[idx] == cell) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
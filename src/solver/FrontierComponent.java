@@ -0,0 +1,326 @@
+package solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * File: FrontierComponent.java
+ * Assignment: Minesweeper
+ * Course: CSC 335; Spring 2021
+ *
+ * This class counts the mine layouts of one connected part of the frontier: a set of hidden
+ * squares and the revealed numbers around them, such that no number outside the set touches
+ * any of its squares. For every possible number of mines in the set it finds how many layouts
+ * agree with every number, and how many of those put a mine on each square.
+ *
+ * The squares are taken one at a time in breadth-first order, so only the numbers that touch
+ * both squares already taken and squares still to come are "open" at any step. Layouts that
+ * leave the open numbers needing the same mines are interchangeable from there on, so they are
+ * merged into one state; a forward pass counts the ways to reach each state and a backward pass
+ * the ways to finish from it. A state is dropped as soon as a number needs fewer than zero mines
+ * or more mines than it has squares left. The work grows with the number of states, which stays
+ * small along the thin bands frontiers form, rather than with the number of layouts.
+ *
+ * Counts are scaled so the largest is 1; only their ratios are used.
+ *
+ * @author Caroline Hyland
+ * @author James O'Connell
+ * @author Nicholas Leluan
+ * @author Christian Trejo
+ */
+class FrontierComponent {
+
+	/**
+	 * Flat indices of the squares, in the order they are taken.
+	 */
+	final int[] cells;
+
+	/**
+	 * Scaled number of layouts with each number of mines.
+	 */
+	double[] ways;
+
+	/**
+	 * Scaled number of layouts with each number of mines that put a mine on each square,
+	 * indexed by position in cells and then by number of mines.
+	 */
+	double[][] mineWays;
+
+	/**
+	 * Positions in cells of the squares of each number, and the mines each number needs.
+	 */
+	private final int[][] constraints;
+	private final int[] values;
+
+	/**
+	 * Constructs a new component, which is counted by solve().
+	 *
+	 * @param cells int[] flat indices of the squares, in the order to take them
+	 * @param constraints int[][] positions in cells of the squares around each number
+	 * @param values int[] mines around each number
+	 */
+	FrontierComponent(int[] cells, int[][] constraints, int[] values) {
+		this.cells = cells;
+		this.constraints = constraints;
+		this.values = values;
+	}
+
+	/**
+	 * Counts the layouts of the component, filling in ways and mineWays.
+	 *
+	 * @throws IllegalStateException if no layout agrees with every number
+	 */
+	void solve() {
+		int size = cells.length;
+		int numConstraints = constraints.length;
+		int[] first = new int[numConstraints];
+		int[] last = new int[numConstraints];
+		ArrayList<ArrayList<Integer>> touching = new ArrayList<ArrayList<Integer>>();
+		for (int pos = 0; pos < size; pos++) {
+			touching.add(new ArrayList<Integer>());
+		}
+		for (int con = 0; con < numConstraints; con++) {
+			first[con] = Integer.MAX_VALUE;
+			for (int pos : constraints[con]) {
+				first[con] = Math.min(first[con], pos);
+				last[con] = Math.max(last[con], pos);
+				touching.get(pos).add(con);
+			}
+		}
+
+		//open[step] lists the numbers open once the squares before position step are taken
+		int[][] open = new int[size + 1][];
+		int[][] left = new int[size + 1][];
+		for (int step = 0; step <= size; step++) {
+			int count = 0;
+			for (int con = 0; con < numConstraints; con++) {
+				if (first[con] < step && last[con] >= step) {
+					count++;
+				}
+			}
+			open[step] = new int[count];
+			left[step] = new int[count];
+			count = 0;
+			for (int con = 0; con < numConstraints; con++) {
+				if (first[con] < step && last[con] >= step) {
+					open[step][count] = con;
+					for (int pos : constraints[con]) {
+						if (pos >= step) {
+							left[step][count]++;
+						}
+					}
+					count++;
+				}
+			}
+		}
+
+		//forward pass: the ways to reach each state, by mines placed so far
+		ArrayList<HashMap<State, Node>> layers = new ArrayList<HashMap<State, Node>>();
+		HashMap<State, Node> layer = new HashMap<State, Node>();
+		Node start = new Node(new State(new int[0]));
+		start.forward = new double[] {1};
+		layer.put(start.state, start);
+		layers.add(layer);
+		for (int pos = 0; pos < size; pos++) {
+			HashMap<State, Node> next = new HashMap<State, Node>();
+			for (Node node : layer.values()) {
+				for (int mine = 0; mine <= 1; mine++) {
+					int[] needs = step(node.state.needs, pos, mine, open, left, touching.get(pos), last);
+					if (needs == null) {
+						continue;
+					}
+					State state = new State(needs);
+					Node child = next.get(state);
+					if (child == null) {
+						child = new Node(state);
+						child.forward = new double[pos + 2];
+						next.put(state, child);
+					}
+					for (int placed = 0; placed < node.forward.length; placed++) {
+						child.forward[placed + mine] += node.forward[placed];
+					}
+					if (mine == 0) {
+						node.clear = child;
+					} else {
+						node.mined = child;
+					}
+				}
+			}
+			layer = next;
+			layers.add(layer);
+		}
+		if (layer.isEmpty()) {
+			throw new IllegalStateException("No mine layout agrees with the revealed numbers.");
+		}
+
+		//backward pass: the ways to finish from each state, by mines still to place
+		for (Node node : layer.values()) {
+			node.backward = new double[] {1};
+		}
+		for (int pos = size - 1; pos >= 0; pos--) {
+			int remaining = size - pos;
+			for (Node node : layers.get(pos).values()) {
+				double[] backward = new double[remaining + 1];
+				boolean reachable = false;
+				if (node.clear != null && node.clear.backward != null) {
+					addShifted(backward, node.clear.backward, 0);
+					reachable = true;
+				}
+				if (node.mined != null && node.mined.backward != null) {
+					addShifted(backward, node.mined.backward, 1);
+					reachable = true;
+				}
+				node.backward = reachable ? backward : null;
+			}
+		}
+
+		ways = start.backward;
+		mineWays = new double[size][size + 1];
+		for (int pos = 0; pos < size; pos++) {
+			for (Node node : layers.get(pos).values()) {
+				if (node.mined == null || node.mined.backward == null) {
+					continue;
+				}
+				double[] after = node.mined.backward;
+				for (int placed = 0; placed < node.forward.length; placed++) {
+					double before = node.forward[placed];
+					if (before == 0) {
+						continue;
+					}
+					for (int later = 0; later < after.length; later++) {
+						mineWays[pos][placed + 1 + later] += before * after[later];
+					}
+				}
+			}
+		}
+		scale();
+	}
+
+	/**
+	 * Returns the needs of the numbers open after taking the square at the given position,
+	 * or null if the choice breaks a number.
+	 *
+	 * @param needs int[] mines still needed by the numbers open before the square
+	 * @param pos int position of the square
+	 * @param mine int 1 if the square is a mine, else 0
+	 * @param open int[][] numbers open at each step
+	 * @param left int[][] squares left to each open number at each step
+	 * @param touching ArrayList of the numbers around the square
+	 * @param last int[] last position of each number
+	 * @return int[] mines still needed by the numbers open after the square, or null
+	 */
+	private int[] step(int[] needs, int pos, int mine, int[][] open, int[][] left,
+			ArrayList<Integer> touching, int[] last) {
+		for (int con : touching) {
+			if (last[con] == pos && need(con, needs, open[pos]) - mine != 0) {
+				return null; //the square was the number's last
+			}
+		}
+		int[] after = open[pos + 1];
+		int[] result = new int[after.length];
+		for (int idx = 0; idx < after.length; idx++) {
+			int con = after[idx];
+			int need = need(con, needs, open[pos]);
+			if (touching.contains(con)) {
+				need -= mine;
+			}
+			if (need < 0 || need > left[pos + 1][idx]) {
+				return null;
+			}
+			result[idx] = need;
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the mines a number still needs: its need in the state if it is open, or else
+	 * its value, since none of its squares have been taken.
+	 *
+	 * @param con int index of the number
+	 * @param needs int[] needs of the open numbers
+	 * @param open int[] open numbers, in the order of needs
+	 * @return int mines still needed
+	 */
+	private int need(int con, int[] needs, int[] open) {
+		for (int idx = 0; idx < open.length; idx++) {
+			if (open[idx] == con) {
+				return needs[idx];
+			}
+		}
+		return values[con];
+	}
+
+	/**
+	 * Divides every count by the largest number of layouts, keeping them within range of a
+	 * double on large components.
+	 */
+	private void scale() {
+		double max = 0;
+		for (double count : ways) {
+			max = Math.max(max, count);
+		}
+		for (int mines = 0; mines < ways.length; mines++) {
+			ways[mines] /= max;
+		}
+		for (double[] counts : mineWays) {
+			for (int mines = 0; mines < counts.length; mines++) {
+				counts[mines] /= max;
+			}
+		}
+	}
+
+	/**
+	 * Adds the given counts into the target, moved up by the given number of mines.
+	 *
+	 * @param target double[] counts to add to
+	 * @param counts double[] counts to add
+	 * @param shift int mines to move the counts up by
+	 */
+	private static void addShifted(double[] target, double[] counts, int shift) {
+		for (int mines = 0; mines < counts.length; mines++) {
+			target[mines + shift] += counts[mines];
+		}
+	}
+
+	/**
+	 * The mines still needed by the open numbers at one step.
+	 */
+	private static final class State {
+
+		private final int[] needs;
+		private final int hash;
+
+		private State(int[] needs) {
+			this.needs = needs;
+			this.hash = Arrays.hashCode(needs);
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			return other instanceof State && Arrays.equals(needs, ((State) other).needs);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+
+	/**
+	 * One state at one step, with its counts and the states each choice of the next square
+	 * leads to.
+	 */
+	private static final class Node {
+
+		private final State state;
+		private double[] forward;
+		private double[] backward;
+		private Node clear;
+		private Node mined;
+
+		private Node(State state) {
+			this.state = state;
+		}
+	}
+}
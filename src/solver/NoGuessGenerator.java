@@ -0,0 +1,176 @@
+package solver;
+
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import controller.MinesweeperController;
+import exceptions.HitMineException;
+import exceptions.IllegalMoveException;
+import highscore.HighScoreBoard;
+import model.MinesweeperBoard;
+import model.SeededRandom;
+
+/**
+ * File: NoGuessGenerator.java
+ * Assignment: Minesweeper
+ * Course: CSC 335; Spring 2021
+ *
+ * This class finds boards that can be won from the first click without guessing. It does not
+ * place mines itself; it searches for a seed whose board a ConstraintSolver can clear from the
+ * first click, and MinesweeperModel then generates that seed's board in the usual way. The seed
+ * is recorded on the board like any other, so the board can still be saved, loaded and rebuilt
+ * from a BoardSpec.
+ *
+ * The candidates are the board's own seed followed by seeds mixed from it and the candidate's
+ * number. Workers on the common ForkJoinPool take candidates from a shared counter, each one
+ * generating a scratch board and playing it with the solver. The first candidate cleared wins and
+ * the other workers stop at their next move. If none is found within the latency budget the
+ * search is abandoned, and the caller falls back to the ordinary board of its own seed. Which
+ * candidate wins can depend on thread timing when several workers run, but the seed returned
+ * always gives the same board.
+ *
+ * Scratch boards are not recorded in EngineMetrics or Flight Recorder, so a first click in
+ * no-guess mode counts as one turn and one generation however many candidates it tried.
+ *
+ * The solver only uses what the revealed numbers prove, not the number of mines left, so a
+ * few boards that could be finished by counting mines are passed over; every board accepted can
+ * be cleared by deduction alone.
+ *
+ * @author Caroline Hyland
+ * @author James O'Connell
+ * @author Nicholas Leluan
+ * @author Christian Trejo
+ */
+public class NoGuessGenerator {
+
+	/**
+	 * Default longest time in milliseconds the search may hold up the first click.
+	 */
+	public static final long BUDGET_MILLIS = 100;
+
+	/**
+	 * Boards with more cells than this are not searched, as one candidate could not be played
+	 * within the budget; they always fall back to their own seed.
+	 */
+	public static final int MAX_CELLS = 1 << 16;
+
+	/**
+	 * Purpose: Searches for a seed whose board can be cleared from the first click without
+	 * guessing, for at most the given time. The given board is only read for its size, shape
+	 * and difficulty.
+	 *
+	 * @param board MinesweeperBoard the game will be played on, with no mines placed yet
+	 * @param mineCount int number of mines to place
+	 * @param userRow int row coordinate of the user's first click
+	 * @param userCol int column coordinate of the user's first click
+	 * @param seed long seed of the board, tried first
+	 * @param budgetMillis long longest time to search, in milliseconds
+	 * @return OptionalLong seed of a board that needs no guess, or empty if none was found in time
+	 */
+	public static OptionalLong findSeed(MinesweeperBoard board, int mineCount, int userRow, int userCol,
+			long seed, long budgetMillis) {
+		if (board.numCells() > MAX_CELLS) {
+			return OptionalLong.empty();
+		}
+		int rows = board.numRows();
+		int cols = board.numCols();
+		String difficulty = board.getDifficulty();
+		String shape = board.getShape();
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+		AtomicLong nextCandidate = new AtomicLong();
+		AtomicBoolean done = new AtomicBoolean();
+		CompletableFuture<Long> winner = new CompletableFuture<Long>();
+		int workers = Math.max(1, ForkJoinPool.getCommonPoolParallelism());
+		for (int worker = 0; worker < workers; worker++) {
+			CompletableFuture.runAsync(() -> {
+				HighScoreBoard scratch = new HighScoreBoard();
+				while (!done.get() && System.nanoTime() < deadline) {
+					long number = nextCandidate.getAndIncrement();
+					long candidate = number == 0 ? seed : SeededRandom.mix(seed + number);
+					MinesweeperController game = new MinesweeperController(rows, cols, mineCount, scratch, difficulty, shape);
+					game.getBoard().setScratch(true);
+					game.getBoard().setSeed(candidate);
+					if (play(game, userRow, userCol, deadline, done)) {
+						winner.complete(candidate);
+						return;
+					}
+				}
+			}).exceptionally(failure -> {
+				winner.completeExceptionally(failure);
+				return null;
+			});
+		}
+		try {
+			return OptionalLong.of(winner.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+		} catch (TimeoutException e) {
+			return OptionalLong.empty();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return OptionalLong.empty();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IllegalStateException("A no-guess worker failed.", e.getCause());
+		} finally {
+			done.set(true);
+		}
+	}
+
+	/**
+	 * Purpose: Returns whether the board of the given seed can be cleared from the given first
+	 * click by the deductions of a ConstraintSolver alone, taking as long as that needs.
+	 *
+	 * @param rows int number of rows of the board
+	 * @param cols int number of columns of the board
+	 * @param mineCount int number of mines on the board
+	 * @param difficulty String difficulty of the board
+	 * @param shape String shape of the board
+	 * @param seed long seed of the board
+	 * @param userRow int row coordinate of the first click
+	 * @param userCol int column coordinate of the first click
+	 * @return boolean expressing whether the board needs no guess
+	 */
+	public static boolean isGuessFree(int rows, int cols, int mineCount, String difficulty, String shape,
+			long seed, int userRow, int userCol) {
+		MinesweeperController game = new MinesweeperController(rows, cols, mineCount, new HighScoreBoard(), difficulty, shape);
+		game.getBoard().setScratch(true);
+		game.getBoard().setSeed(seed);
+		return play(game, userRow, userCol, Long.MAX_VALUE, new AtomicBoolean());
+	}
+
+	/**
+	 * Plays a new game from the first click, revealing only squares the solver proves safe,
+	 * until it is won, the solver is stuck, or the search is over.
+	 *
+	 * @param game MinesweeperController of a new game with its seed set
+	 * @param userRow int row coordinate of the first click
+	 * @param userCol int column coordinate of the first click
+	 * @param deadline long System.nanoTime() at which to give up
+	 * @param done AtomicBoolean set once the search is over
+	 * @return boolean expressing whether the game was won
+	 */
+	private static boolean play(MinesweeperController game, int userRow, int userCol, long deadline, AtomicBoolean done) {
+		int cols = game.numCols();
+		try {
+			game.putTurn(userRow, userCol);
+			ConstraintSolver solver = new ConstraintSolver(game.getModel());
+			game.addListener(solver);
+			for (int cell = solver.nextSafe(0); cell >= 0; cell = solver.nextSafe(0)) {
+				if (done.get() || System.nanoTime() >= deadline) {
+					return false;
+				}
+				game.putTurn(cell / cols, cell % cols);
+			}
+		} catch (HitMineException | IllegalMoveException e) {
+			throw new IllegalStateException("The solver played a square it had not proven safe.", e);
+		}
+		return game.isGameWon();
+	}
+}
@@ -0,0 +1,473 @@
+package solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import model.MinesweeperBoard;
+import model.MinesweeperModel;
+
+/**
+ * File: ProbabilityEngine.java
+ * Assignment: Minesweeper
+ * Course: CSC 335; Spring 2021
+ *
+ * This class works out the exact chance that each hidden square is a mine, given the revealed
+ * numbers and the number of mines on the board, with every layout that agrees with them counted
+ * as equally likely. Like ConstraintSolver it only reads revealed squares, and flags are treated
+ * as hidden squares.
+ *
+ * The hidden squares next to a revealed number form the frontier. It is split into independent
+ * parts, which no number joins together, and each part is counted on its own by a
+ * FrontierComponent for every number of mines it could hold. The parts are then combined: a way
+ * of giving the parts k mines in total leaves the rest to be placed anywhere among the interior
+ * squares, which no number touches, so it is weighted by the binomial coefficient
+ * C(interior, mines - k). The binomials are taken from log factorials so that large boards
+ * do not overflow.
+ *
+ * Each part is kept between calls, keyed by its squares and numbers, so a move only recounts the
+ * parts it changed. This answers in a few milliseconds on Expert sized boards of every shape.
+ *
+ * @author Caroline Hyland
+ * @author James O'Connell
+ * @author Nicholas Leluan
+ * @author Christian Trejo
+ */
+public class ProbabilityEngine {
+
+	/**
+	 * Model whose revealed squares are read.
+	 */
+	private MinesweeperModel model;
+
+	/**
+	 * Parts of the frontier counted by the last call, keyed by their squares and numbers.
+	 */
+	private HashMap<ComponentKey, FrontierComponent> cache = new HashMap<ComponentKey, FrontierComponent>();
+
+	/**
+	 * Number of parts counted, rather than taken from the cache, by the last call.
+	 */
+	private int solved;
+
+	/**
+	 * Natural logarithm of n! at index n.
+	 */
+	private double[] logFactorials = {0};
+
+	/**
+	 * Buffer receiving the neighbors of a square.
+	 */
+	private int[] neighbors = new int[8];
+
+	/**
+	 * Constructs a new engine for the given model.
+	 *
+	 * @param model MinesweeperModel whose revealed squares are read
+	 */
+	public ProbabilityEngine(MinesweeperModel model) {
+		this.model = model;
+	}
+
+	/**
+	 * Purpose: Returns the chance that each square is a mine, indexed by flat cell index. Hidden
+	 * and flagged squares get a probability from 0 to 1; revealed and DNE squares get NaN.
+	 *
+	 * @return double[] probability of a mine on each square
+	 * @throws IllegalStateException if the mines have not been placed yet, or no layout agrees
+	 * with the revealed numbers
+	 */
+	public double[] compute() {
+		if (!model.getInit()) {
+			throw new IllegalStateException("The mines are placed on the first click.");
+		}
+		int numCells = model.numRows() * model.numCols();
+		double[] probabilities = new double[numCells];
+		int[] parent = new int[numCells];
+		boolean[] frontier = new boolean[numCells];
+		int numHidden = 0;
+		for (int cell = 0; cell < numCells; cell++) {
+			parent[cell] = cell;
+			if (isHidden(cell)) {
+				numHidden++;
+			} else {
+				probabilities[cell] = Double.NaN;
+			}
+		}
+
+		//every revealed square with hidden neighbors is a constraint joining them
+		ArrayList<Integer> numbers = new ArrayList<Integer>();
+		for (int cell = 0; cell < numCells; cell++) {
+			if (model.getVisibility(cell) != MinesweeperBoard.VISIBLE || model.getVal(cell) == MinesweeperBoard.MINE) {
+				continue;
+			}
+			int numNeighbors = model.getNeighbors(cell, neighbors);
+			int root = -1;
+			for (int idx = 0; idx < numNeighbors; idx++) {
+				int neighbor = neighbors[idx];
+				if (!isHidden(neighbor)) {
+					continue;
+				}
+				frontier[neighbor] = true;
+				if (root < 0) {
+					root = find(parent, neighbor);
+				} else {
+					parent[find(parent, neighbor)] = root;
+				}
+			}
+			if (root >= 0) {
+				numbers.add(cell);
+			}
+		}
+
+		ArrayList<FrontierComponent> components = buildComponents(numbers, parent, frontier);
+		int numFrontier = 0;
+		for (FrontierComponent component : components) {
+			numFrontier += component.cells.length;
+		}
+		combine(components, numHidden - numFrontier, model.getBoard().numMines(), probabilities, frontier);
+		return probabilities;
+	}
+
+	/**
+	 * Purpose: Returns a hidden square with the lowest chance of being a mine, or -1 if no
+	 * square is hidden. Ties go to the lowest index.
+	 *
+	 * @return int flat index of the safest square
+	 */
+	public int safestCell() {
+		double[] probabilities = compute();
+		int best = -1;
+		for (int cell = 0; cell < probabilities.length; cell++) {
+			if (!Double.isNaN(probabilities[cell]) && (best < 0 || probabilities[cell] < probabilities[best])) {
+				best = cell;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Purpose: Returns the number of parts of the frontier the last call counted, rather than
+	 * reusing from an earlier call.
+	 *
+	 * @return int number of parts counted
+	 */
+	public int getSolvedComponents() {
+		return solved;
+	}
+
+	/**
+	 * Groups the frontier squares and the numbers around them into parts, each listed in
+	 * breadth-first order, taking each part from the cache when it is unchanged.
+	 *
+	 * @param numbers ArrayList of the revealed squares with hidden neighbors
+	 * @param parent int[] union-find forest joining squares that share a number
+	 * @param frontier boolean[] marking the frontier squares
+	 * @return ArrayList of the parts
+	 */
+	private ArrayList<FrontierComponent> buildComponents(ArrayList<Integer> numbers, int[] parent, boolean[] frontier) {
+		HashMap<Integer, ArrayList<Integer>> numbersByRoot = new HashMap<Integer, ArrayList<Integer>>();
+		for (int number : numbers) {
+			int numNeighbors = model.getNeighbors(number, neighbors);
+			for (int idx = 0; idx < numNeighbors; idx++) {
+				if (isHidden(neighbors[idx])) {
+					numbersByRoot.computeIfAbsent(find(parent, neighbors[idx]), root -> new ArrayList<Integer>()).add(number);
+					break;
+				}
+			}
+		}
+		HashMap<ComponentKey, FrontierComponent> kept = new HashMap<ComponentKey, FrontierComponent>();
+		ArrayList<FrontierComponent> components = new ArrayList<FrontierComponent>();
+		solved = 0;
+		for (int root : numbersByRoot.keySet()) {
+			ArrayList<Integer> partNumbers = numbersByRoot.get(root);
+			int[] cells = order(root, parent, frontier);
+			ComponentKey key = new ComponentKey(cells, partNumbers);
+			FrontierComponent component = cache.get(key);
+			if (component == null) {
+				component = newComponent(cells, partNumbers);
+				component.solve();
+				solved++;
+			}
+			kept.put(key, component);
+			components.add(component);
+		}
+		cache = kept;
+		return components;
+	}
+
+	/**
+	 * Lists the squares of one part in breadth-first order over shared numbers, starting
+	 * from the square reached last by a first search, so the search runs along the part
+	 * rather than out from its middle.
+	 *
+	 * @param root int root of the part in the union-find forest
+	 * @param parent int[] union-find forest joining squares that share a number
+	 * @param frontier boolean[] marking the frontier squares
+	 * @return int[] flat indices of the part's squares in order
+	 */
+	private int[] order(int root, int[] parent, boolean[] frontier) {
+		int[] cells = breadthFirst(root, root, parent, frontier);
+		return breadthFirst(cells[cells.length - 1], root, parent, frontier);
+	}
+
+	/**
+	 * Lists the squares of one part in breadth-first order from the given square. Two squares
+	 * are adjacent if a revealed number touches both, which for the shapes used means they
+	 * are within two steps of each other.
+	 *
+	 * @param start int flat index of the first square
+	 * @param root int root of the part in the union-find forest
+	 * @param parent int[] union-find forest joining squares that share a number
+	 * @param frontier boolean[] marking the frontier squares
+	 * @return int[] flat indices of the part's squares in order
+	 */
+	private int[] breadthFirst(int start, int root, int[] parent, boolean[] frontier) {
+		ArrayList<Integer> queue = new ArrayList<Integer>();
+		HashMap<Integer, Boolean> seen = new HashMap<Integer, Boolean>();
+		int[] around = new int[8];
+		int[] further = new int[8];
+		queue.add(start);
+		seen.put(start, true);
+		for (int head = 0; head < queue.size(); head++) {
+			int numAround = model.getNeighbors(queue.get(head), around);
+			for (int idx = 0; idx < numAround; idx++) {
+				if (model.getVisibility(around[idx]) != MinesweeperBoard.VISIBLE) {
+					continue;
+				}
+				int numFurther = model.getNeighbors(around[idx], further);
+				for (int next = 0; next < numFurther; next++) {
+					int cell = further[next];
+					if (frontier[cell] && !seen.containsKey(cell) && find(parent, cell) == root) {
+						seen.put(cell, true);
+						queue.add(cell);
+					}
+				}
+			}
+		}
+		int[] cells = new int[queue.size()];
+		for (int idx = 0; idx < cells.length; idx++) {
+			cells[idx] = queue.get(idx);
+		}
+		return cells;
+	}
+
+	/**
+	 * Makes the component of one part, with each number's squares given by their position in
+	 * the part's order.
+	 *
+	 * @param cells int[] flat indices of the part's squares in order
+	 * @param partNumbers ArrayList of the part's revealed numbers
+	 * @return FrontierComponent ready to be solved
+	 */
+	private FrontierComponent newComponent(int[] cells, ArrayList<Integer> partNumbers) {
+		HashMap<Integer, Integer> positions = new HashMap<Integer, Integer>();
+		for (int pos = 0; pos < cells.length; pos++) {
+			positions.put(cells[pos], pos);
+		}
+		int[][] constraints = new int[partNumbers.size()][];
+		int[] values = new int[partNumbers.size()];
+		for (int con = 0; con < constraints.length; con++) {
+			int number = partNumbers.get(con);
+			int numNeighbors = model.getNeighbors(number, neighbors);
+			int[] squares = new int[numNeighbors];
+			int size = 0;
+			for (int idx = 0; idx < numNeighbors; idx++) {
+				if (isHidden(neighbors[idx])) {
+					squares[size++] = positions.get(neighbors[idx]);
+				}
+			}
+			constraints[con] = Arrays.copyOf(squares, size);
+			values[con] = model.getVal(number);
+		}
+		return new FrontierComponent(cells, constraints, values);
+	}
+
+	/**
+	 * Combines the counts of every part with the binomial weight of the mines left for the
+	 * interior, writing the chance of a mine on every hidden square.
+	 *
+	 * @param components ArrayList of the counted parts
+	 * @param interior int number of hidden squares touching no revealed number
+	 * @param mines int number of mines on the board
+	 * @param probabilities double[] receiving the chance of a mine on each square
+	 * @param frontier boolean[] marking the frontier squares
+	 * @throws IllegalStateException if no layout agrees with the numbers and the mine count
+	 */
+	private void combine(ArrayList<FrontierComponent> components, int interior, int mines,
+			double[] probabilities, boolean[] frontier) {
+		int parts = components.size();
+		//prefix[idx] combines the parts before idx, suffix[idx] the parts from idx on
+		double[][] prefix = new double[parts + 1][];
+		double[][] suffix = new double[parts + 1][];
+		prefix[0] = new double[] {1};
+		suffix[parts] = new double[] {1};
+		for (int idx = 0; idx < parts; idx++) {
+			prefix[idx + 1] = convolve(prefix[idx], components.get(idx).ways);
+		}
+		for (int idx = parts - 1; idx >= 0; idx--) {
+			suffix[idx] = convolve(components.get(idx).ways, suffix[idx + 1]);
+		}
+		double[] all = prefix[parts];
+
+		//weight[k] is C(interior, mines - k), scaled by the largest binomial that can occur
+		growLogFactorials(Math.max(interior, mines));
+		double[] weight = new double[all.length];
+		double top = Double.NEGATIVE_INFINITY;
+		for (int placed = 0; placed < all.length; placed++) {
+			if (all[placed] > 0 && mines - placed >= 0 && mines - placed <= interior) {
+				top = Math.max(top, logBinomial(interior, mines - placed));
+			}
+		}
+		if (top == Double.NEGATIVE_INFINITY) {
+			throw new IllegalStateException("No mine layout agrees with the numbers and the mine count.");
+		}
+		for (int placed = 0; placed < all.length; placed++) {
+			if (mines - placed >= 0 && mines - placed <= interior) {
+				weight[placed] = Math.exp(logBinomial(interior, mines - placed) - top);
+			}
+		}
+
+		double total = 0;
+		double interiorMines = 0;
+		for (int placed = 0; placed < all.length; placed++) {
+			total += all[placed] * weight[placed];
+			interiorMines += all[placed] * weight[placed] * (mines - placed);
+		}
+		for (int idx = 0; idx < parts; idx++) {
+			FrontierComponent component = components.get(idx);
+			double[] others = convolve(prefix[idx], suffix[idx + 1]);
+			//given k mines in this part, the weight of every way the others and interior can go
+			double[] given = new double[component.ways.length];
+			for (int own = 0; own < given.length; own++) {
+				for (int rest = 0; rest < others.length && own + rest < weight.length; rest++) {
+					given[own] += others[rest] * weight[own + rest];
+				}
+			}
+			for (int pos = 0; pos < component.cells.length; pos++) {
+				double mined = 0;
+				double[] counts = component.mineWays[pos];
+				for (int own = 0; own < given.length; own++) {
+					mined += counts[own] * given[own];
+				}
+				probabilities[component.cells[pos]] = mined / total;
+			}
+		}
+		double interiorChance = interior == 0 ? 0 : interiorMines / total / interior;
+		for (int cell = 0; cell < probabilities.length; cell++) {
+			if (!frontier[cell] && !Double.isNaN(probabilities[cell])) {
+				probabilities[cell] = interiorChance;
+			}
+		}
+	}
+
+	/**
+	 * Returns whether a square is hidden (including flagged) and part of the board.
+	 *
+	 * @param cell int flat index of the square
+	 * @return boolean expressing whether the square is hidden
+	 */
+	private boolean isHidden(int cell) {
+		int visibility = model.getVisibility(cell);
+		return visibility == MinesweeperBoard.INVISIBLE || visibility == MinesweeperBoard.FLAG;
+	}
+
+	/**
+	 * Returns the natural logarithm of the binomial coefficient C(n, k).
+	 *
+	 * @param n int size of the set
+	 * @param k int size of the subsets
+	 * @return double log of the number of subsets
+	 */
+	private double logBinomial(int n, int k) {
+		return logFactorials[n] - logFactorials[k] - logFactorials[n - k];
+	}
+
+	/**
+	 * Extends the table of log factorials up to the given n.
+	 *
+	 * @param n int largest factorial needed
+	 */
+	private void growLogFactorials(int n) {
+		if (n < logFactorials.length) {
+			return;
+		}
+		int from = logFactorials.length;
+		logFactorials = Arrays.copyOf(logFactorials, n + 1);
+		for (int idx = from; idx <= n; idx++) {
+			logFactorials[idx] = logFactorials[idx - 1] + Math.log(idx);
+		}
+	}
+
+	/**
+	 * Returns the convolution of two count arrays: the counts of each total for one choice
+	 * from each.
+	 *
+	 * @param left double[] counts by number of mines
+	 * @param right double[] counts by number of mines
+	 * @return double[] counts by total number of mines
+	 */
+	private static double[] convolve(double[] left, double[] right) {
+		double[] result = new double[left.length + right.length - 1];
+		for (int idx = 0; idx < left.length; idx++) {
+			if (left[idx] == 0) {
+				continue;
+			}
+			for (int other = 0; other < right.length; other++) {
+				result[idx + other] += left[idx] * right[other];
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the root of a square's tree in the union-find forest, halving the path on the
+	 * way.
+	 *
+	 * @param parent int[] union-find forest
+	 * @param cell int flat index of the square
+	 * @return int root of the square's tree
+	 */
+	private static int find(int[] parent, int cell) {
+		while (parent[cell] != cell) {
+			parent[cell] = parent[parent[cell]];
+			cell = parent[cell];
+		}
+		return cell;
+	}
+
+	/**
+	 * The squares and numbers of one part of the frontier, identifying it in the cache. A
+	 * revealed number's value never changes, so the numbers' indices are enough.
+	 */
+	private static final class ComponentKey {
+
+		private final int[] cells;
+		private final int[] numbers;
+		private final int hash;
+
+		private ComponentKey(int[] cells, ArrayList<Integer> numbers) {
+			this.cells = cells.clone();
+			Arrays.sort(this.cells); //the search may start from another square next time
+			this.numbers = new int[numbers.size()];
+			for (int idx = 0; idx < this.numbers.length; idx++) {
+				this.numbers[idx] = numbers.get(idx);
+			}
+			this.hash = Arrays.hashCode(this.cells) * 31 + Arrays.hashCode(this.numbers);
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (!(other instanceof ComponentKey)) {
+				return false;
+			}
+			ComponentKey key = (ComponentKey) other;
+			return Arrays.equals(cells, key.cells) && Arrays.equals(numbers, key.numbers);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+}
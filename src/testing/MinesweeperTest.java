@@ -2,22 +2,58 @@ package testing;
 
 import static org.junit.Assert.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.OptionalLong;
 import java.util.Random;
 
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
 import org.junit.Test;
 
+import controller.BoardPool;
+import controller.EndlessController;
+import controller.GameFiles;
 import controller.MinesweeperController;
 import exceptions.HitMineException;
 import exceptions.IllegalMoveException;
 import highscore.HighScoreBoard;
 import highscore.PlayerProfile;
+import metrics.EngineMetrics;
+import metrics.Histogram;
+import metrics.MetricsRegistry;
+import model.BoardListener;
+import model.BoardSpec;
+import model.ChunkedBoard;
 import model.MinesweeperBoard;
 import model.MinesweeperModel;
 import orderedpair.OrderedPair;
+import simulator.ConstraintPolicy;
+import simulator.MonteCarloSimulator;
+import simulator.RandomPolicy;
+import simulator.SimulationConfig;
+import simulator.SimulationResult;
+import simulator.SinglePointPolicy;
+import solver.ConstraintSolver;
+import solver.NoGuessGenerator;
+import solver.ProbabilityEngine;
 
 /** 
  * File: MinesweeperTest.java
@@ -512,12 +548,1043 @@ public class MinesweeperTest {
 		controller = new MinesweeperController(model.getBoard());
 		OrderedPair[] mines = {new OrderedPair(2,2)};
 		model.buildTestBoard(mines);
+        assertFalse(controller.isGameLost());
+        assertEquals(99, controller.getHiddenSafeCount());
         try {
 			controller.putTurn(2, 2);
 		} catch (HitMineException | IllegalMoveException e) {
 			//This should be a mine!
 			assert(true);
 		}
+        assertTrue(controller.isGameLost());
+        assertFalse(controller.isGameWon());
+    }
+
+    /**
+     * Tests that a single opening covering almost all of a large board is revealed
+     * without overflowing the stack and that every revealed cell is reported.
+     */
+    @Test
+    void testLargeOpening() {
+        MinesweeperModel model = new MinesweeperModel(1000, 1000, 1, new HighScoreBoard(), "Custom", "square");
+        MinesweeperController controller = new MinesweeperController(model.getBoard());
+        OrderedPair[] mines = {new OrderedPair(0, 0)};
+        model.buildTestBoard(mines);
+        try {
+            controller.putTurn(999, 999);
+        } catch (HitMineException | IllegalMoveException e) {
+            assert(false); //this should be a valid click, so this should not happen
+        }
+        assertEquals(1000 * 1000 - 1, model.numVisible());
+        assertEquals(1000 * 1000 - 1, controller.getLastRevealed().size());
+        assertEquals(MinesweeperBoard.INVISIBLE, model.getVisibility(0, 0));
+        assertTrue(controller.isGameWon());
+    }
+
+    /**
+     * Tests that every cell revealed by one turn reaches the listeners of the model in
+     * a single notification.
+     */
+    @Test
+    void testBatchedNotifications() {
+        MinesweeperModel model = new MinesweeperModel(10, 10, 10, new HighScoreBoard(), "Custom", "square");
+        MinesweeperController controller = new MinesweeperController(model.getBoard());
+        OrderedPair[] mines = {new OrderedPair(2,2), new OrderedPair(1,8), new OrderedPair(4,1),
+                new OrderedPair(5,6), new OrderedPair(5,9), new OrderedPair(6,6), new OrderedPair(6,7),
+                new OrderedPair(7,1), new OrderedPair(8,3), new OrderedPair(9,9)};
+        model.buildTestBoard(mines);
+        ArrayList<Integer> notified = new ArrayList<Integer>();
+        controller.getModel().addListener((source, changes) -> notified.add(changes.size()));
+        try {
+            controller.putTurn(4, 4);
+        } catch (HitMineException | IllegalMoveException e) {
+            assert(false); //this should be a valid click, so this should not happen
+        }
+        assertEquals(1, notified.size());
+        assertEquals(getAutomaticRevealVisibles().size(), (int) notified.get(0));
+    }
+
+    /**
+     * Tests that mine placement fills every square outside the first click's safe zone
+     * when asked to, and that an impossible mine count is rejected up front.
+     */
+    @Test
+    void testMineDensity() {
+        MinesweeperController controller = new MinesweeperController(10, 10, 91, new HighScoreBoard(), "Custom", "square");
+        try {
+            controller.putTurn(5, 5);
+        } catch (HitMineException | IllegalMoveException e) {
+            assert(false); //the first click can never be a mine
+        }
+        assertEquals(91, controller.getNumMines());
+        for (int row = 0; row < 10; row++) {
+            for (int col = 0; col < 10; col++) {
+                boolean safe = Math.abs(row - 5) <= 1 && Math.abs(col - 5) <= 1;
+                assertEquals(safe, controller.getVal(row, col) != MinesweeperBoard.MINE);
+            }
+        }
+        assertTrue(controller.isGameWon());
+
+        try {
+            new MinesweeperController(10, 10, 92, new HighScoreBoard(), "Custom", "square");
+            fail("92 mines cannot fit around a click in the middle of the board");
+        } catch (IllegalArgumentException e) {
+            assert(true);
+        }
+    }
+
+    /**
+     * Tests that a board large enough to be generated in parallel stripes gets the
+     * requested number of mines, none touching the first click, and correct proximity
+     * values across stripe edges.
+     */
+    @Test
+    void testStripedGeneration() {
+        MinesweeperController controller = new MinesweeperController(1100, 1000, 200000, new HighScoreBoard(), "Custom", "square");
+        try {
+            controller.putTurn(64, 500); //first row of the second stripe
+        } catch (HitMineException | IllegalMoveException e) {
+            assert(false); //the first click can never be a mine
+        }
+        MinesweeperBoard board = controller.getBoard();
+        assertEquals(200000, board.numMines());
+        for (int row = 63; row <= 65; row++) {
+            for (int col = 499; col <= 501; col++) {
+                assertFalse(board.getVal(row, col) == MinesweeperBoard.MINE);
+            }
+        }
+        int[] neighbors = new int[8];
+        for (int cell = 0; cell < board.numCells(); cell++) {
+            if (board.getVal(cell) == MinesweeperBoard.MINE) {
+                continue;
+            }
+            int adjMines = 0;
+            int numNeighbors = board.getNeighbors(cell, neighbors);
+            for (int idx = 0; idx < numNeighbors; idx++) {
+                if (board.getVal(neighbors[idx]) == MinesweeperBoard.MINE) {
+                    adjMines++;
+                }
+            }
+            assertEquals(adjMines, board.getVal(cell));
+        }
+    }
+
+    /**
+     * Tests that a board kept in bitboard storage computes the same values and plays
+     * the same turn as a board in the default packed storage, across a row wider than
+     * one 64-bit word.
+     */
+    @Test
+    void testBitboardStorage() {
+        MinesweeperModel packed = new MinesweeperModel(new MinesweeperBoard(9, 70, "Custom", "cross"));
+        MinesweeperModel bitboard = new MinesweeperModel(new MinesweeperBoard(9, 70, "Custom", "cross", 
+                MinesweeperBoard.Storage.BITBOARD));
+        OrderedPair[] mines = {new OrderedPair(0,20), new OrderedPair(3,0), new OrderedPair(4,63),
+                new OrderedPair(4,64), new OrderedPair(5,69), new OrderedPair(8,40)};
+        packed.buildTestBoard(mines);
+        bitboard.buildTestBoard(mines);
+        try {
+            new MinesweeperController(packed.getBoard()).putTurn(4, 30);
+            new MinesweeperController(bitboard.getBoard()).putTurn(4, 30);
+        } catch (HitMineException | IllegalMoveException e) {
+            assert(false); //this should be a valid click, so this should not happen
+        }
+        for (int row = 0; row < 9; row++) {
+            for (int col = 0; col < 70; col++) {
+                assertEquals(packed.getVal(row, col), bitboard.getVal(row, col));
+                assertEquals(packed.getVisibility(row, col), bitboard.getVisibility(row, col));
+            }
+        }
+        assertEquals(packed.numVisible(), bitboard.numVisible());
+        assertEquals(175, packed.getDNEs().size()); //the test board keeps the cross's shape
+        assertEquals(175, bitboard.getDNEs().size());
+    }
+
+    /**
+     * Tests the endless board: chunks rebuilt after eviction and boards with the same seed
+     * agree, the origin is always safe, memory follows the explored area and a large opening 
+     * is split over several turns.
+     */
+    @Test
+    void testEndlessBoard() {
+        ChunkedBoard board = new ChunkedBoard(335L, 0.2, 9);
+        ChunkedBoard same = new ChunkedBoard(335L, 0.2);
+        int mines = 0;
+        for (int row = -100; row < 100; row++) {
+            for (int col = -100; col < 100; col++) {
+                assertEquals(board.getVal(row, col), same.getVal(row, col));
+                if (board.isMine(row, col)) {
+                    mines++;
+                }
+            }
+        }
+        assertTrue(mines > 6000 && mines < 10000);
+        assertTrue(board.numCachedChunks() <= 9);
+        assertEquals(0, board.numExploredChunks());
+        assertEquals(same.getVal(5000000, -5000000), board.getVal(5000000, -5000000));
+        
+        EndlessController controller = new EndlessController(board, 1000);
+        try {
+            assertTrue(controller.putTurn(0, 0) >= 1);
+            controller.flag(500, 500);
+            assertEquals(MinesweeperBoard.FLAG, controller.getVisible(500, 500));
+        } catch (HitMineException | IllegalMoveException e) {
+            assert(false); //the squares around the origin never hold mines
+        }
+        assertTrue(board.numExploredChunks() <= 9);
+        
+        EndlessController empty = new EndlessController(new ChunkedBoard(1L, 0.0), 5000);
+        try {
+            assertEquals(5000, empty.putTurn(0, 0));
+            assertTrue(empty.hasPendingReveal());
+            assertEquals(5000, empty.continueReveal());
+            assertEquals(10000, empty.getScore());
+        } catch (HitMineException | IllegalMoveException e) {
+            assert(false); //a board without mines cannot be lost
+        }
+    }
+
+    /**
+     * Tests that boards generated from the same seed and first click are identical, that a
+     * board can be rebuilt from its spec, and that a saved board is regenerated with its 
+     * revealed and flagged squares when read back.
+     */
+    @Test
+    void testSeededGeneration() {
+        MinesweeperController first = new MinesweeperController(16, 30, 99, new HighScoreBoard(), "Expert", "diamond");
+        MinesweeperController second = new MinesweeperController(16, 30, 99, new HighScoreBoard(), "Expert", "diamond");
+        first.getBoard().setSeed(2021L);
+        second.getBoard().setSeed(2021L);
+        try {
+            first.putTurn(8, 15);
+            second.putTurn(8, 15);
+            first.flag(0, 15);
+        } catch (HitMineException | IllegalMoveException e) {
+            assert(false); //the first click never hits a mine
+        }
+        BoardSpec spec = first.getBoard().getSpec();
+        assertEquals(spec, second.getBoard().getSpec());
+        MinesweeperBoard rebuilt = spec.build(MinesweeperBoard.Storage.BITBOARD);
+        
+        MinesweeperBoard loaded = null;
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            ObjectOutputStream out = new ObjectOutputStream(bytes);
+            out.writeObject(first.getBoard());
+            out.close();
+            ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+            loaded = (MinesweeperBoard) in.readObject();
+            in.close();
+        } catch (IOException | ClassNotFoundException e) {
+            assert(false); //the board is serializable
+        }
+        for (int row = 0; row < 16; row++) {
+            for (int col = 0; col < 30; col++) {
+                assertEquals(first.getVal(row, col), second.getVal(row, col));
+                assertEquals(first.getVal(row, col), rebuilt.getVal(row, col));
+                assertEquals(first.getVal(row, col), loaded.getVal(row, col));
+                assertEquals(first.getVisible(row, col), loaded.getVisible(row, col));
+            }
+        }
+        assertEquals(first.getBoard().numVisible(), loaded.numVisible());
+        assertEquals(first.getBoard().numHiddenSafe(), loaded.numHiddenSafe());
+        assertEquals(first.getNumFlags(), loaded.getNumFlags());
+        assertEquals(spec, loaded.getSpec());
+    }
+
+    /**
+     * Tests a custom board far past the old 35x35 limit at 90% density: the first click
+     * is safe, every mine is placed, and hitting a mine reveals all of them at once.
+     */
+    @Test
+    void testDenseLargeBoard() {
+        MinesweeperController controller = new MinesweeperController(2000, 2000, 3600000, new HighScoreBoard(), "Custom", "square");
+        try {
+            controller.putTurn(1000, 1000);
+        } catch (HitMineException | IllegalMoveException e) {
+            assert(false); //the first click can never be a mine
+        }
+        MinesweeperBoard board = controller.getBoard();
+        assertEquals(3600000, board.numMines());
+        assertEquals(2000 * 2000 - 3600000 - board.numVisible(), controller.getHiddenSafeCount());
+        int mineRow = 0;
+        while (board.getVal(mineRow, 0) != MinesweeperBoard.MINE) {
+            mineRow++;
+        }
+        try {
+            controller.putTurn(mineRow, 0);
+            fail("the square is a mine");
+        } catch (HitMineException e) {
+            assert(true);
+        } catch (IllegalMoveException e) {
+            assert(false); //the square was hidden
+        }
+        assertEquals(3600000, board.numVisibleMines());
+        assertTrue(controller.getLastRevealed().size() >= 3600000);
+        assertTrue(controller.getLastRevealed().isDense());
+    }
+
+    /**
+     * Tests that the engine runs without a view: a listener hears once per move with the
+     * squares the move changed, and a game saved through GameFiles resumes unchanged.
+     */
+    @Test
+    void testHeadlessListener() {
+        MinesweeperController controller = new MinesweeperController(9, 9, 10, new HighScoreBoard(), "Beginner", "square");
+        int[] heard = new int[2];
+        BoardListener listener = (model, changes) -> {
+            heard[0]++;
+            heard[1] += changes.size();
+        };
+        controller.addListener(listener);
+        try {
+            controller.putTurn(4, 4);
+        } catch (HitMineException | IllegalMoveException e) {
+            assert(false); //the first click can never be a mine
+        }
+        assertEquals(1, heard[0]);
+        assertEquals(controller.getBoard().numVisible(), heard[1]);
+        int hidden = 0;
+        while (controller.getVisible(hidden / 9, hidden % 9) != MinesweeperBoard.INVISIBLE) {
+            hidden++; //a mine is always left hidden
+        }
+        try {
+            controller.flag(hidden / 9, hidden % 9);
+            assertEquals(2, heard[0]);
+            controller.removeListener(listener);
+            controller.flag(hidden / 9, hidden % 9);
+            controller.flag(hidden / 9, hidden % 9);
+            assertEquals(2, heard[0]);
+        } catch (IllegalMoveException e) {
+            assert(false); //the square is hidden or flagged
+        }
+        
+        File file = null;
+        try {
+            file = File.createTempFile("save_game", ".dat");
+            GameFiles.saveBoard(controller.getBoard(), file);
+        } catch (IOException e) {
+            assert(false); //the temporary file is writable
+        }
+        MinesweeperBoard loaded = GameFiles.loadBoard(file);
+        assertFalse(file.exists());
+        assertEquals(null, GameFiles.loadBoard(file));
+        MinesweeperController resumed = new MinesweeperController(loaded);
+        for (int row = 0; row < 9; row++) {
+            for (int col = 0; col < 9; col++) {
+                assertEquals(controller.getVal(row, col), resumed.getVal(row, col));
+                assertEquals(controller.getVisible(row, col), resumed.getVisible(row, col));
+            }
+        }
+        assertEquals(controller.getNumFlags(), resumed.getNumFlags());
+    }
+
+    /**
+     * Tests that the simulator plays every game of a batch to a win or a loss and gives the
+     * same statistics whether the batch is played on one thread or several.
+     */
+    @Test
+    void testMonteCarloSimulator() {
+        SimulationConfig config = new SimulationConfig(9, 9, 10, "Beginner", "square", 1000, 335L);
+        SimulationResult single = new MonteCarloSimulator(1).run(config, SinglePointPolicy::new);
+        SimulationResult parallel = new MonteCarloSimulator(3).run(config, SinglePointPolicy::new);
+        assertEquals(1000, single.getGames());
+        assertEquals(1000, single.getWins() + single.getLosses());
+        assertEquals(single.getWins(), parallel.getWins());
+        assertEquals(single.getMoves(), parallel.getMoves());
+        assertEquals(single.getGuesses(), parallel.getGuesses());
+        assertEquals(single.getMaxCascade(), parallel.getMaxCascade());
+        assertTrue(single.getWinRate() > 0.5); //most beginner games need no guess
+        assertTrue(single.getGuesses() <= single.getMoves());
+        
+        SimulationResult random = new MonteCarloSimulator(2).run(config, RandomPolicy::new);
+        assertEquals(random.getMoves() - 1000, random.getGuesses()); //every move but the first
+        assertTrue(random.getWinRate() < single.getWinRate());
+    }
+
+    /**
+     * Tests that the engine metrics count turns, flags and cascades, that histogram
+     * percentiles are within their stated precision, and that the metrics can be read
+     * from the text dump and over JMX.
+     */
+    @Test
+    void testEngineMetrics() {
+        MetricsRegistry registry = new MetricsRegistry("test_");
+        Histogram histogram = registry.histogram("values");
+        for (int value = 1; value <= 1000; value++) {
+            histogram.record(value);
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(500500, histogram.getSum());
+        assertEquals(1000, histogram.getMax());
+        assertTrue(histogram.getPercentile(0.5) >= 500 && histogram.getPercentile(0.5) <= 500 * 1.125);
+        assertTrue(histogram.getPercentile(0.99) >= 990 && histogram.getPercentile(0.99) <= 1000);
+        assertEquals(1000, histogram.getPercentile(1.0));
+        registry.counter("events_total").add(3);
+        String text = registry.toText();
+        assertTrue(text.contains("test_events_total 3"));
+        assertTrue(text.contains("test_values_count 1000"));
+        
+        long turns = EngineMetrics.TURN_NANOS.getCount();
+        long cascades = EngineMetrics.CASCADE_CELLS.getCount();
+        long illegal = EngineMetrics.ILLEGAL_MOVES.get();
+        MinesweeperController controller = new MinesweeperController(9, 9, 10, new HighScoreBoard(), "Beginner", "square");
+        try {
+            controller.putTurn(4, 4);
+            controller.putTurn(4, 4);
+            fail("the square was already revealed");
+        } catch (HitMineException e) {
+            assert(false); //the first click can never be a mine
+        } catch (IllegalMoveException e) {
+            assert(true);
+        }
+        assertTrue(EngineMetrics.TURN_NANOS.getCount() >= turns + 2);
+        assertTrue(EngineMetrics.CASCADE_CELLS.getCount() >= cascades + 1);
+        assertTrue(EngineMetrics.ILLEGAL_MOVES.get() >= illegal + 1);
+        
+        EngineMetrics.registerMBean();
+        EngineMetrics.registerMBean();
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(EngineMetrics.OBJECT_NAME);
+            assertTrue((Long) server.getAttribute(name, "turn_nanos_count") >= turns + 2);
+            assertTrue((Long) server.getAttribute(name, "turn_nanos_p99") > 0);
+            assertTrue(((String) server.invoke(name, "dump", null, null)).contains("minesweeper_turn_nanos_count"));
+        } catch (JMException e) {
+            assert(false); //the MBean is registered with these attributes
+        }
+    }
+
+    /**
+     * Tests that a turn, an illegal move, a save, a load and a high score are each reported
+     * to Flight Recorder as their own event type.
+     */
+    @Test
+    void testFlightRecorderEvents() {
+        HashMap<String, Integer> counts = new HashMap<String, Integer>();
+        File saveFile = new File("test_jfr_save.dat");
+        try (Recording recording = new Recording()) {
+            for (String name : new String[] {"Generation", "Move", "Dispatch", "File", "HighScore"}) {
+                recording.enable("minesweeper." + name).withoutThreshold();
+            }
+            recording.start();
+            MinesweeperController controller = new MinesweeperController(9, 9, 10, new HighScoreBoard(), "Beginner", "square");
+            controller.addListener((source, changes) -> { });
+            try {
+                controller.putTurn(4, 4);
+                controller.putTurn(4, 4);
+                fail("the square was already revealed");
+            } catch (HitMineException e) {
+                assert(false); //the first click can never be a mine
+            } catch (IllegalMoveException e) {
+                assert(true);
+            }
+            GameFiles.saveBoard(controller.getBoard(), saveFile);
+            assertNotNull(GameFiles.loadBoard(saveFile));
+            new HighScoreBoard().addNewScore("jfr", 42, "square beginner");
+            recording.stop();
+            
+            Path dump = Files.createTempFile("minesweeper", ".jfr");
+            recording.dump(dump);
+            List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+            Files.delete(dump);
+            for (RecordedEvent event : events) {
+                String name = event.getEventType().getName();
+                counts.put(name, counts.getOrDefault(name, 0) + 1);
+                if (name.equals("minesweeper.Generation")) {
+                    assertEquals(10, event.getInt("mines"));
+                } else if (name.equals("minesweeper.Move") && event.getString("outcome").equals("safe")) {
+                    assertTrue(event.getInt("cellsChanged") >= 1);
+                } else if (name.equals("minesweeper.File")) {
+                    assertTrue(event.getLong("bytes") > 0);
+                } else if (name.equals("minesweeper.HighScore")) {
+                    assertEquals(42, event.getInt("score"));
+                }
+            }
+        } catch (IOException e) {
+            assert(false); //the recording and save file are written to writable locations
+        } finally {
+            saveFile.delete();
+        }
+        assertTrue(counts.get("minesweeper.Generation") >= 2); //the first click and the load
+        assertEquals(Integer.valueOf(2), counts.get("minesweeper.Move"));
+        assertEquals(Integer.valueOf(1), counts.get("minesweeper.Dispatch"));
+        assertEquals(Integer.valueOf(2), counts.get("minesweeper.File"));
+        assertEquals(Integer.valueOf(1), counts.get("minesweeper.HighScore"));
+    }
+
+    /**
+     * Tests that the incremental solver only proves true squares, proves the same squares as
+     * a rescan at a fraction of the work, and wins more games than single point play.
+     */
+    @Test
+    void testConstraintSolver() {
+        int size = 200;
+        MinesweeperController controller = new MinesweeperController(size, size, size * size * 15 / 100, new HighScoreBoard(), "Custom", "square");
+        controller.getBoard().setSeed(19);
+        MinesweeperModel model = controller.getModel();
+        ConstraintSolver solver = new ConstraintSolver(model);
+        controller.addListener(solver);
+        long evaluations = 0;
+        int moves = 0;
+        try {
+            controller.putTurn(size / 2, size / 2);
+            for (int cell = solver.nextSafe(0); cell >= 0 && moves < 1000; cell = solver.nextSafe(0)) {
+                controller.putTurn(cell / size, cell % size); //a proven safe square is never a mine
+                evaluations += solver.getEvaluations();
+                moves++;
+            }
+        } catch (HitMineException e) {
+            assert(false); //only proven safe squares are played
+        } catch (IllegalMoveException e) {
+            assert(false); //nextSafe only returns hidden squares
+        }
+        assertTrue(moves > 100);
+        for (int cell = 0; cell < size * size; cell++) {
+            if (solver.isSafe(cell)) {
+                assertTrue(model.getVal(cell) != MinesweeperBoard.MINE);
+            }
+            if (solver.isMine(cell)) {
+                assertEquals(MinesweeperBoard.MINE, model.getVal(cell));
+            }
+        }
+        
+        //the incremental solver proves the same squares as solving the whole board again
+        ConstraintSolver fresh = new ConstraintSolver(model);
+        assertEquals(fresh.numSafe(), solver.numSafe());
+        assertEquals(fresh.numMines(), solver.numMines());
+        assertEquals(fresh.getKnownMines(), solver.getKnownMines());
+        assertTrue(evaluations / moves < fresh.getEvaluations() / 10);
+        
+        //the pair rule wins more games than the single point rules alone
+        SimulationConfig config = new SimulationConfig(16, 30, 99, "Expert", "square", 300, 5);
+        SimulationResult single = new MonteCarloSimulator(2).run(config, SinglePointPolicy::new);
+        SimulationResult constraint = new MonteCarloSimulator(2).run(config, ConstraintPolicy::new);
+        assertTrue(constraint.getWins() > single.getWins());
+    }
+
+    /**
+     * Tests that numbers revealed on earlier moves are evaluated again when a later opening
+     * reaches them, so the incremental solver proves as much as a rescan.
+     */
+    @Test
+    void testConstraintSolverOpening() {
+        MinesweeperModel model = new MinesweeperModel(5, 5, 5, new HighScoreBoard(), "Custom", "square");
+        OrderedPair[] mines = new OrderedPair[5];
+        for (int row = 0; row < 5; row++) {
+            mines[row] = new OrderedPair(row, 4);
+        }
+        model.buildTestBoard(mines);
+        MinesweeperController controller = new MinesweeperController(model.getBoard());
+        ConstraintSolver solver = new ConstraintSolver(controller.getModel());
+        controller.addListener(solver);
+        MinesweeperModel narrow = new MinesweeperModel(1, 5, 1, new HighScoreBoard(), "Custom", "square");
+        narrow.buildTestBoard(new OrderedPair[] {new OrderedPair(0, 4)});
+        MinesweeperController line = new MinesweeperController(narrow.getBoard());
+        ConstraintSolver lineSolver = new ConstraintSolver(line.getModel());
+        line.addListener(lineSolver);
+        try {
+            for (int row = 0; row < 5; row++) {
+                controller.putTurn(row, 3);
+            }
+            controller.putTurn(0, 0);
+            line.putTurn(0, 3);
+            line.putTurn(0, 0);
+        } catch (HitMineException | IllegalMoveException e) {
+            assert(false); //none of these squares are mines
+        }
+        ConstraintSolver fresh = new ConstraintSolver(controller.getModel());
+        fresh.rescan();
+        assertEquals(5, fresh.numMines());
+        assertEquals(fresh.getKnownMines(), solver.getKnownMines());
+        assertEquals(fresh.numSafe(), solver.numSafe());
+        ConstraintSolver lineFresh = new ConstraintSolver(line.getModel());
+        lineFresh.rescan();
+        assertEquals(1, lineFresh.numMines());
+        assertEquals(lineFresh.getKnownMines(), lineSolver.getKnownMines());
+    }
+
+    /**
+     * Tests that the mine probabilities match counting every layout, agree with the solver and
+     * the mine count, and are reused from the cache when nothing changed.
+     */
+    @Test
+    void testProbabilityEngine() {
+        //on a small board the probabilities match counting every layout of the mines
+        MinesweeperController small = new MinesweeperController(6, 6, 7, new HighScoreBoard(), "Custom", "square");
+        small.getBoard().setSeed(12);
+        try {
+            small.putTurn(0, 0);
+        } catch (HitMineException | IllegalMoveException e) {
+            assert(false); //the first click is always safe
+        }
+        MinesweeperModel model = small.getModel();
+        double[] probabilities = new ProbabilityEngine(model).compute();
+        ArrayList<Integer> hidden = new ArrayList<Integer>();
+        for (int cell = 0; cell < 36; cell++) {
+            if (model.getVisibility(cell) != MinesweeperBoard.VISIBLE) {
+                hidden.add(cell);
+            }
+        }
+        assertTrue(hidden.size() <= 25);
+        int[] neighbors = new int[8];
+        double[] mined = new double[36];
+        int layouts = 0;
+        for (int mask = 0; mask < 1 << hidden.size(); mask++) {
+            if (Integer.bitCount(mask) != 7) {
+                continue;
+            }
+            boolean[] mine = new boolean[36];
+            for (int idx = 0; idx < hidden.size(); idx++) {
+                mine[hidden.get(idx)] = (mask >> idx & 1) != 0;
+            }
+            boolean agrees = true;
+            for (int cell = 0; cell < 36 && agrees; cell++) {
+                if (model.getVisibility(cell) == MinesweeperBoard.VISIBLE) {
+                    int count = 0;
+                    int numNeighbors = model.getNeighbors(cell, neighbors);
+                    for (int idx = 0; idx < numNeighbors; idx++) {
+                        count += mine[neighbors[idx]] ? 1 : 0;
+                    }
+                    agrees = count == model.getVal(cell);
+                }
+            }
+            if (agrees) {
+                layouts++;
+                for (int cell : hidden) {
+                    mined[cell] += mine[cell] ? 1 : 0;
+                }
+            }
+        }
+        for (int cell : hidden) {
+            assertEquals(mined[cell] / layouts, probabilities[cell], 1e-9);
+        }
+        
+        //on Expert boards of every shape the answers agree with the solver and the mine count
+        String[] shapes = {"square", "triangle", "diamond", "cross"};
+        int[][] sizes = {{16, 30, 99}, {16, 31, 51}, {19, 19, 37}, {16, 16, 40}};
+        for (int game = 0; game < shapes.length; game++) {
+            int cols = sizes[game][1];
+            MinesweeperController controller = new MinesweeperController(sizes[game][0], cols, sizes[game][2], new HighScoreBoard(), "Expert", shapes[game]);
+            controller.getBoard().setSeed(2021);
+            ConstraintSolver solver = new ConstraintSolver(controller.getModel());
+            controller.addListener(solver);
+            ProbabilityEngine engine = new ProbabilityEngine(controller.getModel());
+            try {
+                controller.putTurn(sizes[game][0] / 2, cols / 2);
+                for (int cell = solver.nextSafe(0); cell >= 0; cell = solver.nextSafe(0)) {
+                    controller.putTurn(cell / cols, cell % cols);
+                }
+            } catch (HitMineException | IllegalMoveException e) {
+                assert(false); //only the first click and proven safe squares are played
+            }
+            if (controller.isGameWon()) {
+                continue;
+            }
+            probabilities = engine.compute();
+            double expected = 0;
+            for (int cell = 0; cell < probabilities.length; cell++) {
+                if (Double.isNaN(probabilities[cell])) {
+                    assertTrue(controller.getModel().getVisibility(cell) != MinesweeperBoard.INVISIBLE);
+                    continue;
+                }
+                expected += probabilities[cell];
+                assertTrue(probabilities[cell] >= 0 && probabilities[cell] <= 1 + 1e-9);
+                if (solver.isMine(cell)) {
+                    assertEquals(1.0, probabilities[cell], 1e-9);
+                }
+            }
+            assertEquals(sizes[game][2], expected, 1e-6);
+            assertTrue(engine.getSolvedComponents() > 0);
+            engine.compute();
+            assertEquals(0, engine.getSolvedComponents()); //nothing changed, so every part is cached
+        }
+    }
+
+    /**
+     * Tests that no-guess mode finds boards the solver clears without a guess, records their
+     * seed on the board, and falls back to the board's own seed when it cannot.
+     */
+    @Test
+    void testNoGuessGeneration() {
+        //with time to spare a seed is always found, and its board is cleared without a guess
+        //every time it is played
+        for (long seed = 0; seed < 5; seed++) {
+            MinesweeperBoard board = new MinesweeperBoard(16, 30, "Expert", "square");
+            OptionalLong found = NoGuessGenerator.findSeed(board, 99, 8, 15, seed, 60_000);
+            assertTrue(found.isPresent());
+            assertTrue(NoGuessGenerator.isGuessFree(16, 30, 99, "Expert", "square", found.getAsLong(), 8, 15));
+            assertTrue(NoGuessGenerator.isGuessFree(16, 30, 99, "Expert", "square", found.getAsLong(), 8, 15));
+        }
+        
+        //a no-guess first click records the seed of its board, or keeps its own if none was found
+        MinesweeperController controller = new MinesweeperController(16, 30, 99, new HighScoreBoard(), "Expert", "square");
+        controller.setNoGuess(true);
+        controller.getBoard().setSeed(0);
+        try {
+            controller.putTurn(8, 15);
+        } catch (HitMineException | IllegalMoveException e) {
+            assert(false); //the first click is always safe
+        }
+        long seed = controller.getBoard().getSeed();
+        assertEquals(controller.isGuessFree(), NoGuessGenerator.isGuessFree(16, 30, 99, "Expert", "square", seed, 8, 15));
+        if (!controller.isGuessFree()) {
+            assertEquals(0, seed);
+        }
+        assertEquals(controller.getBoard().getSpec(), controller.getBoard().getSpec().build(MinesweeperBoard.Storage.PACKED).getSpec());
+        
+        //past the budget, or on boards too large to search, the board's own seed is used
+        MinesweeperBoard large = new MinesweeperBoard(300, 300, "Custom", "cross");
+        assertFalse(NoGuessGenerator.findSeed(large, 9000, 150, 150, 1L, 1000).isPresent());
+        MinesweeperBoard expert = new MinesweeperBoard(16, 30, "Expert", "square");
+        assertFalse(NoGuessGenerator.findSeed(expert, 99, 8, 15, 1L, 0).isPresent());
+        MinesweeperController plain = new MinesweeperController(16, 30, 99, new HighScoreBoard(), "Expert", "square");
+        plain.getBoard().setSeed(3);
+        try {
+            plain.putTurn(8, 15);
+        } catch (HitMineException | IllegalMoveException e) {
+            assert(false); //the first click is always safe
+        }
+        assertFalse(plain.isGuessFree());
+        assertEquals(3, plain.getBoard().getSeed());
+    }
+
+    /**
+     * Tests that the candidate boards played by a no-guess first click are not recorded,
+     * so the click counts as one turn and one generation in the metrics and Flight Recorder.
+     */
+    @Test
+    void testNoGuessNotRecorded() {
+        HashMap<String, Integer> counts = new HashMap<String, Integer>();
+        long turns = EngineMetrics.TURN_NANOS.getCount();
+        long generations = EngineMetrics.GENERATE_NANOS.getCount();
+        long cascades = EngineMetrics.CASCADE_CELLS.getCount();
+        try (Recording recording = new Recording()) {
+            recording.enable("minesweeper.Generation").withoutThreshold();
+            recording.enable("minesweeper.Move").withoutThreshold();
+            recording.start();
+            MinesweeperController controller = new MinesweeperController(16, 30, 99, new HighScoreBoard(), "Expert", "square");
+            controller.setNoGuess(true);
+            controller.getBoard().setSeed(3); //its own board needs a guess, so others are tried
+            try {
+                controller.putTurn(8, 15);
+            } catch (HitMineException | IllegalMoveException e) {
+                assert(false); //the first click is always safe
+            }
+            recording.stop();
+            
+            Path dump = Files.createTempFile("minesweeper", ".jfr");
+            recording.dump(dump);
+            for (RecordedEvent event : RecordingFile.readAllEvents(dump)) {
+                String name = event.getEventType().getName();
+                counts.put(name, counts.getOrDefault(name, 0) + 1);
+            }
+            Files.delete(dump);
+        } catch (IOException e) {
+            assert(false); //the recording is written to a writable location
+        }
+        assertEquals(turns + 1, EngineMetrics.TURN_NANOS.getCount());
+        assertEquals(generations + 1, EngineMetrics.GENERATE_NANOS.getCount());
+        assertEquals(cascades + 1, EngineMetrics.CASCADE_CELLS.getCount());
+        assertEquals(Integer.valueOf(1), counts.get("minesweeper.Generation"));
+        assertEquals(Integer.valueOf(1), counts.get("minesweeper.Move"));
+    }
+
+    /**
+     * Tests that the pool hands out distinct laid out boards, never keeps more than its byte
+     * bound, and drops presets nobody uses.
+     */
+    @Test
+    void testBoardPool() {
+        try (BoardPool pool = new BoardPool(2, 1 << 20, 60_000)) {
+            pool.warm(19, 19, 37, "Expert", "diamond");
+            long deadline = System.currentTimeMillis() + 5000;
+            while (pool.numReady(19, 19, 37, "Expert", "diamond") < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(2, pool.numReady(19, 19, 37, "Expert", "diamond"));
+            MinesweeperBoard first = pool.take(19, 19, 37, "Expert", "diamond");
+            MinesweeperBoard second = pool.take(19, 19, 37, "Expert", "diamond");
+            assertFalse(first == second);
+            assertFalse(first.getInit());
+            assertEquals(MinesweeperBoard.DNE, first.getVisible(0, 0)); //the shape is already set up
+            assertTrue(first.isLaidOut()); //and the mines laid out
+            
+            MinesweeperController controller = new MinesweeperController(first, 37, new HighScoreBoard());
+            controller.putTurn(9, 9);
+            assertEquals(37, controller.getNumMines());
+            assertTrue(first.getInit());
+            
+            //a preset larger than the memory bound is never kept, but can still be taken
+            MinesweeperBoard large = pool.take(2000, 2000, 400000, "Custom", "square");
+            assertEquals(2000, large.numRows());
+            Thread.sleep(50);
+            assertEquals(0, pool.numReady(2000, 2000, 400000, "Custom", "square"));
+            assertTrue(pool.getBytes() <= 1 << 20);
+        } catch (InterruptedException e) {
+            assert(false); //the test thread is never interrupted
+        } catch (HitMineException | IllegalMoveException e) {
+            assert(false); //the first click is always safe
+        }
+        
+        //a board is counted with its opening index, so one whose cells alone fit is not kept
+        try (BoardPool pool = new BoardPool(2, 300_000, 60_000)) {
+            pool.warm(400, 400, 16000, "Custom", "square");
+            Thread.sleep(200);
+            assertEquals(0, pool.numReady(400, 400, 16000, "Custom", "square"));
+            assertEquals(0, pool.getBytes());
+            MinesweeperBoard board = pool.take(400, 400, 16000, "Custom", "square");
+            board.layOutMines(16000);
+            assertTrue(board.numBytes() > 4 * 400 * 400);
+        } catch (InterruptedException e) {
+            assert(false); //the test thread is never interrupted
+        }
+        
+        //presets nobody uses are dropped with their boards
+        try (BoardPool pool = new BoardPool(1, 1 << 20, 20)) {
+            pool.warm(16, 30, 99, "Expert", "square");
+            long deadline = System.currentTimeMillis() + 5000;
+            while (pool.numPresets() > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(0, pool.numPresets());
+            assertEquals(0, pool.getBytes());
+        } catch (InterruptedException e) {
+            assert(false); //the test thread is never interrupted
+        }
+    }
+
+    /**
+     * Tests that a board laid out before its first click becomes the same board at the
+     * first click as one generated there, with no mine on or touching the click and every
+     * value counted, and that the layout survives a save and is dropped by a new seed.
+     */
+    @Test
+    void testPreClickLayout() {
+        String[] shapes = {"square", "triangle", "diamond", "cross"};
+        int[] neighbors = new int[8];
+        for (int seed = 0; seed < 40; seed++) {
+            String shape = shapes[seed % shapes.length];
+            MinesweeperBoard laid = new MinesweeperBoard(16, 31, "Expert", shape);
+            MinesweeperBoard plain = new MinesweeperBoard(16, 31, "Expert", shape, MinesweeperBoard.Storage.BITBOARD);
+            laid.setSeed(seed);
+            plain.setSeed(seed);
+            int mines = seed < 20 ? 51 : laid.maxMines(); //the densest boards move the most mines
+            laid.layOutMines(mines);
+            assertTrue(laid.isLaidOut());
+            assertEquals(mines, laid.numMines());
+            assertFalse(laid.getInit());
+            
+            //a row and column in every shape, on the edge for some seeds
+            int row = seed % 2 == 0 ? 8 : 15;
+            int col = 15;
+            MinesweeperController fromLayout = new MinesweeperController(laid, mines, new HighScoreBoard());
+            MinesweeperController direct = new MinesweeperController(plain, mines, new HighScoreBoard());
+            try {
+                fromLayout.putTurn(row, col);
+                direct.putTurn(row, col);
+            } catch (HitMineException | IllegalMoveException e) {
+                assert(false); //the first click is always safe
+            }
+            assertFalse(laid.isLaidOut());
+            assertEquals(mines, laid.numMines());
+            assertEquals(plain.getSpec(), laid.getSpec());
+            for (int cell = 0; cell < laid.numCells(); cell++) {
+                assertEquals(plain.getVal(cell), laid.getVal(cell));
+                assertEquals(plain.getVisible(cell), laid.getVisible(cell));
+                if (laid.isDNE(cell) || laid.getVal(cell) == MinesweeperBoard.MINE) {
+                    continue;
+                }
+                int adjMines = 0;
+                int numNeighbors = laid.getNeighbors(cell, neighbors);
+                for (int idx = 0; idx < numNeighbors; idx++) {
+                    if (laid.getVal(neighbors[idx]) == MinesweeperBoard.MINE) {
+                        adjMines++;
+                    }
+                }
+                assertEquals(adjMines, laid.getVal(cell));
+            }
+            for (int r = row - 1; r <= row + 1; r++) {
+                for (int c = col - 1; c <= col + 1; c++) {
+                    if (r < 16) {
+                        assertFalse(laid.getVal(r, c) == MinesweeperBoard.MINE);
+                    }
+                }
+            }
+        }
+        
+        //an unplayed board is laid out again when loaded
+        MinesweeperBoard board = new MinesweeperBoard(16, 30, "Expert", "square");
+        board.layOutMines(99);
+        MinesweeperBoard loaded = null;
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            ObjectOutputStream out = new ObjectOutputStream(bytes);
+            out.writeObject(board);
+            out.close();
+            ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+            loaded = (MinesweeperBoard) in.readObject();
+            in.close();
+        } catch (IOException | ClassNotFoundException e) {
+            assert(false); //the board is serializable
+        }
+        assertTrue(loaded.isLaidOut());
+        for (int cell = 0; cell < board.numCells(); cell++) {
+            assertEquals(board.getVal(cell), loaded.getVal(cell));
+        }
+        
+        //a new seed drops the layout, and a layout of another mine count is redone
+        board.setSeed(board.getSeed() + 1);
+        assertFalse(board.isLaidOut());
+        assertEquals(0, board.numMines());
+        loaded.layOutMines(50);
+        assertEquals(50, loaded.numMines());
+        MinesweeperController controller = new MinesweeperController(loaded, 70, new HighScoreBoard());
+        try {
+            controller.putTurn(0, 0);
+        } catch (HitMineException | IllegalMoveException e) {
+            assert(false); //the first click is always safe
+        }
+        assertEquals(70, loaded.numMines());
+    }
+
+    /**
+     * Tests that clicking empty squares reveals the same squares as a search outward from
+     * each click, whether the opening comes from the opening index or, around flags and the
+     * first click, from the search, and that the index is used on a board with openings.
+     */
+    @Test
+    void testOpeningIndex() {
+        long bulk = EngineMetrics.OPENING_REVEALS.get();
+        Random random = new Random(24);
+        int[] neighbors = new int[8];
+        String[] shapes = {"square", "triangle", "diamond", "cross"};
+        for (int game = 0; game < 8; game++) {
+            MinesweeperController controller = new MinesweeperController(40, 40, 120, new HighScoreBoard(), "Custom", shapes[game % 4]);
+            controller.getBoard().setSeed(game);
+            MinesweeperModel model = controller.getModel();
+            int cells = model.numRows() * model.numCols();
+            int row = 20;
+            int col = 20;
+            for (int turn = 0; turn < 60; turn++) {
+                //the squares a search from the click would reveal
+                boolean[] expected = new boolean[cells];
+                for (int cell = 0; cell < cells; cell++) {
+                    expected[cell] = model.getVisibility(cell) == MinesweeperBoard.VISIBLE;
+                }
+                int start = model.cellIndex(row, col);
+                ArrayList<Integer> queue = new ArrayList<Integer>();
+                expected[start] = true;
+                queue.add(start);
+                for (int head = 0; head < queue.size() && controller.getInit(); head++) {
+                    int cell = queue.get(head);
+                    if (model.getVal(cell) != 0) {
+                        continue;
+                    }
+                    int numNeighbors = model.getNeighbors(cell, neighbors);
+                    for (int idx = 0; idx < numNeighbors; idx++) {
+                        int neighbor = neighbors[idx];
+                        if (!expected[neighbor] && model.getVisibility(neighbor) == MinesweeperBoard.INVISIBLE) {
+                            expected[neighbor] = true;
+                            queue.add(neighbor);
+                        }
+                    }
+                }
+                boolean first = !controller.getInit();
+                try {
+                    controller.putTurn(row, col);
+                } catch (HitMineException | IllegalMoveException e) {
+                    assert(false); //only hidden empty squares are clicked
+                }
+                if (!first) {
+                    for (int cell = 0; cell < cells; cell++) {
+                        assertEquals(expected[cell], model.getVisibility(cell) == MinesweeperBoard.VISIBLE);
+                    }
+                }
+                
+                //flag a hidden square now and then, so some openings hold a flag
+                int pick = random.nextInt(cells);
+                if (turn % 3 == 0 && model.getVisibility(pick) == MinesweeperBoard.INVISIBLE) {
+                    try {
+                        controller.flag(pick / model.numCols(), pick % model.numCols());
+                    } catch (IllegalMoveException e) {
+                        assert(false); //the square is hidden and flags are left
+                    }
+                }
+                
+                //click a random hidden empty square next
+                ArrayList<Integer> empty = new ArrayList<Integer>();
+                for (int cell = 0; cell < cells; cell++) {
+                    if (model.getVisibility(cell) == MinesweeperBoard.INVISIBLE && model.getVal(cell) == 0) {
+                        empty.add(cell);
+                    }
+                }
+                if (empty.isEmpty()) {
+                    break;
+                }
+                int next = empty.get(random.nextInt(empty.size()));
+                row = next / model.numCols();
+                col = next % model.numCols();
+            }
+        }
+        assertTrue(EngineMetrics.OPENING_REVEALS.get() > bulk);
+    }
+
+    /**
+     * Tests that cascades searched in parallel from their first cell reveal exactly the
+     * cells the sequential search reveals, on both storage backends and around flags.
+     */
+    @Test
+    void testParallelReveal() {
+        long parallel = EngineMetrics.PARALLEL_REVEAL_NANOS.getCount();
+        MinesweeperBoard.Storage[] storages = {MinesweeperBoard.Storage.PACKED, MinesweeperBoard.Storage.BITBOARD};
+        for (int game = 0; game < 4; game++) {
+            MinesweeperController sequential = new MinesweeperController(300, 300, 2500, new HighScoreBoard(), "Custom", "square", storages[game % 2]);
+            MinesweeperController concurrent = new MinesweeperController(300, 300, 2500, new HighScoreBoard(), "Custom", "square", storages[game % 2]);
+            sequential.getBoard().setSeed(game);
+            concurrent.getBoard().setSeed(game);
+            concurrent.setParallelRevealThreshold(1);
+            assertEquals(1, concurrent.getParallelRevealThreshold());
+            Random random = new Random(game);
+            try {
+                sequential.putTurn(150, 150);
+                concurrent.putTurn(150, 150);
+                for (int turn = 0; turn < 20; turn++) {
+                    //flags make the openings they fall in go through the search rather than the index
+                    int row = random.nextInt(300);
+                    int col = random.nextInt(300);
+                    if (sequential.getVisible(row, col) == MinesweeperBoard.INVISIBLE) {
+                        sequential.flag(row, col);
+                        concurrent.flag(row, col);
+                    }
+                    row = random.nextInt(300);
+                    col = random.nextInt(300);
+                    if (sequential.getVisible(row, col) == MinesweeperBoard.INVISIBLE 
+                            && sequential.getVal(row, col) == 0) {
+                        sequential.putTurn(row, col);
+                        concurrent.putTurn(row, col);
+                        assertEquals(sequential.getLastRevealed().size(), concurrent.getLastRevealed().size());
+                    }
+                }
+            } catch (HitMineException | IllegalMoveException e) {
+                assert(false); //only the first click and hidden empty squares are clicked
+            }
+            for (int row = 0; row < 300; row++) {
+                for (int col = 0; col < 300; col++) {
+                    assertEquals(sequential.getVisible(row, col), concurrent.getVisible(row, col));
+                }
+            }
+            assertEquals(sequential.getBoard().numVisible(), concurrent.getBoard().numVisible());
+            assertTrue(sequential.getBoard().numVisible() > 1000); //the first click opened a large area
+        }
+        assertTrue(EngineMetrics.PARALLEL_REVEAL_NANOS.getCount() > parallel);
+        
+        try {
+            new MinesweeperController(8, 8, 10, new HighScoreBoard(), "Beginner", "square").setParallelRevealThreshold(0);
+            fail("a threshold below one cell is rejected");
+        } catch (IllegalArgumentException e) {
+            //expected
+        }
     }
 
 }
@@ -0,0 +1,281 @@
+package view;
+
+import controller.MinesweeperController;
+import javafx.geometry.VPos;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.TextAlignment;
+import model.ChangeSet;
+import model.MinesweeperBoard;
+
+/**
+ * File: BoardCanvas.java
+ * Assignment: Minesweeper
+ * Course: CSC 335; Spring 2021
+ *
+ * This class draws the game board onto a single Canvas the size of the visible viewport, in
+ * place of one set of nodes per square. Every kind of square (hidden, empty, each number, mine,
+ * flag and DNE) is drawn once into a sprite image when the canvas is created, and painting a
+ * square is a single image blit. Only the squares inside the viewport are ever painted: a move
+ * repaints the changed squares that can be seen, and scrolling repaints the viewport. The cost
+ * of the view therefore depends on the size of the window, not the size of the board, so boards
+ * with millions of squares can be shown and scrolled.
+ *
+ * The viewport is scrolled with the mouse wheel or trackpad; holding shift scrolls sideways.
+ *
+ * @author Caroline Hyland
+ * @author James O'Connell
+ * @author Nicholas Leluan
+ * @author Christian Trejo
+ */
+public class BoardCanvas extends Region {
+
+	/**
+	 * Width and height in pixels of every square, including its border.
+	 */
+	public static final int CELL_SIZE = 34;
+
+	/**
+	 * Largest size in pixels the viewport asks for; larger boards are scrolled.
+	 */
+	private static final double MAX_VIEW_WIDTH = 1020;
+	private static final double MAX_VIEW_HEIGHT = 680;
+
+	/**
+	 * Colors of the proximity values 1 to 8.
+	 */
+	private static final Color[] NUM_COLORS = {Color.TRANSPARENT, Color.BLUE, Color.GREEN, Color.RED,
+			Color.NAVY, Color.MAROON, Color.TEAL, Color.BLACK, Color.GREY};
+
+	/**
+	 * Sprite indices: 0 to 8 are revealed squares with that value, then the special squares.
+	 */
+	private static final int SPRITE_HIDDEN = 9;
+	private static final int SPRITE_MINE = 10;
+	private static final int SPRITE_FLAG = 11;
+	private static final int SPRITE_DNE = 12;
+
+	/**
+	 * Controller the squares are read from.
+	 */
+	private MinesweeperController controller;
+
+	/**
+	 * Canvas the viewport is painted on.
+	 */
+	private Canvas canvas;
+
+	/**
+	 * Prerendered image of every kind of square, indexed by the SPRITE constants.
+	 */
+	private Image[] sprites;
+
+	/**
+	 * Pixel offset of the top left corner of the viewport within the whole board.
+	 */
+	private double scrollX;
+	private double scrollY;
+
+	/**
+	 * Constructs a new canvas showing the board of the given controller and draws the sprites.
+	 * Must be called on the JavaFX application thread.
+	 *
+	 * @param controller MinesweeperController whose board is shown
+	 * @param mineImage Image drawn on revealed mines
+	 * @param flagImage Image drawn on flagged squares
+	 */
+	public BoardCanvas(MinesweeperController controller, Image mineImage, Image flagImage) {
+		this.controller = controller;
+		this.sprites = makeSprites(mineImage, flagImage);
+		this.canvas = new Canvas();
+		getChildren().add(canvas);
+		setPrefSize(Math.min(MAX_VIEW_WIDTH, (double) controller.numCols() * CELL_SIZE),
+				Math.min(MAX_VIEW_HEIGHT, (double) controller.numRows() * CELL_SIZE));
+		addEventHandler(ScrollEvent.SCROLL, event -> {
+			double dx = event.isShiftDown() && event.getDeltaX() == 0 ? event.getDeltaY() : event.getDeltaX();
+			double dy = event.isShiftDown() && event.getDeltaX() == 0 ? 0 : event.getDeltaY();
+			scrollTo(scrollX - dx, scrollY - dy);
+			event.consume();
+		});
+	}
+
+	/**
+	 * Draws one image of every kind of square into the sprites array.
+	 *
+	 * @param mineImage Image drawn on revealed mines
+	 * @param flagImage Image drawn on flagged squares
+	 * @return Image[] the sprites, indexed by value or SPRITE constant
+	 */
+	private static Image[] makeSprites(Image mineImage, Image flagImage) {
+		Image[] images = new Image[SPRITE_DNE + 1];
+		Canvas scratch = new Canvas(CELL_SIZE, CELL_SIZE);
+		GraphicsContext gc = scratch.getGraphicsContext2D();
+		gc.setFont(Font.font("Arial", FontWeight.NORMAL, 20));
+		gc.setTextAlign(TextAlignment.CENTER);
+		gc.setTextBaseline(VPos.CENTER);
+		SnapshotParameters params = new SnapshotParameters();
+		params.setFill(Color.TRANSPARENT);
+		for (int sprite = 0; sprite < images.length; sprite++) {
+			gc.clearRect(0, 0, CELL_SIZE, CELL_SIZE);
+			gc.setFill(Color.GRAY);
+			gc.fillRect(0, 0, CELL_SIZE, CELL_SIZE);
+			if (sprite == SPRITE_DNE) {
+				images[sprite] = scratch.snapshot(params, new WritableImage(CELL_SIZE, CELL_SIZE));
+				continue;
+			}
+			gc.setStroke(Color.BLACK);
+			gc.setLineWidth(1);
+			gc.strokeRect(0.5, 0.5, CELL_SIZE - 1, CELL_SIZE - 1);
+			if (sprite <= 8) {
+				gc.setFill(Color.TAN);
+				gc.fillRect(2, 2, CELL_SIZE - 4, CELL_SIZE - 4);
+				if (sprite > 0) {
+					gc.setFill(NUM_COLORS[sprite]);
+					gc.fillText(Integer.toString(sprite), CELL_SIZE / 2.0, CELL_SIZE / 2.0);
+				}
+			} else if (sprite == SPRITE_MINE) {
+				gc.drawImage(mineImage, 2, 2, CELL_SIZE - 4, CELL_SIZE - 4);
+			} else if (sprite == SPRITE_FLAG) {
+				gc.drawImage(flagImage, 2, 2, CELL_SIZE - 4, CELL_SIZE - 4);
+			}
+			images[sprite] = scratch.snapshot(params, new WritableImage(CELL_SIZE, CELL_SIZE));
+		}
+		return images;
+	}
+
+	/**
+	 * Resizes the canvas to fill this region and repaints it.
+	 */
+	@Override
+	protected void layoutChildren() {
+		double width = getWidth();
+		double height = getHeight();
+		if (canvas.getWidth() != width || canvas.getHeight() != height) {
+			canvas.setWidth(width);
+			canvas.setHeight(height);
+			scrollTo(scrollX, scrollY);
+		}
+	}
+
+	/**
+	 * Purpose: Scrolls the viewport so its top left corner is at the given pixel of the board,
+	 * kept within the board, and repaints it.
+	 *
+	 * @param x double horizontal pixel offset of the viewport
+	 * @param y double vertical pixel offset of the viewport
+	 */
+	public void scrollTo(double x, double y) {
+		double maxX = Math.max(0, (double) controller.numCols() * CELL_SIZE - canvas.getWidth());
+		double maxY = Math.max(0, (double) controller.numRows() * CELL_SIZE - canvas.getHeight());
+		scrollX = Math.max(0, Math.min(maxX, Math.floor(x)));
+		scrollY = Math.max(0, Math.min(maxY, Math.floor(y)));
+		paintAll();
+	}
+
+	/**
+	 * Purpose: Repaints every square in the viewport.
+	 */
+	public void paintAll() {
+		GraphicsContext gc = canvas.getGraphicsContext2D();
+		gc.setFill(Color.GRAY);
+		gc.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+		int firstRow = (int) (scrollY / CELL_SIZE);
+		int firstCol = (int) (scrollX / CELL_SIZE);
+		int lastRow = Math.min(controller.numRows() - 1, (int) ((scrollY + canvas.getHeight()) / CELL_SIZE));
+		int lastCol = Math.min(controller.numCols() - 1, (int) ((scrollX + canvas.getWidth()) / CELL_SIZE));
+		for (int row = firstRow; row <= lastRow; row++) {
+			for (int col = firstCol; col <= lastCol; col++) {
+				paintSquare(gc, row, col);
+			}
+		}
+	}
+
+	/**
+	 * Purpose: Repaints the changed squares that are inside the viewport. Squares that cannot 
+	 * be seen are skipped; they are painted when scrolled into view. When the move changed
+	 * more squares than the viewport holds, the viewport is scanned instead of the changes.
+	 *
+	 * @param changes ChangeSet of the squares changed by a move
+	 */
+	public void paintCells(ChangeSet changes) {
+		GraphicsContext gc = canvas.getGraphicsContext2D();
+		int cols = controller.numCols();
+		int firstRow = (int) (scrollY / CELL_SIZE);
+		int firstCol = (int) (scrollX / CELL_SIZE);
+		int lastRow = Math.min(controller.numRows() - 1, (int) ((scrollY + canvas.getHeight()) / CELL_SIZE));
+		int lastCol = Math.min(cols - 1, (int) ((scrollX + canvas.getWidth()) / CELL_SIZE));
+		long inView = (long) (lastRow - firstRow + 1) * (lastCol - firstCol + 1);
+		if (changes.isDense() || changes.size() > inView) {
+			for (int row = firstRow; row <= lastRow; row++) {
+				for (int col = firstCol; col <= lastCol; col++) {
+					if (changes.contains(row * cols + col)) {
+						paintSquare(gc, row, col);
+					}
+				}
+			}
+			return;
+		}
+		changes.forEach(cell -> {
+			int row = cell / cols;
+			int col = cell % cols;
+			if (row >= firstRow && row <= lastRow && col >= firstCol && col <= lastCol) {
+				paintSquare(gc, row, col);
+			}
+		});
+	}
+
+	/**
+	 * Blits the sprite matching the current state of a square to its place in the viewport.
+	 *
+	 * @param gc GraphicsContext of the canvas
+	 * @param row int row index of the square
+	 * @param col int column index of the square
+	 */
+	private void paintSquare(GraphicsContext gc, int row, int col) {
+		int visible = controller.getVisible(row, col);
+		int sprite;
+		if (visible == MinesweeperBoard.VISIBLE) {
+			int val = controller.getVal(row, col);
+			sprite = val == MinesweeperBoard.MINE ? SPRITE_MINE : val;
+		} else if (visible == MinesweeperBoard.FLAG) {
+			sprite = SPRITE_FLAG;
+		} else if (visible == MinesweeperBoard.DNE) {
+			sprite = SPRITE_DNE;
+		} else {
+			sprite = SPRITE_HIDDEN;
+		}
+		gc.drawImage(sprites[sprite], (double) col * CELL_SIZE - scrollX, (double) row * CELL_SIZE - scrollY);
+	}
+
+	/**
+	 * Purpose: Returns the board row under the given vertical position in this region, or -1
+	 * if it is outside the board.
+	 *
+	 * @param y double vertical position in pixels within this region
+	 * @return int row index under the position
+	 */
+	public int rowAt(double y) {
+		int row = (int) Math.floor((y + scrollY) / CELL_SIZE);
+		return y < 0 || row >= controller.numRows() ? -1 : row;
+	}
+
+	/**
+	 * Purpose: Returns the board column under the given horizontal position in this region,
+	 * or -1 if it is outside the board.
+	 *
+	 * @param x double horizontal position in pixels within this region
+	 * @return int column index under the position
+	 */
+	public int colAt(double x) {
+		int col = (int) Math.floor((x + scrollX) / CELL_SIZE);
+		return x < 0 || col >= controller.numCols() ? -1 : col;
+	}
+}
@@ -1,17 +1,12 @@
 package view;
 
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.NoSuchElementException;
-import java.util.Observable;
-import java.util.Observer;
 import java.util.Optional;
 
+import controller.BoardPool;
+import controller.GameFiles;
 import controller.MinesweeperController;
 import exceptions.HitMineException;
 import exceptions.IllegalMoveException;
@@ -44,11 +39,7 @@ import javafx.scene.layout.BackgroundImage;
 import javafx.scene.layout.BackgroundPosition;
 import javafx.scene.layout.BackgroundRepeat;
 import javafx.scene.layout.BackgroundSize;
-import javafx.scene.layout.Border;
 import javafx.scene.layout.BorderPane;
-import javafx.scene.layout.BorderStroke;
-import javafx.scene.layout.BorderStrokeStyle;
-import javafx.scene.layout.BorderWidths;
 import javafx.scene.layout.ColumnConstraints;
 import javafx.scene.layout.CornerRadii;
 import javafx.scene.layout.GridPane;
@@ -63,7 +54,10 @@ import javafx.scene.text.FontWeight;
 import javafx.scene.text.Text;
 import javafx.scene.text.TextAlignment;
 import javafx.stage.Stage;
+import model.BoardListener;
+import model.ChangeSet;
 import model.MinesweeperBoard;
+import model.MinesweeperModel;
 
 /** 
  * File: MinesweeperView.java
@@ -85,8 +79,7 @@ import model.MinesweeperBoard;
  * @author Nicholas Leluan
  * @author Christian Trejo
  */
-@SuppressWarnings("deprecation")
-public class MinesweeperView extends Application implements Observer {
+public class MinesweeperView extends Application implements BoardListener {
 	// Main game fields.
 	/**
 	 * Stage object that can be manipulated and shown to the user 
@@ -108,27 +101,26 @@ public class MinesweeperView extends Application implements Observer {
      */
 	private MinesweeperController controller;
 	
-    // Data fields.
 	/**
-	 * 2D representation of the GUI board of squares
+	 * Boards built in the background for the presets being played, so a new game starts at once
 	 */
-    private Rectangle[][] squares;
-    
+	private BoardPool boardPool = new BoardPool();
+	
     /**
-     * Proximity mine locations 
+     * Largest number of rows or columns of a custom board
      */
-    private Text[][] nums;
+    private static final int MAX_CUSTOM_SIZE = 10_000;
     
     /**
-     * values to place for the mine proximity values
+     * Largest fraction of the squares of a custom board that may hold a mine
      */
-    private static final String[] NUM_STRINGS = {"", "1", "2", "3", "4", "5", "6", "7", "8"};
+    private static final double MAX_CUSTOM_DENSITY = 0.9;
     
-    /**
-     * Color pallette for the game board proximity values 
-     */
-    private static final Color[] NUM_COLORS = {Color.TRANSPARENT, Color.BLUE, Color.GREEN, Color.RED, 
-    		Color.NAVY, Color.MAROON, Color.TEAL, Color.BLACK, Color.GREY};
+    // Data fields.
+	/**
+	 * Canvas the squares of the game board are drawn on
+	 */
+    private BoardCanvas boardCanvas;
     
     /**
      * Image to use on the game board of the mines 
@@ -209,31 +201,9 @@ public class MinesweeperView extends Application implements Observer {
         });
         
         
-        MinesweeperBoard loadedBoard = null;
-        HighScoreBoard loadedHighScoreBoard = null;
-        
-        //Try to load MinesweeperBoard Instance
-        try {	
-        	File boardFile = new File("save_game.dat");
-        	ObjectInputStream ois = new ObjectInputStream(new FileInputStream(boardFile));
-			loadedBoard = (MinesweeperBoard) ois.readObject();
-			ois.close();
-			boardFile.delete();
-		} catch (IOException | ClassNotFoundException e){
-            // If no board, catch exception. Just use initial board.
-		}
-        
-        // Try to load HighScoreBoard.
-        try {
-			File highFile = new File("highscores.dat");
-        	ObjectInputStream ois2 = new ObjectInputStream(new FileInputStream(highFile));
-			loadedHighScoreBoard = (HighScoreBoard) ois2.readObject();
-			ois2.close();
-			highFile.delete();
-			
-		} catch (IOException | ClassNotFoundException e){
-            //If no board, catch exception. Just use initial board.
-		}
+        //Try to load MinesweeperBoard and HighScoreBoard instances; null if there are none
+        MinesweeperBoard loadedBoard = GameFiles.loadBoard();
+        HighScoreBoard loadedHighScoreBoard = GameFiles.loadHighScores();
        
         gameOver = false;
         
@@ -286,23 +256,20 @@ public class MinesweeperView extends Application implements Observer {
     	VBox menu = new VBox();
     	menu.setPadding(new Insets(25,0,8,0));
     	menu.setAlignment(Pos.CENTER);
-    	File dummy = new File("save_game.dat");
     	GridPane temp = new GridPane();
     	temp.setPadding(new Insets(50,0,8,0));
     	Button newGame = new Button("New Game");
     	newGame.setPrefSize(125,50);
     	// NEW GAME LOGIC
     	newGame.setOnMouseClicked(e -> {
-	    	if (dummy.exists()) {
-	    		dummy.delete();
-	    	}
+	    	GameFiles.deleteSavedGame();
 	    	mainMenu();
     	});
     	temp.add(newGame, 0, 0);
     	GridPane.setHalignment(newGame, HPos.CENTER);
     	menu.getChildren().add(temp);
     	// LOAD GAME LOGIC    	
-    	if (dummy.exists()) {
+    	if (GameFiles.hasSavedGame()) {
     		Button loadGame = new Button("Load Game");
     		loadGame.setPrefSize(125, 50);
     		GridPane g = new GridPane();
@@ -340,12 +307,11 @@ public class MinesweeperView extends Application implements Observer {
         numFlags = controller.getNumFlags();
         flagLabel.setText("Flags:" + Integer.toString(numFlags));
         timerLabel.setText("Time:" + Integer.toString(seconds));
-    	squares = new Rectangle[controller.numRows()][controller.numCols()];
-		nums = new Text[controller.numRows()][controller.numCols()];
 	}
 
     /**
-     * Method to be used when the player wants to play a New Game
+     * Method to be used when the player wants to play a New Game. The board is taken from the 
+     * board pool, which builds the next one of the same preset in the background.
      * 
      * @param rows int value for the number of rows to put into the board
      * @param col int value for the number of columns to put into each row of the board
@@ -354,10 +320,11 @@ public class MinesweeperView extends Application implements Observer {
      * @param shape String representing the shape of the board the user chose to play with 
      */
 	private void buildNewGame(int rows, int cols, int mines, HighScoreBoard highScoreBoard, String difficulty, String shape) {
+		MinesweeperBoard newBoard = boardPool.take(rows, cols, mines, difficulty, shape);
 		if(controller == null) {
-			controller = new MinesweeperController(rows, cols, mines, highScoreBoard, difficulty, shape);
+			controller = new MinesweeperController(newBoard, mines, highScoreBoard);
 		} else {
-			controller.updateModel(rows, cols, mines, highScoreBoard, difficulty, shape);
+			controller.updateModel(newBoard, mines, highScoreBoard);
 		}
         numFlags = controller.getNumFlags();
 		flagLabel.setText("Flags:" + Integer.toString(numFlags));
@@ -366,8 +333,6 @@ public class MinesweeperView extends Application implements Observer {
         timerRunning = false;
         seconds = 0;
         gameOver = false;
-		squares = new Rectangle[controller.numRows()][controller.numCols()];
-		nums = new Text[controller.numRows()][controller.numCols()];
 		playGame();
 	}
 
@@ -380,6 +345,10 @@ public class MinesweeperView extends Application implements Observer {
      * @param highScoreBoard HighScoreBoard instance of the present high scores on the local machine 
      */
 	private void chooseGameGraphic(HighScoreBoard highScoreBoard) {			
+		// Keep a board of the last preset played ready while the player chooses
+		if (controller != null) {
+			boardPool.warm(controller.numRows(), controller.numCols(), controller.getNumMines(), controller.getDifficulty(), controller.getShape());
+		}
 		// Build display
 		board = new GridPane();
 		int boardRow = 0;
@@ -747,6 +716,20 @@ public class MinesweeperView extends Application implements Observer {
     	
     }
 
+    /**
+     * Returns the largest number of mines allowed on a custom board: MAX_CUSTOM_DENSITY of its
+     * squares, and never so many that the 3x3 block around the first click cannot be kept clear.
+     * 
+     * @param numRows int number of rows of the custom board
+     * @param numCols int number of columns of the custom board
+     * @return int largest number of mines for the board
+     */
+    private static int maxCustomMines(int numRows, int numCols) {
+    	int area = numRows * numCols;
+    	int safeZone = Math.min(numRows, 3) * Math.min(numCols, 3);
+    	return (int) Math.min((long) (MAX_CUSTOM_DENSITY * area), area - safeZone);
+    }
+    
     /**
      * Method that validates a users request to create a custom shaped board and creates a board/game
      * given the criteria is valid.
@@ -781,9 +764,9 @@ public class MinesweeperView extends Application implements Observer {
 		}
 		
 		// checks that nums for row/col/mine are valid
-		if (numRows < 1 || numRows > 35 || numCols < 1 || numCols > 35) {
+		if (numRows < 1 || numRows > MAX_CUSTOM_SIZE || numCols < 1 || numCols > MAX_CUSTOM_SIZE) {
 			new Alert(Alert.AlertType.INFORMATION, "The number of rows and columns for the board must be "
-					+ "between 1 and 35 (inclusive).").showAndWait();	
+					+ "between 1 and " + MAX_CUSTOM_SIZE + " (inclusive).").showAndWait();	
 			return;
 		} 
 		if (numRows < 4 && numCols < 4) {
@@ -794,8 +777,8 @@ public class MinesweeperView extends Application implements Observer {
 		if (numMines < 1) {
 			new Alert(Alert.AlertType.INFORMATION, "There must be at least one mine.").showAndWait();	
 			return;
-		} else if (numMines > (.25)*(numRows*numCols)) {
-			int maxMines = (int)((.25)*(numRows*numCols));
+		} else if (numMines > maxCustomMines(numRows, numCols)) {
+			int maxMines = maxCustomMines(numRows, numCols);
 			new Alert(Alert.AlertType.INFORMATION, "The maximum number of mines for your "
 					+ "chosen board size is " + maxMines + ".").showAndWait();	
 			return;
@@ -832,8 +815,7 @@ public class MinesweeperView extends Application implements Observer {
 
         // Set main game board.
         setBoard();
-        controller.update(this);
-        controller.addObserver(this);
+        controller.addListener(this);
 
         // If the user wants to start a new game.
         newGame(newGameLabel);
@@ -910,13 +892,7 @@ public class MinesweeperView extends Application implements Observer {
             // Save score and reset score.
             controller.setScore(seconds);
             seconds = 0;
-    		File boardFile = new File("save_game.dat");
-    		FileOutputStream fos = new FileOutputStream(boardFile);
-    		ObjectOutputStream oos = new ObjectOutputStream(fos);
-    		oos.writeObject(controller.getBoard());
-    		fos.close();
-    		oos.close();
-    		
+            GameFiles.saveBoard(controller.getBoard());
     	} catch (IOException e) {
     	}
     }
@@ -930,13 +906,7 @@ public class MinesweeperView extends Application implements Observer {
      */
     private void saveHighScoreBoard() {
     	try {
-    		File highFile = new File("highscores.dat");
-    		FileOutputStream fos = new FileOutputStream(highFile);
-    		ObjectOutputStream oos = new ObjectOutputStream(fos);
-    		oos.writeObject(controller.getHighScoreBoard());
-    		
-    		fos.close();
-    		oos.close();
+    		GameFiles.saveHighScores(controller.getHighScoreBoard());
     	} catch (IOException e) {
     	}
     }
@@ -954,12 +924,7 @@ public class MinesweeperView extends Application implements Observer {
         newGameLabel.setOnMouseClicked(new EventHandler<MouseEvent>() {
             @Override
             public void handle(MouseEvent event) {
-                try {
-                    File file = new File("save_game.dat");
-                    file.delete();
-                } catch (Exception e) {
-                    // Could not delete file.
-                }
+                GameFiles.deleteSavedGame();
                 timer.stop();
                 timerRunning = false;
                 
@@ -984,46 +949,10 @@ public class MinesweeperView extends Application implements Observer {
         board.setBackground(new Background(new BackgroundFill(Color.GRAY, CornerRadii.EMPTY, Insets.EMPTY)));
         board.setPadding(new Insets(8));
 
-        // Fill GridPane.
-        for (int row=0; row<controller.numRows(); row++) {
-            for (int col=0; col<controller.numCols(); col++) {
-                Rectangle tempRec = new Rectangle(30, 30, Color.TRANSPARENT);
-                Text tempNum = new Text();
-                tempNum.setFont(Font.font("Arial",20));
-                tempNum.setFill(Color.BLACK);
-                // Check for load values at their indices.
-                if (controller.getVisible(row, col) == MinesweeperBoard.VISIBLE) {
-                    tempRec.setFill(Color.TAN);
-                    if (controller.getVal(row, col) == MinesweeperBoard.MINE) {
-                        tempRec.setFill(new ImagePattern(mineImage));
-                    } else {
-                        tempNum.setText(NUM_STRINGS[controller.getVal(row, col)]);
-                        tempNum.setFill(NUM_COLORS[controller.getVal(row, col)]);
-                    }
-                } else if (controller.getVisible(row, col) == MinesweeperBoard.FLAG) {
-                    tempRec.setFill(new ImagePattern(flagImage));
-                } else if (controller.getVisible(row, col) == MinesweeperBoard.DNE) {
-                	tempRec.setStroke(Color.TRANSPARENT);
-                }
-                // Add event to square.
-                tempRec.setOnMouseClicked(new executeTurn(row, col));
-                squares[row][col] = tempRec;
-                nums[row][col] = tempNum;
-                StackPane newStackPane = new StackPane(tempRec, tempNum);
-                newStackPane.setPadding(new Insets(2));
-                BorderStroke[] borderStrokes = new BorderStroke[4];
-                // Add lines
-                for (int i=0; i<borderStrokes.length; i++) {
-                	if (controller.getVisible(row, col) == MinesweeperBoard.DNE) {
-                		borderStrokes[i] = new BorderStroke(Color.TRANSPARENT, BorderStrokeStyle.SOLID, CornerRadii.EMPTY, BorderWidths.DEFAULT);
-                    } else {
-                        borderStrokes[i] = new BorderStroke(Color.BLACK, BorderStrokeStyle.SOLID, CornerRadii.EMPTY, BorderWidths.DEFAULT);
-                    }
-                }
-                newStackPane.setBorder(new Border(borderStrokes));
-                board.add(newStackPane, col, row);
-            }
-        }
+        // Only the squares in view are drawn, so the board can be far larger than the window.
+        boardCanvas = new BoardCanvas(controller, mineImage, flagImage);
+        boardCanvas.setOnMouseClicked(new executeTurn());
+        board.add(boardCanvas, 0, 0);
     }
 
     /**
@@ -1077,62 +1006,36 @@ public class MinesweeperView extends Application implements Observer {
 
 
     /**
-     * This method updates the view when changes have been made to the model.
+     * This method updates the view when a move has been made on the model.
      * 
-     * @param o Observable which in this case is the model that was updated.
-     * @param arg Object which in this case is the board held within the model.
+     * Only the squares in the ChangeSet are repainted, so the cost of a move depends on 
+     * how many squares changed rather than on the size of the board.
+     * 
+     * @param model MinesweeperModel the move was made on.
+     * @param changes ChangeSet of the squares changed by the move.
      */
 	@Override
-	public void update(Observable o, Object arg) {
-        for (int row=0; row<controller.numRows(); row++) {
-            for (int col=0; col<controller.numCols(); col++) {
-            	if (controller.getVisible(row, col) == MinesweeperBoard.VISIBLE) {
-                    squares[row][col].setFill(Color.TAN);
-                    if (controller.getVal(row, col) == MinesweeperBoard.MINE) {
-                    	squares[row][col].setFill(new ImagePattern(mineImage));
-                    } else {
-                    	nums[row][col].setText(NUM_STRINGS[controller.getVal(row, col)]);
-                    	nums[row][col].setFill(NUM_COLORS[controller.getVal(row, col)]);
-                    }
-                } else if (controller.getVisible(row, col) == MinesweeperBoard.FLAG) {
-                	squares[row][col].setFill(new ImagePattern(flagImage));
-                } else if (controller.getVisible(row, col) == MinesweeperBoard.DNE) {
-                	continue; //do not modify non-existing game squares
-            	} else {
-                    squares[row][col].setFill(Color.TRANSPARENT);
-                    nums[row][col].setFill(Color.BLACK);
-                    nums[row][col].setText("");
-                }
-            }
-        }
-
+	public void boardChanged(MinesweeperModel model, ChangeSet changes) {
+		boardCanvas.paintCells(changes);
     }
 	
 	/**
-     * This class represents a player's Mouse Click on a square and triggers 
-     * an event.
+     * This class represents a player's Mouse Click on the board canvas and triggers 
+     * an event on the square under the mouse.
      */
     private class executeTurn implements EventHandler<MouseEvent> {
-        private int row;
-        private int col;
 
         /**
-         * Represents an instance of the of a players move with the specified row and column being clicked.
-         * 
-         * @param row - int row index on the board.
-         * @param col - int column index on the board.
-         */
-        public executeTurn(int row, int col) {
-            this.row = row;
-            this.col = col;
-        }
-
-        /**
-         * Executes a players move on the board.
-         * @param event MouseEvent indicating the circle was clicked.
+         * Executes a players move on the square that was clicked.
+         * @param event MouseEvent indicating the board was clicked.
          */
         @Override 
         public void handle(MouseEvent event) {
+        	int row = boardCanvas.rowAt(event.getY());
+        	int col = boardCanvas.colAt(event.getX());
+        	if (row < 0 || col < 0) {
+        		return; // clicked outside the board
+        	}
         	if (event.getButton() == MouseButton.PRIMARY) {
         		// Execute turn on a left click
                 try {